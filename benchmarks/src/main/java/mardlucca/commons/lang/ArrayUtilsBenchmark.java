@@ -0,0 +1,117 @@
+/*
+ * File: ArrayUtilsBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks boxing and unboxing of whole arrays, as well as conversions
+ * between arrays of primitives, through {@link ArrayUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArrayUtilsBenchmark {
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private int[] ints;
+    private Integer[] integers;
+    private double[] doubles;
+    private Double[] doubleWrappers;
+    private long[] longs;
+
+    @Setup
+    public void setUp() {
+        ints = new int[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = i;
+            doubles[i] = i * 0.5;
+        }
+        integers = ArrayUtils.toWrapperArray(ints);
+        doubleWrappers = ArrayUtils.toWrapperArray(doubles);
+        longs = ArrayUtils.toLongArray(ints);
+    }
+
+    @Benchmark
+    public int[] integerToPrimitive() {
+        return ArrayUtils.toPrimitiveArray(integers);
+    }
+
+    @Benchmark
+    public Integer[] intToWrapper() {
+        return ArrayUtils.toWrapperArray(ints);
+    }
+
+    @Benchmark
+    public double[] doubleToPrimitive() {
+        return ArrayUtils.toPrimitiveArray(doubleWrappers);
+    }
+
+    @Benchmark
+    public Double[] doubleToWrapper() {
+        return ArrayUtils.toWrapperArray(doubles);
+    }
+
+    @Benchmark
+    public long[] intToLong() {
+        return ArrayUtils.toLongArray(ints);
+    }
+
+    @Benchmark
+    public double[] intToDouble() {
+        return ArrayUtils.toDoubleArray(ints);
+    }
+
+    @Benchmark
+    public int[] longToIntWrapping() {
+        return ArrayUtils.toIntArray(longs, OverflowPolicy.WRAP);
+    }
+
+    @Benchmark
+    public int[] longToIntSaturating() {
+        return ArrayUtils.toIntArray(longs, OverflowPolicy.SATURATE);
+    }
+
+    @Benchmark
+    public int[] longToIntChecked() {
+        return ArrayUtils.toIntArray(longs, OverflowPolicy.THROW);
+    }
+
+    @Benchmark
+    public int[] doubleToIntSaturating() {
+        return ArrayUtils.toIntArray(doubles, OverflowPolicy.SATURATE);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * File: TypeUtilsBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link TypeUtils} predicates called while resolving
+ * converters, for classes and for parameterized types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeUtilsBenchmark {
+    private Type nestedType =
+            new TypeReference<Map<String, List<Map<Integer, Long>>>>() {}
+                    .getType();
+
+    private Type listType = new TypeReference<List<Integer>>() {}.getType();
+
+    @Benchmark
+    public boolean isGenericOfNestedType() {
+        return TypeUtils.isGeneric(nestedType);
+    }
+
+    @Benchmark
+    public boolean hasTypeVariablesOfNestedType() {
+        return TypeUtils.hasTypeVariables(nestedType);
+    }
+
+    @Benchmark
+    public boolean isCollectionOfClass() {
+        return TypeUtils.isCollection(ArrayList.class);
+    }
+
+    @Benchmark
+    public Type getCollectionElementType() {
+        return TypeUtils.getCollectionElementType(listType);
+    }
+
+    @Benchmark
+    public Type[] getMapKeyValueTypes() {
+        return TypeUtils.getMapKeyValueTypes(nestedType);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * File: ChainResolutionBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.lang.Types;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converter resolution through {@link ChainingConverterFactory}.
+ * The "cold" benchmarks use a new factory on every invocation, so they
+ * measure a full walk of the chain. The "cached" ones measure repeated
+ * resolutions of the same pair, from one thread and from several threads
+ * contending on the same factory. "cachedCanonical" resolves canonical
+ * types built by {@link Types}, which are cheaper to hash and compare than the
+ * types returned by reflection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChainResolutionBenchmark {
+    @Param({"SCALAR", "ARRAY", "NESTED"})
+    private Pair pair;
+
+    private ConverterFactory factory;
+
+    private ConverterFactory canonicalFactory;
+
+    private Type canonicalFrom;
+
+    private Type canonicalTo;
+
+    @Setup
+    public void setUp() {
+        factory = DefaultConverterFactory.newInstance();
+        canonicalFactory = DefaultConverterFactory.newInstance();
+        canonicalFrom = Types.canonicalize(pair.from);
+        canonicalTo = Types.canonicalize(pair.to);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Converter<?, ?> cold() {
+        return DefaultConverterFactory.newInstance().getConverter(
+                pair.from, pair.to);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Converter<?, ?> cached() {
+        return factory.getConverter(pair.from, pair.to);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Converter<?, ?> cachedCanonical() {
+        return canonicalFactory.getConverter(canonicalFrom, canonicalTo);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Converter<?, ?> cachedContended() {
+        return factory.getConverter(pair.from, pair.to);
+    }
+
+    public enum Pair {
+        SCALAR(Integer.class, Long.class),
+        ARRAY(int[].class, double[].class),
+        NESTED(new TypeReference<Map<String, List<Integer>>>() {}.getType(),
+                new TypeReference<Map<String, long[]>>() {}.getType());
+
+        private Type from;
+        private Type to;
+
+        Pair(Type aInFrom, Type aInTo) {
+            from = aInFrom;
+            to = aInTo;
+        }
+    }
+}
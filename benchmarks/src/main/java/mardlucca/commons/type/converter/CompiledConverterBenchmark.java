@@ -0,0 +1,136 @@
+/*
+ * File: CompiledConverterBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converters compiled by {@link ConverterCompiler} against the
+ * interpreted converter trees built by the chain. Before measuring, several
+ * other conversions are run through the same kind of factory so the call
+ * sites inside the interpreted converters see more than one receiver type,
+ * as they would in an application using many type pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompiledConverterBenchmark {
+    private static final Type INTEGER_LIST =
+            new TypeReference<List<Integer>>() {}.getType();
+    private static final Type STRING_TO_INTEGER_LIST_MAP =
+            new TypeReference<Map<String, List<Integer>>>() {}.getType();
+
+    @Param({"INTERPRETED", "COMPILED"})
+    private String mode;
+
+    @Param({"1000"})
+    private int size;
+
+    private Converter<Object, Object> scalar;
+    private Converter<Object, Object> list;
+    private Converter<Object, Object> nested;
+
+    private List<Integer> integers;
+    private Map<String, List<Integer>> map;
+
+    @Setup
+    public void setUp() {
+        ConverterFactory lFactory = DefaultConverterFactory.newInstance();
+        if (mode.equals("COMPILED")) {
+            lFactory = new CompilingConverterFactory(lFactory);
+        }
+
+        scalar = lFactory.getConverter(Integer.class, Long.class);
+        list = lFactory.getConverter(INTEGER_LIST,
+                new TypeReference<List<Long>>() {}.getType());
+        nested = lFactory.getConverter(STRING_TO_INTEGER_LIST_MAP,
+                new TypeReference<Map<String, long[]>>() {}.getType());
+
+        integers = new ArrayList<>();
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            integers.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            map.put("key" + i, integers.subList(0, size / 10));
+        }
+
+        pollute(lFactory);
+    }
+
+    @Benchmark
+    public Object scalar() {
+        return scalar.convert(size);
+    }
+
+    @Benchmark
+    public Object list() {
+        return list.convert(integers);
+    }
+
+    @Benchmark
+    public Object nested() {
+        return nested.convert(map);
+    }
+
+    /**
+     * Runs a few other conversions so the profiles of the shared converter
+     * code are polluted with several receiver types.
+     */
+    private void pollute(ConverterFactory aInFactory) {
+        Type[] lTargets = {
+                new TypeReference<List<Double>>() {}.getType(),
+                new TypeReference<List<String>>() {}.getType(),
+                new TypeReference<Set<Float>>() {}.getType(),
+                new TypeReference<List<Integer>>() {}.getType(),
+                double[].class,
+                String[].class
+        };
+        for (int i = 0; i < 20_000; i++) {
+            for (Type lTarget : lTargets) {
+                aInFactory.getConverter(INTEGER_LIST, lTarget)
+                        .convert(integers.subList(0, 10));
+            }
+        }
+    }
+}
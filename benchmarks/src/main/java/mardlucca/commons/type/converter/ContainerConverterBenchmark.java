@@ -0,0 +1,123 @@
+/*
+ * File: ContainerConverterBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.ArrayUtils;
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmarks {@link ContainerConverter#convert(Object)} for arrays and lists
+ * of primitive and boxed elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContainerConverterBenchmark {
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"INT_ARRAY_TO_LONG_ARRAY", "INT_ARRAY_TO_DOUBLE_ARRAY",
+            "INTEGER_ARRAY_TO_LONG_ARRAY", "INT_ARRAY_TO_INTEGER_ARRAY",
+            "INTEGER_LIST_TO_LONG_LIST", "INTEGER_LIST_TO_INT_ARRAY"})
+    private Conversion conversion;
+
+    private Converter<Object, Object> converter;
+
+    private Object source;
+
+    @Setup
+    public void setUp() {
+        converter = DefaultConverterFactory.newInstance().getConverter(
+                conversion.from, conversion.to);
+        source = conversion.sourceFactory.apply(size);
+    }
+
+    @Benchmark
+    public Object convert() {
+        return converter.convert(source);
+    }
+
+    public enum Conversion {
+        INT_ARRAY_TO_LONG_ARRAY(
+                int[].class, long[].class, Conversion::newIntArray),
+        INT_ARRAY_TO_DOUBLE_ARRAY(
+                int[].class, double[].class, Conversion::newIntArray),
+        INTEGER_ARRAY_TO_LONG_ARRAY(
+                Integer[].class, long[].class, Conversion::newIntegerArray),
+        INT_ARRAY_TO_INTEGER_ARRAY(
+                int[].class, Integer[].class, Conversion::newIntArray),
+        INTEGER_LIST_TO_LONG_LIST(
+                new TypeReference<List<Integer>>() {}.getType(),
+                new TypeReference<List<Long>>() {}.getType(),
+                Conversion::newIntegerList),
+        INTEGER_LIST_TO_INT_ARRAY(
+                new TypeReference<List<Integer>>() {}.getType(),
+                int[].class,
+                Conversion::newIntegerList);
+
+        private Type from;
+        private Type to;
+        private IntFunction<Object> sourceFactory;
+
+        Conversion(Type aInFrom, Type aInTo,
+                   IntFunction<Object> aInSourceFactory) {
+            from = aInFrom;
+            to = aInTo;
+            sourceFactory = aInSourceFactory;
+        }
+
+        private static int[] newIntArray(int aInSize) {
+            int[] lArray = new int[aInSize];
+            for (int i = 0; i < aInSize; i++) {
+                lArray[i] = i;
+            }
+            return lArray;
+        }
+
+        private static Integer[] newIntegerArray(int aInSize) {
+            return ArrayUtils.toWrapperArray(newIntArray(aInSize));
+        }
+
+        private static List<Integer> newIntegerList(int aInSize) {
+            return new ArrayList<>(Arrays.asList(newIntegerArray(aInSize)));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * File: DefaultConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.ConverterFactory;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+
+/**
+ * Builds the converter factory used by the benchmarks, with all the chained
+ * factories available in this project.
+ */
+public class DefaultConverterFactory {
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private DefaultConverterFactory() {
+    }
+
+    public static ConverterFactory newInstance() {
+        return newInstance(null);
+    }
+
+    /**
+     * @param aInParallelism settings for converting large containers in
+     *                       parallel, or null to convert them sequentially
+     */
+    public static ConverterFactory newInstance(
+            ParallelConversion aInParallelism) {
+        return fromFactories(
+                new TypeVariableFilteringChainedFactory(),
+                new ChainedIdentityConverterFactory(),
+                new ChainedAutoBoxingConverterFactory(),
+                new ChainedCastingConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory(aInParallelism),
+                new ChainedMapConverterFactory(),
+                new ChainedStreamConverterFactory(),
+                new ChainedToStringConverterFactory());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * File: MapConverterBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MapConverter#convert(Map)}, both when only the values
+ * need converting and when keys and values do. Sizes stop at one million
+ * entries as larger hash maps mostly measure the garbage collector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MapConverterBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private Converter<Map<String, Integer>, Map<String, Long>> valueConverter;
+    private Converter<Map<String, Integer>, Map<String, String>>
+            toStringConverter;
+    private Converter<Map<Integer, Integer>, Map<Long, Double>>
+            keyValueConverter;
+
+    private Map<String, Integer> stringKeyed;
+    private Map<Integer, Integer> integerKeyed;
+
+    @Setup
+    public void setUp() {
+        valueConverter = DefaultConverterFactory.newInstance().getConverter(
+                new TypeReference<Map<String, Integer>>() {},
+                new TypeReference<Map<String, Long>>() {});
+        toStringConverter = DefaultConverterFactory.newInstance().getConverter(
+                new TypeReference<Map<String, Integer>>() {},
+                new TypeReference<Map<String, String>>() {});
+        keyValueConverter = DefaultConverterFactory.newInstance().getConverter(
+                new TypeReference<Map<Integer, Integer>>() {},
+                new TypeReference<Map<Long, Double>>() {});
+
+        stringKeyed = new HashMap<>();
+        integerKeyed = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            stringKeyed.put("key" + i, i);
+            integerKeyed.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> convertValues() {
+        return valueConverter.convert(stringKeyed);
+    }
+
+    @Benchmark
+    public Map<String, String> convertValuesToString() {
+        return toStringConverter.convert(stringKeyed);
+    }
+
+    @Benchmark
+    public Map<Long, Double> convertKeysAndValues() {
+        return keyValueConverter.convert(integerKeyed);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * File: ParallelContainerConverterBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel conversions of large containers whose
+ * elements are converted to strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelContainerConverterBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"SEQUENTIAL", "FORK_JOIN"})
+    private Execution execution;
+
+    private Converter<int[], String[]> arrayConverter;
+
+    private Converter<List<Integer>, List<String>> listConverter;
+
+    private int[] array;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        ParallelConversion lParallelism = execution == Execution.FORK_JOIN
+                ? ParallelConversion.forkJoin(10_000)
+                : null;
+        arrayConverter = DefaultConverterFactory.newInstance(lParallelism)
+                .getConverter(int[].class, String[].class);
+        listConverter = DefaultConverterFactory.newInstance(lParallelism)
+                .getConverter(new TypeReference<List<Integer>>() {},
+                        new TypeReference<List<String>>() {});
+
+        array = new int[size];
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+            list.add(i);
+        }
+    }
+
+    @Benchmark
+    public String[] convertArray() {
+        return arrayConverter.convert(array);
+    }
+
+    @Benchmark
+    public List<String> convertList() {
+        return listConverter.convert(list);
+    }
+
+    public enum Execution {
+        SEQUENTIAL, FORK_JOIN
+    }
+}
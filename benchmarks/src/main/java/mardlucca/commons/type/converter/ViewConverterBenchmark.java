@@ -0,0 +1,101 @@
+/*
+ * File: ViewConverterBenchmark.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+
+/**
+ * Compares converting a large list into a copy with converting it into a
+ * view, when only the first page of the result is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViewConverterBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private Converter<List<Integer>, List<String>> copyConverter;
+
+    private Converter<List<Integer>, List<String>> viewConverter;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        TypeReference<List<Integer>> lFrom =
+                new TypeReference<List<Integer>>() {};
+        TypeReference<List<String>> lTo =
+                new TypeReference<List<String>>() {};
+        copyConverter = DefaultConverterFactory.newInstance()
+                .getConverter(lFrom, lTo);
+        viewConverter = fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedViewConverterFactory(),
+                new ChainedToStringConverterFactory())
+                .getConverter(lFrom, lTo);
+
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+    }
+
+    @Benchmark
+    public void firstPageOfCopy(Blackhole aInBlackhole) {
+        readFirstPage(copyConverter.convert(list), aInBlackhole);
+    }
+
+    @Benchmark
+    public void firstPageOfView(Blackhole aInBlackhole) {
+        readFirstPage(viewConverter.convert(list), aInBlackhole);
+    }
+
+    private static void readFirstPage(List<String> aInList,
+                                      Blackhole aInBlackhole) {
+        int lEnd = Math.min(PAGE_SIZE, aInList.size());
+        for (int i = 0; i < lEnd; i++) {
+            aInBlackhole.consume(aInList.get(i));
+        }
+    }
+}
@@ -162,4 +162,828 @@ public class ArrayUtils {
         }
         return lResult;
     }
+
+    /*
+     * Conversions between arrays of primitives. Each one is a plain counted
+     * loop over the source array, with nothing but the conversion of an
+     * element in its body, which is the shape the JIT compiler turns into
+     * vector instructions.
+     */
+
+    public static short[] toShortArray(byte[] aInArray) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(byte[] aInArray) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(byte[] aInArray) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(byte[] aInArray) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(byte[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(short[] aInArray) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(short[] aInArray) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(short[] aInArray) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(short[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(char[] aInArray) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(char[] aInArray) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(char[] aInArray) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(char[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(int[] aInArray) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(int[] aInArray) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(int[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(long[] aInArray) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(long[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+    public static double[] toDoubleArray(float[] aInArray) {
+        if (aInArray == null) { return null; }
+        double[] lResult = new double[aInArray.length];
+        for (int i = 0; i < aInArray.length; i++) {
+            lResult[i] = aInArray[i];
+        }
+        return lResult;
+    }
+
+
+    /*
+     * Narrowing conversions. The overflow policy is checked once, outside of
+     * the loops, so each loop stays as simple as the widening ones.
+     */
+
+    public static byte[] toByteArray(
+            short[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(aInArray[i], Byte.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Byte.MIN_VALUE
+                            || aInArray[i] > Byte.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            short[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Character.MIN_VALUE
+                            || aInArray[i] > Character.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static byte[] toByteArray(
+            char[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.min(aInArray[i], Byte.MAX_VALUE);
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] > Byte.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static short[] toShortArray(
+            char[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) Math.min(aInArray[i], Short.MAX_VALUE);
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] > Short.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "short");
+                    }
+                    lResult[i] = (short) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static byte[] toByteArray(
+            int[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(aInArray[i], Byte.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Byte.MIN_VALUE
+                            || aInArray[i] > Byte.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static short[] toShortArray(
+            int[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) Math.max(Short.MIN_VALUE,
+                            Math.min(aInArray[i], Short.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Short.MIN_VALUE
+                            || aInArray[i] > Short.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "short");
+                    }
+                    lResult[i] = (short) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            int[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Character.MIN_VALUE
+                            || aInArray[i] > Character.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static byte[] toByteArray(
+            long[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(aInArray[i], Byte.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Byte.MIN_VALUE
+                            || aInArray[i] > Byte.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static short[] toShortArray(
+            long[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) Math.max(Short.MIN_VALUE,
+                            Math.min(aInArray[i], Short.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Short.MIN_VALUE
+                            || aInArray[i] > Short.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "short");
+                    }
+                    lResult[i] = (short) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            long[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Character.MIN_VALUE
+                            || aInArray[i] > Character.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(
+            long[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (int) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (int) Math.max(Integer.MIN_VALUE,
+                            Math.min(aInArray[i], Integer.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < Integer.MIN_VALUE
+                            || aInArray[i] > Integer.MAX_VALUE) {
+                        throw overflow(aInArray[i], i, "int");
+                    }
+                    lResult[i] = (int) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static byte[] toByteArray(
+            float[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(aInArray[i], Byte.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Byte.MIN_VALUE - 1.0
+                            && aInArray[i] < Byte.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static short[] toShortArray(
+            float[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) Math.max(Short.MIN_VALUE,
+                            Math.min(aInArray[i], Short.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Short.MIN_VALUE - 1.0
+                            && aInArray[i] < Short.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "short");
+                    }
+                    lResult[i] = (short) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            float[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Character.MIN_VALUE - 1.0
+                            && aInArray[i] < Character.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(
+            float[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+            case SATURATE:
+                // Java's narrowing of floating point values to int already
+                // clamps them, so wrapping and saturating are the same
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (int) aInArray[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Integer.MIN_VALUE - 1.0
+                            && aInArray[i] < Integer.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "int");
+                    }
+                    lResult[i] = (int) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(
+            float[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+            case SATURATE:
+                // Java's narrowing of floating point values to long already
+                // clamps them, so wrapping and saturating are the same
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (long) aInArray[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] >= -0x1p63 && aInArray[i] < 0x1p63)) {
+                        throw overflow(aInArray[i], i, "long");
+                    }
+                    lResult[i] = (long) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static byte[] toByteArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        byte[] lResult = new byte[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(aInArray[i], Byte.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Byte.MIN_VALUE - 1.0
+                            && aInArray[i] < Byte.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "byte");
+                    }
+                    lResult[i] = (byte) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static short[] toShortArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        short[] lResult = new short[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (short) Math.max(Short.MIN_VALUE,
+                            Math.min(aInArray[i], Short.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Short.MIN_VALUE - 1.0
+                            && aInArray[i] < Short.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "short");
+                    }
+                    lResult[i] = (short) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Character.MIN_VALUE - 1.0
+                            && aInArray[i] < Character.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static int[] toIntArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        int[] lResult = new int[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+            case SATURATE:
+                // Java's narrowing of floating point values to int already
+                // clamps them, so wrapping and saturating are the same
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (int) aInArray[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] > Integer.MIN_VALUE - 1.0
+                            && aInArray[i] < Integer.MAX_VALUE + 1.0)) {
+                        throw overflow(aInArray[i], i, "int");
+                    }
+                    lResult[i] = (int) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static long[] toLongArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        long[] lResult = new long[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+            case SATURATE:
+                // Java's narrowing of floating point values to long already
+                // clamps them, so wrapping and saturating are the same
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (long) aInArray[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (!(aInArray[i] >= -0x1p63 && aInArray[i] < 0x1p63)) {
+                        throw overflow(aInArray[i], i, "long");
+                    }
+                    lResult[i] = (long) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static float[] toFloatArray(
+            double[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        float[] lResult = new float[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (float) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    double lValue = aInArray[i];
+                    lResult[i] = Double.isInfinite(lValue)
+                            ? (float) lValue
+                            : (float) Math.max(-Float.MAX_VALUE,
+                                    Math.min(lValue, Float.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (Float.isInfinite((float) aInArray[i])
+                            && !Double.isInfinite(aInArray[i])) {
+                        throw overflow(aInArray[i], i, "float");
+                    }
+                    lResult[i] = (float) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    public static char[] toCharArray(
+            byte[] aInArray, OverflowPolicy aInPolicy) {
+        if (aInArray == null) { return null; }
+        char[] lResult = new char[aInArray.length];
+        switch (aInPolicy) {
+            case WRAP:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) aInArray[i];
+                }
+                break;
+            case SATURATE:
+                for (int i = 0; i < aInArray.length; i++) {
+                    lResult[i] = (char) Math.max(Character.MIN_VALUE,
+                            Math.min(aInArray[i], Character.MAX_VALUE));
+                }
+                break;
+            default:
+                for (int i = 0; i < aInArray.length; i++) {
+                    if (aInArray[i] < 0) {
+                        throw overflow(aInArray[i], i, "char");
+                    }
+                    lResult[i] = (char) aInArray[i];
+                }
+        }
+        return lResult;
+    }
+
+    private static ArithmeticException overflow(
+            long aInValue, int aInIndex, String aInType) {
+        return new ArithmeticException("Value " + aInValue + " at index "
+                + aInIndex + " is out of the range of " + aInType);
+    }
+
+    private static ArithmeticException overflow(
+            double aInValue, int aInIndex, String aInType) {
+        return new ArithmeticException("Value " + aInValue + " at index "
+                + aInIndex + " is out of the range of " + aInType);
+    }
 }
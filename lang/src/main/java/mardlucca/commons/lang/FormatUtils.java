@@ -0,0 +1,107 @@
+/*
+ * File: FormatUtils.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import java.io.IOException;
+
+/**
+ * Appends primitive values to {@link Appendable}s, with the same text as
+ * {@link String#valueOf} gives them, but without creating that string.
+ * Integers are written digit by digit. Floating point values are appended
+ * directly to {@link StringBuilder}s, which format them without garbage,
+ * and through a per thread buffer to any other target.
+ */
+public class FormatUtils {
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private FormatUtils() {
+    }
+
+    public static void append(boolean aInValue, Appendable aInTo)
+            throws IOException {
+        aInTo.append(aInValue ? "true" : "false");
+    }
+
+    public static void append(int aInValue, Appendable aInTo)
+            throws IOException {
+        append((long) aInValue, aInTo);
+    }
+
+    public static void append(long aInValue, Appendable aInTo)
+            throws IOException {
+        if (aInTo instanceof StringBuilder) {
+            ((StringBuilder) aInTo).append(aInValue);
+            return;
+        }
+
+        // digits are taken from the negative value, as Long.MIN_VALUE has
+        // no positive counterpart
+        long lValue = aInValue;
+        if (lValue < 0) {
+            aInTo.append('-');
+        } else {
+            lValue = -lValue;
+        }
+        long lDivisor = 1;
+        while (lValue / lDivisor <= -10) {
+            lDivisor *= 10;
+        }
+        for (; lDivisor > 0; lDivisor /= 10) {
+            aInTo.append((char) ('0' - lValue / lDivisor));
+            lValue %= lDivisor;
+        }
+    }
+
+    public static void append(float aInValue, Appendable aInTo)
+            throws IOException {
+        if (aInTo instanceof StringBuilder) {
+            ((StringBuilder) aInTo).append(aInValue);
+            return;
+        }
+        StringBuilder lBuffer = BUFFER.get();
+        lBuffer.setLength(0);
+        copy(lBuffer.append(aInValue), aInTo);
+    }
+
+    public static void append(double aInValue, Appendable aInTo)
+            throws IOException {
+        if (aInTo instanceof StringBuilder) {
+            ((StringBuilder) aInTo).append(aInValue);
+            return;
+        }
+        StringBuilder lBuffer = BUFFER.get();
+        lBuffer.setLength(0);
+        copy(lBuffer.append(aInValue), aInTo);
+    }
+
+    /**
+     * Copies chars one at a time, as {@link Appendable#append(CharSequence)}
+     * may copy the sequence first, e.g. into a string for writers.
+     */
+    private static void copy(CharSequence aInFrom, Appendable aInTo)
+            throws IOException {
+        for (int i = 0; i < aInFrom.length(); i++) {
+            aInTo.append(aInFrom.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * File: OverflowPolicy.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+/**
+ * What to do with values that are out of the range of the type they are
+ * narrowed to.
+ */
+public enum OverflowPolicy {
+    /**
+     * Applies Java's narrowing primitive conversion. Integers keep their
+     * low-order bits, so large values wrap around. Floating point values are
+     * rounded toward zero and clamped to the range of int, or of long, before
+     * that, and NaN becomes zero.
+     */
+    WRAP,
+
+    /**
+     * Clamps values to the closest value in the range of the target type. NaN
+     * becomes zero, and infinities narrowed to float stay infinite.
+     */
+    SATURATE,
+
+    /**
+     * Throws an {@link ArithmeticException} for values that are out of the
+     * range of the target type. Floating point values that only lose their
+     * fractional part or precision are not considered out of range, but NaN
+     * is, unless narrowed to float.
+     */
+    THROW
+}
@@ -0,0 +1,473 @@
+/*
+ * File: ParseUtils.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Parses primitive values out of ranges of character sequences, char arrays
+ * and byte arrays, without creating substrings. Byte arrays are read as
+ * ISO-8859-1 text, so ASCII and the ASCII parts of UTF-8 text are read as
+ * expected.
+ * <p>
+ * Integers are parsed like {@link Integer#parseInt(String)} does. Decimals
+ * are parsed like {@link Double#parseDouble(String)} does; the ones with up
+ * to 15 or so significant digits and small exponents, which is what most
+ * text holds, are parsed directly, and the others are handed to
+ * {@link Double#parseDouble(String)}, which means they are copied to a
+ * string first. Booleans are "true" or "false", in any case.
+ * <p>
+ * Malformed numbers throw a {@link NumberFormatException}, like the parse
+ * methods of the wrapper classes do. Malformed booleans and chars throw an
+ * {@link IllegalArgumentException}.
+ */
+public class ParseUtils {
+    /**
+     * Bounds of the mantissas multiplied or divided by a power of ten
+     * directly, as the integers below them are all exact doubles (floats).
+     */
+    private static final long MAX_DOUBLE_MANTISSA = 1L << 53;
+
+    private static final long MAX_FLOAT_MANTISSA = 1L << 24;
+
+    private static final int MAX_DOUBLE_EXPONENT = 22;
+
+    private static final int MAX_FLOAT_EXPONENT = 10;
+
+    /**
+     * Powers of ten that are exact doubles.
+     */
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Powers of ten that are exact floats.
+     */
+    private static final float[] FLOAT_POWERS = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /**
+     * Bit layout of the decimals scanned by {@link #scanDecimal}.
+     */
+    private static final int EXPONENT_SHIFT = 53;
+    private static final int NEGATIVE_SHIFT = 59;
+    private static final long MANTISSA_MASK = (1L << EXPONENT_SHIFT) - 1;
+
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private ParseUtils() {
+    }
+
+    public static boolean parseBoolean(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return parseBoolean((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static boolean parseBoolean(
+            char[] aInSource, int aInBegin, int aInEnd) {
+        return parseBoolean((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static boolean parseBoolean(
+            byte[] aInSource, int aInBegin, int aInEnd) {
+        return parseBoolean((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static char parseChar(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return parseChar((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static char parseChar(char[] aInSource, int aInBegin, int aInEnd) {
+        return parseChar((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static char parseChar(byte[] aInSource, int aInBegin, int aInEnd) {
+        return parseChar((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static byte parseByte(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return (byte) parseInt(aInSource, aInBegin, aInEnd,
+                Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    public static byte parseByte(char[] aInSource, int aInBegin, int aInEnd) {
+        return (byte) parseInt(aInSource, aInBegin, aInEnd,
+                Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    public static byte parseByte(byte[] aInSource, int aInBegin, int aInEnd) {
+        return (byte) parseInt(aInSource, aInBegin, aInEnd,
+                Byte.MIN_VALUE, Byte.MAX_VALUE);
+    }
+
+    public static short parseShort(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return (short) parseInt(aInSource, aInBegin, aInEnd,
+                Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public static short parseShort(
+            char[] aInSource, int aInBegin, int aInEnd) {
+        return (short) parseInt(aInSource, aInBegin, aInEnd,
+                Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public static short parseShort(
+            byte[] aInSource, int aInBegin, int aInEnd) {
+        return (short) parseInt(aInSource, aInBegin, aInEnd,
+                Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public static int parseInt(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return (int) parseLong(aInSource, aInBegin, aInEnd,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static int parseInt(char[] aInSource, int aInBegin, int aInEnd) {
+        return (int) parseLong(aInSource, aInBegin, aInEnd,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static int parseInt(byte[] aInSource, int aInBegin, int aInEnd) {
+        return (int) parseLong(aInSource, aInBegin, aInEnd,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static long parseLong(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return parseLong(aInSource, aInBegin, aInEnd,
+                Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public static long parseLong(char[] aInSource, int aInBegin, int aInEnd) {
+        return parseLong(aInSource, aInBegin, aInEnd,
+                Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public static long parseLong(byte[] aInSource, int aInBegin, int aInEnd) {
+        return parseLong(aInSource, aInBegin, aInEnd,
+                Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public static float parseFloat(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return parseFloat((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static float parseFloat(
+            char[] aInSource, int aInBegin, int aInEnd) {
+        return parseFloat((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static float parseFloat(
+            byte[] aInSource, int aInBegin, int aInEnd) {
+        return parseFloat((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static double parseDouble(
+            CharSequence aInSource, int aInBegin, int aInEnd) {
+        return parseDouble((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static double parseDouble(
+            char[] aInSource, int aInBegin, int aInEnd) {
+        return parseDouble((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    public static double parseDouble(
+            byte[] aInSource, int aInBegin, int aInEnd) {
+        return parseDouble((Object) aInSource, aInBegin, aInEnd);
+    }
+
+    private static boolean parseBoolean(
+            Object aInSource, int aInBegin, int aInEnd) {
+        checkRange(aInSource, aInBegin, aInEnd);
+        if (regionMatches(aInSource, aInBegin, aInEnd, "true")) {
+            return true;
+        }
+        if (regionMatches(aInSource, aInBegin, aInEnd, "false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("not a boolean: \""
+                + toString(aInSource, aInBegin, aInEnd) + "\"");
+    }
+
+    private static char parseChar(Object aInSource, int aInBegin, int aInEnd) {
+        checkRange(aInSource, aInBegin, aInEnd);
+        if (aInEnd - aInBegin != 1) {
+            throw new IllegalArgumentException("not a single char: \""
+                    + toString(aInSource, aInBegin, aInEnd) + "\"");
+        }
+        return charAt(aInSource, aInBegin);
+    }
+
+    private static int parseInt(Object aInSource, int aInBegin, int aInEnd,
+                                int aInMin, int aInMax) {
+        long lValue = parseLong(aInSource, aInBegin, aInEnd,
+                Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (lValue < aInMin || lValue > aInMax) {
+            throw new NumberFormatException("Value out of range. Value:\""
+                    + toString(aInSource, aInBegin, aInEnd) + "\" Radix:10");
+        }
+        return (int) lValue;
+    }
+
+    /**
+     * Parses an integer between two bounds, the way
+     * {@link Long#parseLong(String)} does: digits are accumulated as a
+     * negative number, whose range is the larger one, and checked against
+     * the bound before each step so overflows are caught.
+     */
+    private static long parseLong(Object aInSource, int aInBegin, int aInEnd,
+                                  long aInMin, long aInMax) {
+        checkRange(aInSource, aInBegin, aInEnd);
+        int i = aInBegin;
+        boolean lNegative = false;
+        long lLimit = -aInMax;
+        if (i < aInEnd) {
+            char lFirst = charAt(aInSource, i);
+            if (lFirst == '-') {
+                lNegative = true;
+                lLimit = aInMin;
+                i++;
+            } else if (lFirst == '+') {
+                i++;
+            }
+        }
+        if (i == aInEnd) {
+            throw numberFormatException(aInSource, aInBegin, aInEnd);
+        }
+
+        long lMultiplicationLimit = lLimit / 10;
+        long lResult = 0;
+        for (; i < aInEnd; i++) {
+            int lDigit = Character.digit(charAt(aInSource, i), 10);
+            if (lDigit < 0 || lResult < lMultiplicationLimit) {
+                throw numberFormatException(aInSource, aInBegin, aInEnd);
+            }
+            lResult *= 10;
+            if (lResult < lLimit + lDigit) {
+                throw numberFormatException(aInSource, aInBegin, aInEnd);
+            }
+            lResult -= lDigit;
+        }
+        return lNegative ? lResult : -lResult;
+    }
+
+    private static double parseDouble(
+            Object aInSource, int aInBegin, int aInEnd) {
+        checkRange(aInSource, aInBegin, aInEnd);
+        long lDecimal = scanDecimal(aInSource, aInBegin, aInEnd,
+                MAX_DOUBLE_MANTISSA, MAX_DOUBLE_EXPONENT);
+        if (lDecimal < 0) {
+            return Double.parseDouble(toString(aInSource, aInBegin, aInEnd));
+        }
+
+        // both operands are exact, so the result is correctly rounded
+        double lMantissa = lDecimal & MANTISSA_MASK;
+        int lExponent = exponent(lDecimal);
+        double lResult = lExponent >= 0
+                ? lMantissa * DOUBLE_POWERS[lExponent]
+                : lMantissa / DOUBLE_POWERS[-lExponent];
+        return isNegative(lDecimal) ? -lResult : lResult;
+    }
+
+    private static float parseFloat(
+            Object aInSource, int aInBegin, int aInEnd) {
+        checkRange(aInSource, aInBegin, aInEnd);
+        long lDecimal = scanDecimal(aInSource, aInBegin, aInEnd,
+                MAX_FLOAT_MANTISSA, MAX_FLOAT_EXPONENT);
+        if (lDecimal < 0) {
+            return Float.parseFloat(toString(aInSource, aInBegin, aInEnd));
+        }
+
+        float lMantissa = lDecimal & MANTISSA_MASK;
+        int lExponent = exponent(lDecimal);
+        float lResult = lExponent >= 0
+                ? lMantissa * FLOAT_POWERS[lExponent]
+                : lMantissa / FLOAT_POWERS[-lExponent];
+        return isNegative(lDecimal) ? -lResult : lResult;
+    }
+
+    /**
+     * Scans a plain decimal number, e.g. "-12.5e3", into its sign, its
+     * digits as an integer mantissa and a power of ten, packed into a long:
+     * the mantissa takes the low 53 bits, the exponent plus 22 the next 6
+     * bits and the sign the one after that. This way parsing allocates
+     * nothing.
+     *
+     * @return the packed decimal, or -1 if the text is not a plain decimal,
+     * or if its mantissa or exponent exceed the given limits
+     */
+    private static long scanDecimal(Object aInSource, int aInBegin,
+                                    int aInEnd, long aInMaxMantissa,
+                                    int aInMaxExponent) {
+        int i = aInBegin;
+        boolean lNegative = false;
+        if (i < aInEnd) {
+            char lFirst = charAt(aInSource, i);
+            if (lFirst == '-' || lFirst == '+') {
+                lNegative = lFirst == '-';
+                i++;
+            }
+        }
+
+        long lMantissa = 0;
+        int lExponent = 0;
+        int lDigits = 0;
+        boolean lPoint = false;
+        for (; i < aInEnd; i++) {
+            char lChar = charAt(aInSource, i);
+            if (lChar == '.' && !lPoint) {
+                lPoint = true;
+                continue;
+            }
+            if (lChar < '0' || lChar > '9') {
+                break;
+            }
+            lMantissa = lMantissa * 10 + (lChar - '0');
+            if (lMantissa >= aInMaxMantissa) {
+                return -1;
+            }
+            if (lPoint) {
+                lExponent--;
+            }
+            lDigits++;
+        }
+        if (lDigits == 0) {
+            return -1;
+        }
+
+        if (i < aInEnd) {
+            char lChar = charAt(aInSource, i++);
+            if ((lChar != 'e' && lChar != 'E') || i == aInEnd) {
+                return -1;
+            }
+            boolean lNegativeExponent = false;
+            lChar = charAt(aInSource, i);
+            if (lChar == '-' || lChar == '+') {
+                lNegativeExponent = lChar == '-';
+                if (++i == aInEnd) {
+                    return -1;
+                }
+            }
+            int lExplicit = 0;
+            for (; i < aInEnd; i++) {
+                lChar = charAt(aInSource, i);
+                if (lChar < '0' || lChar > '9') {
+                    return -1;
+                }
+                lExplicit = lExplicit * 10 + (lChar - '0');
+                if (lExplicit > 2 * MAX_DOUBLE_EXPONENT) {
+                    return -1;
+                }
+            }
+            lExponent += lNegativeExponent ? -lExplicit : lExplicit;
+        }
+
+        if (lMantissa == 0) {
+            lExponent = 0;
+        } else if (Math.abs(lExponent) > aInMaxExponent) {
+            return -1;
+        }
+        return lMantissa
+                | (long) (lExponent + MAX_DOUBLE_EXPONENT) << EXPONENT_SHIFT
+                | (lNegative ? 1L : 0L) << NEGATIVE_SHIFT;
+    }
+
+    private static int exponent(long aInDecimal) {
+        return (int) (aInDecimal >>> EXPONENT_SHIFT & 0x3f)
+                - MAX_DOUBLE_EXPONENT;
+    }
+
+    private static boolean isNegative(long aInDecimal) {
+        return (aInDecimal >>> NEGATIVE_SHIFT & 1) != 0;
+    }
+
+    private static boolean regionMatches(Object aInSource, int aInBegin,
+                                         int aInEnd, String aInWord) {
+        if (aInEnd - aInBegin != aInWord.length()) {
+            return false;
+        }
+        for (int i = 0; i < aInWord.length(); i++) {
+            // the words are lower case ASCII
+            char lChar = charAt(aInSource, aInBegin + i);
+            if ((lChar | 0x20) != aInWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a char from any of the supported sources. The type checks are
+     * cheap next to a substring, and are hoisted out of loops by the JIT when
+     * a caller parses one kind of source only.
+     */
+    private static char charAt(Object aInSource, int aInIndex) {
+        if (aInSource instanceof byte[]) {
+            return (char) (((byte[]) aInSource)[aInIndex] & 0xff);
+        }
+        if (aInSource instanceof char[]) {
+            return ((char[]) aInSource)[aInIndex];
+        }
+        return ((CharSequence) aInSource).charAt(aInIndex);
+    }
+
+    private static void checkRange(Object aInSource, int aInBegin,
+                                   int aInEnd) {
+        int lLength;
+        if (aInSource instanceof byte[]) {
+            lLength = ((byte[]) aInSource).length;
+        } else if (aInSource instanceof char[]) {
+            lLength = ((char[]) aInSource).length;
+        } else {
+            lLength = ((CharSequence) aInSource).length();
+        }
+        Objects.checkFromToIndex(aInBegin, aInEnd, lLength);
+    }
+
+    private static String toString(Object aInSource, int aInBegin,
+                                   int aInEnd) {
+        if (aInSource instanceof byte[]) {
+            return new String((byte[]) aInSource, aInBegin,
+                    aInEnd - aInBegin, StandardCharsets.ISO_8859_1);
+        }
+        if (aInSource instanceof char[]) {
+            return new String((char[]) aInSource, aInBegin,
+                    aInEnd - aInBegin);
+        }
+        return ((CharSequence) aInSource).subSequence(aInBegin, aInEnd)
+                .toString();
+    }
+
+    private static NumberFormatException numberFormatException(
+            Object aInSource, int aInBegin, int aInEnd) {
+        return new NumberFormatException("For input string: \""
+                + toString(aInSource, aInBegin, aInEnd) + "\"");
+    }
+}
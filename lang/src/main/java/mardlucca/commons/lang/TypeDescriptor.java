@@ -0,0 +1,351 @@
+/*
+ * File: TypeDescriptor.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * What {@link TypeUtils} knows about a type, computed once per type and then
+ * cached. Descriptors of classes are cached with a {@link ClassValue}, so they
+ * go away with their class loaders. Descriptors of other types are cached in
+ * a map whose keys are weakly referenced, so they go away with their types.
+ * Types are compared with {@code equals}, so equal parameterized types
+ * created at different places share the same descriptor.
+ */
+final class TypeDescriptor {
+    private static final ClassValue<TypeDescriptor> CLASS_DESCRIPTORS =
+            new ClassValue<TypeDescriptor>() {
+                @Override
+                protected TypeDescriptor computeValue(Class<?> aInClass) {
+                    return new TypeDescriptor(aInClass);
+                }
+            };
+
+    private static final ConcurrentMap<WeakKey, TypeDescriptor>
+            TYPE_DESCRIPTORS = new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<Type> STALE_KEYS =
+            new ReferenceQueue<>();
+
+    private static final TypeDescriptor NULL_DESCRIPTOR =
+            new TypeDescriptor(null);
+
+    private static final int UNKNOWN = 0;
+    private static final int ASSIGNABLE = 1;
+    private static final int NOT_ASSIGNABLE = 2;
+
+    private boolean generic;
+    private boolean typeVariables;
+    private Class<?> rawClass;
+    private Type arrayComponentType;
+    private Type collectionElementType;
+    private Type[] mapKeyValueTypes;
+    /**
+     * Whether this type is assignable to classes, keyed by the class so
+     * entries go away with its class loader.
+     */
+    private final ClassValue<AtomicInteger> assignableTo =
+            new AssignabilityValue();
+
+    private TypeDescriptor(Type aInType) {
+        generic = computeGeneric(aInType);
+        typeVariables = computeTypeVariables(aInType);
+        rawClass = computeRawClass(aInType);
+
+        if (aInType instanceof GenericArrayType) {
+            arrayComponentType =
+                    ((GenericArrayType) aInType).getGenericComponentType();
+        } else if (aInType instanceof Class) {
+            arrayComponentType = ((Class<?>) aInType).getComponentType();
+        }
+
+        // element types are the type arguments of the Collection or Map
+        // supertype, so subclasses that bind them, e.g. class IdList extends
+        // ArrayList<Long>, have the element types they bind them to
+        if (isSubclassOf(Collection.class)) {
+            Type[] lArguments =
+                    TypeUtils.getTypeArguments(aInType, Collection.class);
+            collectionElementType = lArguments != null
+                    ? lArguments[0]
+                    // raw collection
+                    : Object.class;
+        }
+        if (isSubclassOf(Map.class)) {
+            Type[] lArguments = TypeUtils.getTypeArguments(aInType, Map.class);
+            mapKeyValueTypes = lArguments != null
+                    ? lArguments
+                    // raw map
+                    : new Type[]{Object.class, Object.class};
+        }
+    }
+
+    /**
+     * Returns the descriptor of a type, computing it if this is the first time
+     * it is asked for.
+     *
+     * @param aInType the type
+     * @return its descriptor. The descriptor of null describes a type that is
+     * none of the kinds of types described.
+     */
+    static TypeDescriptor of(Type aInType) {
+        if (aInType instanceof Class) {
+            return CLASS_DESCRIPTORS.get((Class<?>) aInType);
+        }
+        if (aInType == null) {
+            return NULL_DESCRIPTOR;
+        }
+
+        TypeDescriptor lDescriptor =
+                TYPE_DESCRIPTORS.get(new WeakKey(aInType, null));
+        if (lDescriptor != null) {
+            return lDescriptor;
+        }
+
+        expungeStaleKeys();
+        lDescriptor = new TypeDescriptor(aInType);
+        TypeDescriptor lExisting = TYPE_DESCRIPTORS.putIfAbsent(
+                new WeakKey(aInType, STALE_KEYS), lDescriptor);
+        return lExisting == null ? lDescriptor : lExisting;
+    }
+
+    boolean isGeneric() {
+        return generic;
+    }
+
+    boolean hasTypeVariables() {
+        return typeVariables;
+    }
+
+    boolean isArray() {
+        return arrayComponentType != null;
+    }
+
+    Type getArrayComponentType() {
+        return arrayComponentType;
+    }
+
+    boolean isCollection() {
+        return collectionElementType != null;
+    }
+
+    Type getCollectionElementType() {
+        return collectionElementType;
+    }
+
+    boolean isMap() {
+        return mapKeyValueTypes != null;
+    }
+
+    Type[] getMapKeyValueTypes() {
+        // arrays are mutable, so callers get their own copy
+        return mapKeyValueTypes == null ? null : mapKeyValueTypes.clone();
+    }
+
+    Class<?> getRawClass() {
+        return rawClass;
+    }
+
+    /**
+     * Returns whether this type was found to be assignable to a class, or
+     * null if that was not checked yet.
+     */
+    Boolean getAssignableTo(Class<?> aInClass) {
+        int lAssignable = assignableTo.get(aInClass).get();
+        return lAssignable == UNKNOWN ? null : lAssignable == ASSIGNABLE;
+    }
+
+    void setAssignableTo(Class<?> aInClass, boolean aInAssignable) {
+        assignableTo.get(aInClass).compareAndSet(
+                UNKNOWN, aInAssignable ? ASSIGNABLE : NOT_ASSIGNABLE);
+    }
+
+    /**
+     * Checks whether this type is a class or a parameterized type whose raw
+     * class is a subclass of the given class.
+     */
+    boolean isSubclassOf(Class<?> aInClass) {
+        return rawClass != null && !rawClass.isArray()
+                && aInClass.isAssignableFrom(rawClass);
+    }
+
+    boolean isIterable() {
+        return isSubclassOf(Iterable.class);
+    }
+
+    boolean isIterator() {
+        return isSubclassOf(Iterator.class);
+    }
+
+    boolean isSpliterator() {
+        return isSubclassOf(Spliterator.class);
+    }
+
+    boolean isStream() {
+        return isSubclassOf(Stream.class);
+    }
+
+    private static boolean computeGeneric(Type aInType) {
+        if (aInType instanceof TypeVariable
+                || aInType instanceof WildcardType) {
+            return true;
+        }
+
+        if (aInType instanceof ParameterizedType) {
+            for (Type lTypeParameter :
+                    ((ParameterizedType) aInType).getActualTypeArguments()) {
+                if (of(lTypeParameter).generic) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (aInType instanceof GenericArrayType) {
+            return of(((GenericArrayType) aInType)
+                    .getGenericComponentType()).generic;
+        }
+
+        // classes
+        return false;
+    }
+
+    private static boolean computeTypeVariables(Type aInType) {
+        if (aInType instanceof TypeVariable) {
+            return true;
+        }
+
+        if (aInType instanceof WildcardType) {
+            WildcardType lWildcardType = (WildcardType) aInType;
+            for (Type lUpperBound : lWildcardType.getUpperBounds()) {
+                if (of(lUpperBound).typeVariables) {
+                    return true;
+                }
+            }
+            for (Type lLowerBound : lWildcardType.getLowerBounds()) {
+                if (of(lLowerBound).typeVariables) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (aInType instanceof ParameterizedType) {
+            for (Type lTypeParameter :
+                    ((ParameterizedType) aInType).getActualTypeArguments()) {
+                if (of(lTypeParameter).typeVariables) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (aInType instanceof GenericArrayType) {
+            return of(((GenericArrayType) aInType)
+                    .getGenericComponentType()).typeVariables;
+        }
+
+        // classes
+        return false;
+    }
+
+    private static Class<?> computeRawClass(Type aInType) {
+        if (aInType instanceof Class) {
+            return (Class<?>) aInType;
+        }
+        if (aInType instanceof ParameterizedType) {
+            Type lRawType = ((ParameterizedType) aInType).getRawType();
+            return lRawType instanceof Class ? (Class<?>) lRawType : null;
+        }
+        if (aInType instanceof GenericArrayType) {
+            Class<?> lComponentClass = of(((GenericArrayType) aInType)
+                    .getGenericComponentType()).rawClass;
+            return lComponentClass == null
+                    ? null
+                    : Array.newInstance(lComponentClass, 0).getClass();
+        }
+        // type variables and wildcards
+        return null;
+    }
+
+    private static void expungeStaleKeys() {
+        Object lStaleKey;
+        while ((lStaleKey = STALE_KEYS.poll()) != null) {
+            TYPE_DESCRIPTORS.remove(lStaleKey);
+        }
+    }
+
+    /**
+     * A key that references its type weakly, but that is equal to keys whose
+     * types are equal, like the type itself. Its hash code is computed up
+     * front so the key can still be found and removed after its type is
+     * collected.
+     */
+    private static class WeakKey extends WeakReference<Type> {
+        private int hashCode;
+
+        WeakKey(Type aInType, ReferenceQueue<Type> aInQueue) {
+            super(aInType, aInQueue);
+            hashCode = aInType.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (this == aInObject) {
+                return true;
+            }
+            if (!(aInObject instanceof WeakKey)) {
+                return false;
+            }
+            Type lType = get();
+            return lType != null && lType.equals(((WeakKey) aInObject).get());
+        }
+    }
+
+    /**
+     * Holds whether a type is assignable to each class. A static class, so
+     * the values kept by classes don't reference the descriptors.
+     */
+    private static final class AssignabilityValue
+            extends ClassValue<AtomicInteger> {
+        @Override
+        protected AtomicInteger computeValue(Class<?> aInClass) {
+            return new AtomicInteger(UNKNOWN);
+        }
+    }
+}
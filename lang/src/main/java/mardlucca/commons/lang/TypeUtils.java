@@ -18,15 +18,19 @@
 
 package mardlucca.commons.lang;
 
+import java.io.Serializable;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by mlucca on 1/23/17.
@@ -38,6 +42,22 @@ public class TypeUtils {
 
     private static Map<Class<?>, Integer> NUMERIC_TYPE_SIZE_ORDER;
 
+    /**
+     * For each class, its supertypes keyed by their raw classes, as seen from
+     * the class. These are what {@link #getSupertype(Type, Class)} computes
+     * for the class itself, or for its parameterized types before their type
+     * arguments are substituted.
+     */
+    private static final ClassValue<ConcurrentMap<Class<?>, Type>>
+            GENERIC_SUPERTYPES =
+            new ClassValue<ConcurrentMap<Class<?>, Type>>() {
+                @Override
+                protected ConcurrentMap<Class<?>, Type> computeValue(
+                        Class<?> aInClass) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     static {
         PRIMITIVE_TO_WRAPPER_MAP = new HashMap<>();
         PRIMITIVE_TO_WRAPPER_MAP.put(char.class, Character.class);
@@ -81,157 +101,75 @@ public class TypeUtils {
     }
 
     public static boolean isGeneric(Type aInType) {
-        if (aInType instanceof Class) {
-            return false;
-        }
-
-        if (aInType instanceof TypeVariable
-                || aInType instanceof WildcardType) {
-            return true;
-        }
-
-        if (aInType instanceof ParameterizedType) {
-            for (Type lTypeParameter :
-                    ((ParameterizedType) aInType).getActualTypeArguments()) {
-                if (isGeneric(lTypeParameter)) {
-                    return true;
-                }
-            }
-
-            return false;
-        }
-
-        // else aInType is a GenericArrayType
-        GenericArrayType lArrayType = (GenericArrayType) aInType;
-        return isGeneric(lArrayType.getGenericComponentType());
+        return TypeDescriptor.of(aInType).isGeneric();
     }
 
     public static boolean hasTypeVariables(Type aInType) {
-        if (aInType instanceof Class) {
-            return false;
-        }
-
-        if (aInType instanceof TypeVariable) {
-            return true;
-        }
+        return TypeDescriptor.of(aInType).hasTypeVariables();
+    }
 
-        if (aInType instanceof WildcardType) {
-            WildcardType lWildcardType = (WildcardType) aInType;
-            for (Type lUpperBound : lWildcardType.getUpperBounds()) {
-                if (hasTypeVariables(lUpperBound)) {
-                    return true;
-                }
-            }
-            for (Type lLowerBound : lWildcardType.getLowerBounds()) {
-                if (hasTypeVariables(lLowerBound)) {
-                    return true;
-                }
-            }
-            return false;
+    /**
+     * Returns the raw class of a type: a class itself, the raw class of a
+     * parameterized type or the array class of a generic array type.
+     *
+     * @param aInType the type
+     * @return the raw class, or null for type variables, wildcards and
+     * arrays of them
+     */
+    public static Class<?> getRawClass(Type aInType) {
+        if (aInType instanceof Class) {
+            return (Class<?>) aInType;
         }
-
         if (aInType instanceof ParameterizedType) {
-            for (Type lTypeParameter :
-                    ((ParameterizedType) aInType).getActualTypeArguments()) {
-                if (hasTypeVariables(lTypeParameter)) {
-                    return true;
-                }
-            }
-
-            return false;
+            Type lRawType = ((ParameterizedType) aInType).getRawType();
+            return lRawType instanceof Class ? (Class<?>) lRawType : null;
         }
-
-        // else aInType is a GenericArrayType
-        GenericArrayType lArrayType = (GenericArrayType) aInType;
-        return hasTypeVariables(lArrayType.getGenericComponentType());
+        if (aInType instanceof GenericArrayType) {
+            // the descriptor caches the array class
+            return TypeDescriptor.of(aInType).getRawClass();
+        }
+        return null;
     }
 
     public static boolean isArrayType(Type aInType) {
-        if (aInType instanceof GenericArrayType) {
-            return true;
-        }
-        if (!(aInType instanceof Class)) {
-            return false;
-        }
-        Class<?> lClass = (Class<?>) aInType;
-        return lClass.isArray();
+        return TypeDescriptor.of(aInType).isArray();
     }
 
     public static Type getArrayComponentType(Type aInArrayType) {
-        if (aInArrayType instanceof GenericArrayType) {
-            GenericArrayType lGenericArrayType =
-                    (GenericArrayType) aInArrayType;
-            return lGenericArrayType.getGenericComponentType();
-        }
-        if (!(aInArrayType instanceof Class)) {
-            return null;
-        }
-        Class<?> lClass = (Class<?>) aInArrayType;
-        return lClass.getComponentType();
+        return TypeDescriptor.of(aInArrayType).getArrayComponentType();
     }
 
     public static Type getCollectionElementType(Type aInCollectionType) {
-        if (!isCollection(aInCollectionType)) {
-            return null;
-        }
+        return TypeDescriptor.of(aInCollectionType)
+                .getCollectionElementType();
+    }
 
-        if (aInCollectionType instanceof Class) {
-            // raw collection
-            return Object.class;
-        }
+    public static Type[] getMapKeyValueTypes(Type aInMapType) {
+        return TypeDescriptor.of(aInMapType).getMapKeyValueTypes();
+    }
 
-        if (aInCollectionType instanceof ParameterizedType) {
-            return ((ParameterizedType) aInCollectionType)
-                    .getActualTypeArguments()[0];
-        }
+    public static boolean isCollection(Type aInTo) {
+        return TypeDescriptor.of(aInTo).isCollection();
+    }
 
-        // this should never happen
-        return null;
+    public static boolean isMap(Type aInTo) {
+        return TypeDescriptor.of(aInTo).isMap();
     }
 
-    public static Type[] getMapKeyValueTypes(Type aInMapType) {
-        if (!isMap(aInMapType)) {
-            return null;
-        }
-        if (aInMapType instanceof Class) {
-            // raw map
-            return new Type[]{Object.class, Object.class};
-        }
-        if (aInMapType instanceof ParameterizedType) {
-            return ((ParameterizedType) aInMapType)
-                    .getActualTypeArguments();
-        }
+    public static boolean isIterable(Type aInType) {
+        return TypeDescriptor.of(aInType).isIterable();
+    }
 
-        // this should never happen
-        return null;
+    public static boolean isIterator(Type aInType) {
+        return TypeDescriptor.of(aInType).isIterator();
     }
 
-    public static boolean isCollection(Type aInTo) {
-        if (aInTo instanceof Class) {
-            // raw collection, possibly
-            return Collection.class.isAssignableFrom((Class<?>) aInTo);
-        }
-        if (aInTo instanceof ParameterizedType) {
-            ParameterizedType lParameterizedType = (ParameterizedType) aInTo;
-            Type lRawType = lParameterizedType.getRawType();
-            return (lRawType instanceof Class
-                    && Collection.class.isAssignableFrom((Class<?>) lRawType));
-        }
-        return false;
+    public static boolean isSpliterator(Type aInType) {
+        return TypeDescriptor.of(aInType).isSpliterator();
     }
 
-    public static boolean isMap(Type aInTo) {
-        if (aInTo instanceof Class) {
-            // raw map?
-            return Map.class.isAssignableFrom((Class<?>) aInTo);
-        }
-        if (aInTo instanceof ParameterizedType) {
-            ParameterizedType lParameterizedType = (ParameterizedType) aInTo;
-            Type lRawType = lParameterizedType.getRawType();
-            return (lRawType instanceof Class
-                    && Map.class.isAssignableFrom((Class<?>) lRawType));
-        }
-        return false;
+    public static boolean isStream(Type aInType) {
+        return TypeDescriptor.of(aInType).isStream();
     }
 
     public static Type boxingType(Type aInType) {
@@ -303,13 +241,377 @@ public class TypeUtils {
                 - NUMERIC_TYPE_SIZE_ORDER.get(aInType2);
     }
 
+    /**
+     * Checks whether values of a type can be assigned to variables of another
+     * type without being converted, i.e. by a widening reference conversion.
+     * Generics are taken into account: type arguments must be equal, or
+     * contained by wildcards, after the type arguments of the first type are
+     * carried over to the supertype of it that has the raw class of the
+     * second. Raw types are only assignable to parameterized types whose type
+     * arguments are all unbounded wildcards, so unchecked conversions are
+     * never considered assignable.
+     * <p>
+     * As values are never converted, primitive types are only assignable to
+     * themselves. Results for class targets are cached, so checking the same
+     * type against the same class again is a lookup.
+     *
+     * @param aInFrom the type of the values
+     * @param aInTo the type of the variables
+     * @return whether values of aInFrom can be assigned to aInTo
+     */
     public static boolean isAssignable(Type aInFrom, Type aInTo) {
-        List l1 = null;
-        List<Integer> l2 = null;
-        
-        l2 = l1;
-        // TODO: Figure this out. Commons lang has this but I'm considering
-        // implementing my own simplified version
+        if (aInFrom == null || aInTo == null) {
+            return false;
+        }
+        if (aInFrom == aInTo) {
+            return true;
+        }
+
+        if (!(aInTo instanceof Class)) {
+            // parameterized targets are not cached, as there is no bound to
+            // how many of them are checked
+            return computeAssignable(aInFrom, aInTo);
+        }
+
+        TypeDescriptor lDescriptor = TypeDescriptor.of(aInFrom);
+        Boolean lAssignable = lDescriptor.getAssignableTo((Class<?>) aInTo);
+        if (lAssignable == null) {
+            lAssignable = computeAssignable(aInFrom, aInTo);
+            lDescriptor.setAssignableTo((Class<?>) aInTo, lAssignable);
+        }
+        return lAssignable;
+    }
+
+    private static boolean computeAssignable(Type aInFrom, Type aInTo) {
+        if (aInFrom.equals(aInTo)) {
+            return true;
+        }
+        if (aInFrom instanceof Class && ((Class<?>) aInFrom).isPrimitive()
+                || aInTo instanceof Class && ((Class<?>) aInTo).isPrimitive()) {
+            return false;
+        }
+
+        // type variables and wildcards are assignable to what any of their
+        // upper bounds is assignable to
+        if (aInFrom instanceof TypeVariable) {
+            return anyAssignable(
+                    ((TypeVariable<?>) aInFrom).getBounds(), aInTo);
+        }
+        if (aInFrom instanceof WildcardType) {
+            return anyAssignable(
+                    ((WildcardType) aInFrom).getUpperBounds(), aInTo);
+        }
+
+        if (aInTo == Object.class) {
+            return true;
+        }
+        if (aInTo instanceof Class) {
+            return isAssignableToClass(aInFrom, (Class<?>) aInTo);
+        }
+        if (aInTo instanceof ParameterizedType) {
+            return isAssignableToParameterizedType(
+                    aInFrom, (ParameterizedType) aInTo);
+        }
+        if (aInTo instanceof GenericArrayType) {
+            Type lComponentType = getArrayComponentType(aInFrom);
+            return lComponentType != null && isAssignable(lComponentType,
+                    ((GenericArrayType) aInTo).getGenericComponentType());
+        }
+        if (aInTo instanceof WildcardType) {
+            return contains((WildcardType) aInTo, aInFrom);
+        }
+
+        // type variables are only assignable from themselves, which was
+        // checked above, and from type variables bounded by them
         return false;
     }
+
+    private static boolean isAssignableToClass(Type aInFrom, Class<?> aInTo) {
+        if (aInFrom instanceof GenericArrayType) {
+            if (aInTo.isArray()) {
+                return isAssignable(
+                        ((GenericArrayType) aInFrom).getGenericComponentType(),
+                        aInTo.getComponentType());
+            }
+            return aInTo == Cloneable.class || aInTo == Serializable.class;
+        }
+
+        Class<?> lRawClass = TypeDescriptor.of(aInFrom).getRawClass();
+        return lRawClass != null && aInTo.isAssignableFrom(lRawClass);
+    }
+
+    private static boolean isAssignableToParameterizedType(
+            Type aInFrom, ParameterizedType aInTo) {
+        Class<?> lToClass = (Class<?>) aInTo.getRawType();
+        Type lSupertype = getSupertype(aInFrom, lToClass);
+        if (lSupertype == null) {
+            return false;
+        }
+
+        Type[] lToArguments = aInTo.getActualTypeArguments();
+        if (!(lSupertype instanceof ParameterizedType)) {
+            // raw type
+            for (Type lToArgument : lToArguments) {
+                if (!Types.unboundedWildcard().equals(lToArgument)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Type[] lFromArguments =
+                ((ParameterizedType) lSupertype).getActualTypeArguments();
+        for (int i = 0; i < lToArguments.length; i++) {
+            if (lToArguments[i] instanceof WildcardType) {
+                if (!contains((WildcardType) lToArguments[i],
+                        lFromArguments[i])) {
+                    return false;
+                }
+            } else if (!lToArguments[i].equals(lFromArguments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a wildcard contains a type argument, which may be a
+     * wildcard itself.
+     */
+    private static boolean contains(WildcardType aInWildcard, Type aInType) {
+        Type[] lUpperBounds;
+        Type[] lLowerBounds;
+        if (aInType instanceof WildcardType) {
+            lUpperBounds = ((WildcardType) aInType).getUpperBounds();
+            lLowerBounds = ((WildcardType) aInType).getLowerBounds();
+        } else {
+            lUpperBounds = new Type[]{aInType};
+            lLowerBounds = lUpperBounds;
+        }
+
+        for (Type lUpperBound : aInWildcard.getUpperBounds()) {
+            if (!anyAssignable(lUpperBounds, lUpperBound)) {
+                return false;
+            }
+        }
+        for (Type lLowerBound : aInWildcard.getLowerBounds()) {
+            if (lLowerBounds.length == 0) {
+                return false;
+            }
+            for (Type lTypeLowerBound : lLowerBounds) {
+                if (!isAssignable(lLowerBound, lTypeLowerBound)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyAssignable(Type[] aInFrom, Type aInTo) {
+        for (Type lFrom : aInFrom) {
+            if (isAssignable(lFrom, aInTo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the supertype of a class or parameterized type whose raw class
+     * is the given class, with the type arguments of the type carried over to
+     * it. For instance, the supertype of {@code ArrayList<String>} for
+     * {@code Collection} is {@code Collection<String>}, and the supertype of
+     * {@code class IdList extends ArrayList<Long>} for {@code List} is
+     * {@code List<Long>}.
+     * <p>
+     * How each class sees each of its supertypes is only computed once, so
+     * this is a lookup followed by a substitution of the type arguments, if
+     * any.
+     *
+     * @param aInType the type
+     * @param aInSuperclass the raw class of the supertype
+     * @return the supertype; the raw class if the type is a raw type; or null
+     * if the raw class of the type is not a subclass of the given class
+     */
+    public static Type getSupertype(Type aInType, Class<?> aInSuperclass) {
+        // descriptors find their element types with this, so this cannot
+        // rely on the descriptor of the type itself
+        Class<?> lRawClass = getRawClass(aInType);
+        if (lRawClass == null || lRawClass.isArray()
+                || !aInSuperclass.isAssignableFrom(lRawClass)) {
+            return null;
+        }
+        if (lRawClass == aInSuperclass) {
+            return aInType;
+        }
+        if (aInType instanceof Class
+                && lRawClass.getTypeParameters().length > 0) {
+            // raw types have raw supertypes
+            return aInSuperclass;
+        }
+
+        Type lSupertype = GENERIC_SUPERTYPES.get(lRawClass).computeIfAbsent(
+                aInSuperclass,
+                aInKey -> computeGenericSupertype(lRawClass, aInKey));
+        if (aInType instanceof ParameterizedType) {
+            return substitute(lSupertype,
+                    getBindings((ParameterizedType) aInType));
+        }
+        return lSupertype;
+    }
+
+    /**
+     * Returns the type arguments of the supertype of a type whose raw class is
+     * the given class. For instance, the type arguments of {@code HashMap<
+     * String, Integer>} for {@code Map} are {@code String} and
+     * {@code Integer}.
+     *
+     * @param aInType the type
+     * @param aInSuperclass the raw class of the supertype
+     * @return the type arguments, or null if the raw class of the type is not
+     * a subclass of the given class or if the supertype is a raw type
+     */
+    public static Type[] getTypeArguments(
+            Type aInType, Class<?> aInSuperclass) {
+        Type lSupertype = getSupertype(aInType, aInSuperclass);
+        return lSupertype instanceof ParameterizedType
+                ? ((ParameterizedType) lSupertype).getActualTypeArguments()
+                : null;
+    }
+
+    /**
+     * Replaces the type variables in a type with the types they are bound to
+     * as seen from a context type. Type variables declared by a class are
+     * bound to the type arguments of the supertype of the context type for
+     * that class. For instance, {@code List<E>}, where E is the type
+     * parameter of {@code Collection}, resolves to {@code List<Long>} in the
+     * context of {@code class IdList extends ArrayList<Long>}.
+     * <p>
+     * Type variables that cannot be resolved, e.g. those declared by methods
+     * or by classes the context type does not extend, are left as they are.
+     *
+     * @param aInType the type with type variables
+     * @param aInContext the type the type variables are seen from
+     * @return the resolved type, which is the type itself if it has no type
+     * variables
+     */
+    public static Type resolveTypeVariables(Type aInType, Type aInContext) {
+        if (!hasTypeVariables(aInType)) {
+            return aInType;
+        }
+
+        if (aInType instanceof TypeVariable) {
+            TypeVariable<?> lVariable = (TypeVariable<?>) aInType;
+            if (!(lVariable.getGenericDeclaration() instanceof Class)) {
+                return aInType;
+            }
+            Class<?> lDeclaringClass =
+                    (Class<?>) lVariable.getGenericDeclaration();
+            Type lSupertype = getSupertype(aInContext, lDeclaringClass);
+            if (!(lSupertype instanceof ParameterizedType)) {
+                return aInType;
+            }
+            TypeVariable<?>[] lVariables = lDeclaringClass.getTypeParameters();
+            for (int i = 0; i < lVariables.length; i++) {
+                if (lVariables[i].equals(lVariable)) {
+                    return ((ParameterizedType) lSupertype)
+                            .getActualTypeArguments()[i];
+                }
+            }
+            return aInType;
+        }
+        if (aInType instanceof ParameterizedType) {
+            ParameterizedType lType = (ParameterizedType) aInType;
+            Type[] lArguments = lType.getActualTypeArguments();
+            for (int i = 0; i < lArguments.length; i++) {
+                lArguments[i] = resolveTypeVariables(lArguments[i], aInContext);
+            }
+            return Types.parameterizedWithOwner(lType.getOwnerType(),
+                    (Class<?>) lType.getRawType(), lArguments);
+        }
+        if (aInType instanceof GenericArrayType) {
+            return Types.arrayOf(resolveTypeVariables(
+                    ((GenericArrayType) aInType).getGenericComponentType(),
+                    aInContext));
+        }
+        // wildcards
+        WildcardType lType = (WildcardType) aInType;
+        if (lType.getLowerBounds().length > 0) {
+            return Types.supertypeOf(resolveTypeVariables(
+                    lType.getLowerBounds()[0], aInContext));
+        }
+        return Types.subtypeOf(resolveTypeVariables(
+                lType.getUpperBounds()[0], aInContext));
+    }
+
+    /**
+     * Computes the supertype of a class whose raw class is the given class,
+     * in terms of the type parameters of the class, if it has any.
+     */
+    private static Type computeGenericSupertype(
+            Class<?> aInClass, Class<?> aInSuperclass) {
+        List<Type> lSupertypes = new ArrayList<>();
+        if (aInClass.getGenericSuperclass() != null) {
+            lSupertypes.add(aInClass.getGenericSuperclass());
+        }
+        lSupertypes.addAll(Arrays.asList(aInClass.getGenericInterfaces()));
+        for (Type lSupertype : lSupertypes) {
+            Class<?> lSuperclass = getRawClass(lSupertype);
+            if (aInSuperclass.isAssignableFrom(lSuperclass)) {
+                return getSupertype(
+                        Types.canonicalize(lSupertype), aInSuperclass);
+            }
+        }
+        // this should never happen
+        throw new IllegalStateException(
+                aInClass + " does not extend " + aInSuperclass);
+    }
+
+    private static Map<TypeVariable<?>, Type> getBindings(
+            ParameterizedType aInType) {
+        TypeVariable<?>[] lVariables =
+                ((Class<?>) aInType.getRawType()).getTypeParameters();
+        Type[] lArguments = aInType.getActualTypeArguments();
+        Map<TypeVariable<?>, Type> lBindings = new HashMap<>();
+        for (int i = 0; i < lVariables.length; i++) {
+            lBindings.put(lVariables[i], lArguments[i]);
+        }
+        return lBindings;
+    }
+
+    /**
+     * Replaces type variables in a type with the types they are bound to.
+     */
+    private static Type substitute(
+            Type aInType, Map<TypeVariable<?>, Type> aInBindings) {
+        if (aInType instanceof TypeVariable) {
+            Type lBinding = aInBindings.get(aInType);
+            return lBinding == null ? aInType : lBinding;
+        }
+        if (aInType instanceof ParameterizedType) {
+            ParameterizedType lType = (ParameterizedType) aInType;
+            Type[] lArguments = lType.getActualTypeArguments();
+            for (int i = 0; i < lArguments.length; i++) {
+                lArguments[i] = substitute(lArguments[i], aInBindings);
+            }
+            return Types.parameterizedWithOwner(lType.getOwnerType(),
+                    (Class<?>) lType.getRawType(), lArguments);
+        }
+        if (aInType instanceof GenericArrayType) {
+            return Types.arrayOf(substitute(
+                    ((GenericArrayType) aInType).getGenericComponentType(),
+                    aInBindings));
+        }
+        if (aInType instanceof WildcardType) {
+            WildcardType lType = (WildcardType) aInType;
+            if (lType.getLowerBounds().length > 0) {
+                return Types.supertypeOf(
+                        substitute(lType.getLowerBounds()[0], aInBindings));
+            }
+            return Types.subtypeOf(
+                    substitute(lType.getUpperBounds()[0], aInBindings));
+        }
+        // classes
+        return aInType;
+    }
 }
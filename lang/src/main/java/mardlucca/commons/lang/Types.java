@@ -0,0 +1,480 @@
+/*
+ * File: Types.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds types without reflection. Types built here are canonical: they are
+ * immutable, their hash codes are computed once, and they are interned, so
+ * structurally equal types built here are the same instance. Comparing them
+ * is then mostly a reference check, which makes them cheap keys for caches.
+ * <p>
+ * Canonical types are equal to, and have the same hash codes as, the types
+ * the JDK returns for the same declarations, so both can be used
+ * interchangeably. {@link #canonicalize(Type)} turns the latter into the
+ * former. Interned types are only weakly referenced by the interning table.
+ */
+public final class Types {
+    private static final Type[] NO_TYPES = new Type[0];
+
+    private static final Type[] OBJECT_BOUND = new Type[]{Object.class};
+
+    private static final ConcurrentMap<InternKey, InternKey> INTERNED =
+            new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<Type> STALE_KEYS =
+            new ReferenceQueue<>();
+
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private Types() {
+    }
+
+    /**
+     * Builds a parameterized type, e.g. {@code parameterized(Map.class,
+     * String.class, Integer.class)} for {@code Map<String, Integer>}. The
+     * owner type of a member class is its declaring class.
+     *
+     * @param aInRawType the generic class
+     * @param aInArguments its type arguments
+     * @return the canonical parameterized type
+     * @throws IllegalArgumentException if the number of type arguments does
+     * not match the number of type parameters of the class, or if a type
+     * argument is primitive
+     */
+    public static ParameterizedType parameterized(
+            Class<?> aInRawType, Type... aInArguments) {
+        return parameterizedWithOwner(
+                aInRawType.getDeclaringClass(), aInRawType, aInArguments);
+    }
+
+    /**
+     * Builds a parameterized type with an explicit owner type, e.g. for inner
+     * classes of generic classes.
+     *
+     * @param aInOwnerType the owner type, or null if the class is not a
+     *                     member class
+     * @param aInRawType the generic class
+     * @param aInArguments its type arguments
+     * @return the canonical parameterized type
+     * @throws IllegalArgumentException if the number of type arguments does
+     * not match the number of type parameters of the class, or if a type
+     * argument is primitive
+     */
+    public static ParameterizedType parameterizedWithOwner(
+            Type aInOwnerType, Class<?> aInRawType, Type... aInArguments) {
+        Objects.requireNonNull(aInRawType);
+        if (aInRawType.getTypeParameters().length != aInArguments.length) {
+            throw new IllegalArgumentException(aInRawType.getName()
+                    + " expects " + aInRawType.getTypeParameters().length
+                    + " type arguments, got " + aInArguments.length);
+        }
+
+        Type[] lArguments = new Type[aInArguments.length];
+        for (int i = 0; i < aInArguments.length; i++) {
+            if (aInArguments[i] instanceof Class
+                    && ((Class<?>) aInArguments[i]).isPrimitive()) {
+                throw new IllegalArgumentException(
+                        "Type arguments cannot be primitive: "
+                                + aInArguments[i]);
+            }
+            lArguments[i] = canonicalize(
+                    Objects.requireNonNull(aInArguments[i]));
+        }
+        return intern(new ParameterizedTypeImpl(
+                canonicalize(aInOwnerType), aInRawType, lArguments));
+    }
+
+    /**
+     * Builds an array type. Arrays of classes are classes themselves, e.g.
+     * {@code arrayOf(int.class)} is {@code int[].class}, and arrays of other
+     * types are generic array types.
+     *
+     * @param aInComponentType the component type
+     * @return the canonical array type
+     */
+    public static Type arrayOf(Type aInComponentType) {
+        Objects.requireNonNull(aInComponentType);
+        if (aInComponentType instanceof Class) {
+            return Array.newInstance((Class<?>) aInComponentType, 0)
+                    .getClass();
+        }
+        return intern(new GenericArrayTypeImpl(
+                canonicalize(aInComponentType)));
+    }
+
+    /**
+     * Builds a wildcard with an upper bound, i.e. {@code ? extends T}.
+     *
+     * @param aInUpperBound the upper bound
+     * @return the canonical wildcard
+     */
+    public static WildcardType subtypeOf(Type aInUpperBound) {
+        return intern(new WildcardTypeImpl(
+                new Type[]{canonicalize(
+                        Objects.requireNonNull(aInUpperBound))},
+                NO_TYPES));
+    }
+
+    /**
+     * Builds a wildcard with a lower bound, i.e. {@code ? super T}.
+     *
+     * @param aInLowerBound the lower bound
+     * @return the canonical wildcard
+     */
+    public static WildcardType supertypeOf(Type aInLowerBound) {
+        return intern(new WildcardTypeImpl(
+                OBJECT_BOUND,
+                new Type[]{canonicalize(
+                        Objects.requireNonNull(aInLowerBound))}));
+    }
+
+    /**
+     * Builds an unbounded wildcard, i.e. {@code ?}.
+     *
+     * @return the canonical wildcard
+     */
+    public static WildcardType unboundedWildcard() {
+        return subtypeOf(Object.class);
+    }
+
+    /**
+     * Returns the canonical instance of a type. Classes and type variables are
+     * returned as they are, while parameterized types, generic array types
+     * and wildcards are rebuilt from their canonical parts and interned.
+     *
+     * @param aInType the type, possibly returned by reflection
+     * @return the canonical type, equal to the given type
+     */
+    public static Type canonicalize(Type aInType) {
+        if (aInType == null
+                || aInType instanceof Class
+                || aInType instanceof TypeVariable
+                || aInType instanceof CanonicalType) {
+            return aInType;
+        }
+        if (aInType instanceof ParameterizedType) {
+            ParameterizedType lType = (ParameterizedType) aInType;
+            return parameterizedWithOwner(lType.getOwnerType(),
+                    (Class<?>) lType.getRawType(),
+                    lType.getActualTypeArguments());
+        }
+        if (aInType instanceof GenericArrayType) {
+            return arrayOf(
+                    ((GenericArrayType) aInType).getGenericComponentType());
+        }
+        if (aInType instanceof WildcardType) {
+            WildcardType lType = (WildcardType) aInType;
+            return intern(new WildcardTypeImpl(
+                    canonicalize(lType.getUpperBounds()),
+                    canonicalize(lType.getLowerBounds())));
+        }
+        throw new IllegalArgumentException(
+                "Unsupported type implementation: " + aInType.getClass());
+    }
+
+    private static Type[] canonicalize(Type[] aInTypes) {
+        if (aInTypes.length == 0) {
+            return NO_TYPES;
+        }
+        Type[] lTypes = new Type[aInTypes.length];
+        for (int i = 0; i < aInTypes.length; i++) {
+            lTypes[i] = canonicalize(aInTypes[i]);
+        }
+        return lTypes;
+    }
+
+    private static <T extends Type> T intern(T aInType) {
+        InternKey lKey = new InternKey(aInType, STALE_KEYS);
+        while (true) {
+            expungeStaleKeys();
+            InternKey lExisting = INTERNED.putIfAbsent(lKey, lKey);
+            if (lExisting == null) {
+                return aInType;
+            }
+            Type lInterned = lExisting.get();
+            if (lInterned != null) {
+                //noinspection unchecked
+                return (T) lInterned;
+            }
+            // collected in the meantime
+            INTERNED.remove(lExisting, lExisting);
+        }
+    }
+
+    private static void expungeStaleKeys() {
+        Object lStaleKey;
+        while ((lStaleKey = STALE_KEYS.poll()) != null) {
+            INTERNED.remove(lStaleKey, lStaleKey);
+        }
+    }
+
+    private static boolean sameTypes(Type[] aInTypes1, Type[] aInTypes2) {
+        if (aInTypes1.length != aInTypes2.length) {
+            return false;
+        }
+        for (int i = 0; i < aInTypes1.length; i++) {
+            if (!sameType(aInTypes1[i], aInTypes2[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the parts of canonical types. Classes and canonical types are
+     * unique, so they are compared by reference. Type variables are not, so
+     * they are compared with equals.
+     */
+    private static boolean sameType(Type aInType1, Type aInType2) {
+        return aInType1 == aInType2
+                || (aInType1 instanceof TypeVariable
+                        && aInType1.equals(aInType2));
+    }
+
+    /**
+     * Base class of the canonical types. Their parts are canonical as well,
+     * so two canonical types are equal if their parts are the same instances.
+     * Types of other implementations are compared as the JDK does.
+     */
+    private abstract static class CanonicalType implements Type {
+        private int hashCode;
+
+        CanonicalType(int aInHashCode) {
+            hashCode = aInHashCode;
+        }
+
+        @Override
+        public final int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public final String toString() {
+            return getTypeName();
+        }
+    }
+
+    private static final class ParameterizedTypeImpl extends CanonicalType
+            implements ParameterizedType {
+        private Type ownerType;
+        private Class<?> rawType;
+        private Type[] arguments;
+
+        ParameterizedTypeImpl(Type aInOwnerType, Class<?> aInRawType,
+                              Type[] aInArguments) {
+            // same hash code as the JDK's implementation
+            super(Arrays.hashCode(aInArguments)
+                    ^ Objects.hashCode(aInOwnerType)
+                    ^ aInRawType.hashCode());
+            ownerType = aInOwnerType;
+            rawType = aInRawType;
+            arguments = aInArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (this == aInObject) {
+                return true;
+            }
+            if (aInObject instanceof ParameterizedTypeImpl) {
+                ParameterizedTypeImpl lType =
+                        (ParameterizedTypeImpl) aInObject;
+                return hashCode() == lType.hashCode()
+                        && rawType == lType.rawType
+                        && sameType(ownerType, lType.ownerType)
+                        && sameTypes(arguments, lType.arguments);
+            }
+            if (aInObject instanceof ParameterizedType) {
+                ParameterizedType lType = (ParameterizedType) aInObject;
+                return rawType.equals(lType.getRawType())
+                        && Objects.equals(ownerType, lType.getOwnerType())
+                        && Arrays.equals(
+                                arguments, lType.getActualTypeArguments());
+            }
+            return false;
+        }
+
+        @Override
+        public String getTypeName() {
+            StringBuilder lBuilder = new StringBuilder();
+            if (ownerType != null) {
+                lBuilder.append(ownerType.getTypeName()).append('$')
+                        .append(rawType.getSimpleName());
+            } else {
+                lBuilder.append(rawType.getName());
+            }
+            StringJoiner lJoiner = new StringJoiner(", ", "<", ">");
+            lJoiner.setEmptyValue("");
+            for (Type lArgument : arguments) {
+                lJoiner.add(lArgument.getTypeName());
+            }
+            return lBuilder.append(lJoiner).toString();
+        }
+    }
+
+    private static final class GenericArrayTypeImpl extends CanonicalType
+            implements GenericArrayType {
+        private Type componentType;
+
+        GenericArrayTypeImpl(Type aInComponentType) {
+            // same hash code as the JDK's implementation
+            super(aInComponentType.hashCode());
+            componentType = aInComponentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return componentType;
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (this == aInObject) {
+                return true;
+            }
+            if (aInObject instanceof GenericArrayTypeImpl) {
+                return sameType(componentType,
+                        ((GenericArrayTypeImpl) aInObject).componentType);
+            }
+            return aInObject instanceof GenericArrayType
+                    && componentType.equals(((GenericArrayType) aInObject)
+                            .getGenericComponentType());
+        }
+
+        @Override
+        public String getTypeName() {
+            return componentType.getTypeName() + "[]";
+        }
+    }
+
+    private static final class WildcardTypeImpl extends CanonicalType
+            implements WildcardType {
+        private Type[] upperBounds;
+        private Type[] lowerBounds;
+
+        WildcardTypeImpl(Type[] aInUpperBounds, Type[] aInLowerBounds) {
+            // same hash code as the JDK's implementation
+            super(Arrays.hashCode(aInLowerBounds)
+                    ^ Arrays.hashCode(aInUpperBounds));
+            upperBounds = aInUpperBounds;
+            lowerBounds = aInLowerBounds;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upperBounds.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lowerBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (this == aInObject) {
+                return true;
+            }
+            if (aInObject instanceof WildcardTypeImpl) {
+                WildcardTypeImpl lType = (WildcardTypeImpl) aInObject;
+                return sameTypes(upperBounds, lType.upperBounds)
+                        && sameTypes(lowerBounds, lType.lowerBounds);
+            }
+            if (aInObject instanceof WildcardType) {
+                WildcardType lType = (WildcardType) aInObject;
+                return Arrays.equals(upperBounds, lType.getUpperBounds())
+                        && Arrays.equals(lowerBounds, lType.getLowerBounds());
+            }
+            return false;
+        }
+
+        @Override
+        public String getTypeName() {
+            if (lowerBounds.length > 0) {
+                return "? super " + lowerBounds[0].getTypeName();
+            }
+            if (upperBounds.length == 0 || upperBounds[0] == Object.class) {
+                return "?";
+            }
+            return "? extends " + upperBounds[0].getTypeName();
+        }
+    }
+
+    /**
+     * A key of the interning table. It references its type weakly and is
+     * equal to keys whose types are equal. Its hash code is computed up front
+     * so the key can still be removed after its type is collected.
+     */
+    private static class InternKey extends WeakReference<Type> {
+        private int hashCode;
+
+        InternKey(Type aInType, ReferenceQueue<Type> aInQueue) {
+            super(aInType, aInQueue);
+            hashCode = aInType.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (this == aInObject) {
+                return true;
+            }
+            if (!(aInObject instanceof InternKey)) {
+                return false;
+            }
+            Type lType = get();
+            return lType != null
+                    && lType.equals(((InternKey) aInObject).get());
+        }
+    }
+}
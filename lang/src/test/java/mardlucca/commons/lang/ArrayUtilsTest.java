@@ -0,0 +1,142 @@
+/*
+ * File: ArrayUtilsTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static mardlucca.commons.lang.OverflowPolicy.SATURATE;
+import static mardlucca.commons.lang.OverflowPolicy.THROW;
+import static mardlucca.commons.lang.OverflowPolicy.WRAP;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class ArrayUtilsTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testWidening() {
+        assertArrayEquals(new long[] {-1, Integer.MAX_VALUE},
+                ArrayUtils.toLongArray(new int[] {-1, Integer.MAX_VALUE}));
+        assertArrayEquals(new int[] {0xffff, 65},
+                ArrayUtils.toIntArray(new char[] {(char) 0xffff, 'A'}));
+        assertArrayEquals(new double[] {0.5, -0.25},
+                ArrayUtils.toDoubleArray(new float[] {0.5f, -0.25f}), 0.0);
+        assertArrayEquals(new double[] {9.007199254740992E15},
+                ArrayUtils.toDoubleArray(new long[] {9007199254740992L}),
+                0.0);
+        assertArrayEquals(new short[] {-128},
+                ArrayUtils.toShortArray(new byte[] {-128}));
+        assertArrayEquals(new long[0], ArrayUtils.toLongArray(new int[0]));
+        assertNull(ArrayUtils.toLongArray((int[]) null));
+    }
+
+    @Test
+    public void testNarrowingIntegers() {
+        int[] lInts = {-129, -128, 127, 128, 300};
+        assertArrayEquals(new byte[] {127, -128, 127, -128, 44},
+                ArrayUtils.toByteArray(lInts, WRAP));
+        assertArrayEquals(new byte[] {-128, -128, 127, 127, 127},
+                ArrayUtils.toByteArray(lInts, SATURATE));
+        assertArrayEquals(new byte[] {-128, 127},
+                ArrayUtils.toByteArray(new int[] {-128, 127}, THROW));
+
+        long[] lLongs = {Long.MIN_VALUE, -1, Long.MAX_VALUE};
+        assertArrayEquals(new int[] {0, -1, -1},
+                ArrayUtils.toIntArray(lLongs, WRAP));
+        assertArrayEquals(
+                new int[] {Integer.MIN_VALUE, -1, Integer.MAX_VALUE},
+                ArrayUtils.toIntArray(lLongs, SATURATE));
+
+        assertArrayEquals(new char[] {0, 0xffff},
+                ArrayUtils.toCharArray(new int[] {-5, 70000}, SATURATE));
+        assertArrayEquals(new char[] {0xfffb},
+                ArrayUtils.toCharArray(new byte[] {-5}, WRAP));
+        assertArrayEquals(new byte[] {127},
+                ArrayUtils.toByteArray(new char[] {(char) 0xffff}, SATURATE));
+        assertNull(ArrayUtils.toIntArray((long[]) null, THROW));
+    }
+
+    @Test
+    public void testNarrowingFloatingPoint() {
+        double[] lDoubles = {Double.NaN, -1e10, -1.9, 1.9, 1e10};
+        assertArrayEquals(
+                new int[] {0, Integer.MIN_VALUE, -1, 1, Integer.MAX_VALUE},
+                ArrayUtils.toIntArray(lDoubles, WRAP));
+        assertArrayEquals(
+                new int[] {0, Integer.MIN_VALUE, -1, 1, Integer.MAX_VALUE},
+                ArrayUtils.toIntArray(lDoubles, SATURATE));
+        assertArrayEquals(new short[] {0, Short.MIN_VALUE, -1, 1,
+                        Short.MAX_VALUE},
+                ArrayUtils.toShortArray(lDoubles, SATURATE));
+        assertArrayEquals(new short[] {0, 0, -1, 1, -1},
+                ArrayUtils.toShortArray(lDoubles, WRAP));
+
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE},
+                ArrayUtils.toIntArray(new double[] {-2147483648.9,
+                        2147483647.9}, THROW));
+        assertArrayEquals(new long[] {Long.MIN_VALUE},
+                ArrayUtils.toLongArray(new float[] {-0x1p63f}, THROW));
+
+        double[] lFloatRange = {1e300, -1e300, Double.NEGATIVE_INFINITY, 1.5};
+        assertArrayEquals(new float[] {Float.POSITIVE_INFINITY,
+                        Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, 1.5f},
+                ArrayUtils.toFloatArray(lFloatRange, WRAP), 0.0f);
+        assertArrayEquals(new float[] {Float.MAX_VALUE, -Float.MAX_VALUE,
+                        Float.NEGATIVE_INFINITY, 1.5f},
+                ArrayUtils.toFloatArray(lFloatRange, SATURATE), 0.0f);
+        assertArrayEquals(new float[] {Float.NEGATIVE_INFINITY, Float.NaN},
+                ArrayUtils.toFloatArray(new double[] {
+                        Double.NEGATIVE_INFINITY, Double.NaN}, THROW), 0.0f);
+    }
+
+    @Test
+    public void testNarrowingThrowsOnOverflow() {
+        expectedException.expect(ArithmeticException.class);
+        expectedException.expectMessage("Value 128 at index 1");
+        ArrayUtils.toByteArray(new int[] {1, 128}, THROW);
+    }
+
+    @Test
+    public void testNarrowingThrowsOnUnsignedOverflow() {
+        expectedException.expect(ArithmeticException.class);
+        ArrayUtils.toCharArray(new short[] {-1}, THROW);
+    }
+
+    @Test
+    public void testNarrowingThrowsOnNaN() {
+        expectedException.expect(ArithmeticException.class);
+        ArrayUtils.toLongArray(new double[] {Double.NaN}, THROW);
+    }
+
+    @Test
+    public void testNarrowingThrowsOnRoundedOverflow() {
+        // 2^31 is the closest float to Integer.MAX_VALUE
+        expectedException.expect(ArithmeticException.class);
+        ArrayUtils.toIntArray(new float[] {Integer.MAX_VALUE}, THROW);
+    }
+
+    @Test
+    public void testNarrowingToFloatThrowsOnOverflow() {
+        expectedException.expect(ArithmeticException.class);
+        ArrayUtils.toFloatArray(new double[] {1e39}, THROW);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * File: FormatUtilsTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class FormatUtilsTest {
+    @Test
+    public void testAppendIntegers() throws IOException {
+        for (long lValue : new long[] {0, 7, -7, 10, 1234567890123L,
+                Long.MAX_VALUE, Long.MIN_VALUE}) {
+            StringWriter lWriter = new StringWriter();
+            FormatUtils.append(lValue, lWriter);
+            assertEquals(String.valueOf(lValue), lWriter.toString());
+
+            StringBuilder lBuilder = new StringBuilder();
+            FormatUtils.append(lValue, lBuilder);
+            assertEquals(String.valueOf(lValue), lBuilder.toString());
+        }
+
+        CharBuffer lBuffer = CharBuffer.allocate(16);
+        FormatUtils.append(Integer.MIN_VALUE, lBuffer);
+        lBuffer.flip();
+        assertEquals("-2147483648", lBuffer.toString());
+    }
+
+    @Test
+    public void testAppendDecimals() throws IOException {
+        for (double lValue : new double[] {0.0, -0.0, 0.1, 1e23, -4.9e-324,
+                Double.NaN, Double.NEGATIVE_INFINITY}) {
+            StringWriter lWriter = new StringWriter();
+            FormatUtils.append(lValue, lWriter);
+            assertEquals(String.valueOf(lValue), lWriter.toString());
+        }
+
+        StringWriter lWriter = new StringWriter();
+        FormatUtils.append(1.1f, lWriter);
+        FormatUtils.append(true, lWriter);
+        assertEquals("1.1true", lWriter.toString());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * File: ParseUtilsTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParseUtilsTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testParseIntegers() {
+        assertEquals(-42, ParseUtils.parseInt("a,-42,b", 2, 5));
+        assertEquals(42, ParseUtils.parseInt("+42".toCharArray(), 0, 3));
+        assertEquals(Integer.MIN_VALUE, ParseUtils.parseInt(
+                "-2147483648".getBytes(StandardCharsets.US_ASCII), 0, 11));
+        assertEquals(Long.MAX_VALUE,
+                ParseUtils.parseLong("9223372036854775807", 0, 19));
+        assertEquals(Long.MIN_VALUE,
+                ParseUtils.parseLong("-9223372036854775808", 0, 20));
+        assertEquals((short) -300, ParseUtils.parseShort("-300", 0, 4));
+        assertEquals((byte) 127, ParseUtils.parseByte(
+                new StringBuilder("127"), 0, 3));
+    }
+
+    @Test
+    public void testIntOverflow() {
+        expectedException.expect(NumberFormatException.class);
+        expectedException.expectMessage("For input string: \"2147483648\"");
+        ParseUtils.parseInt("2147483648", 0, 10);
+    }
+
+    @Test
+    public void testByteOutOfRange() {
+        expectedException.expect(NumberFormatException.class);
+        expectedException.expectMessage("Value out of range");
+        ParseUtils.parseByte("128", 0, 3);
+    }
+
+    @Test
+    public void testMalformedIntegers() {
+        for (String lText : new String[] {"", "-", "+", "1a", " 1", "1.0"}) {
+            try {
+                ParseUtils.parseInt(lText, 0, lText.length());
+                throw new AssertionError(lText);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseDecimals() {
+        for (String lText : new String[] {"0", "-0", "1.5", "-12.25e3",
+                ".5", "5.", "0.1", "3.141592653589793", "1e22", "1e23",
+                "1e-22", "123456789012345678901234567890", "4.9e-324",
+                "1.7976931348623157e308", "NaN", "-Infinity", "1d", " 2 ",
+                "0x1p3", "9007199254740993"}) {
+            assertEquals(lText, Double.parseDouble(lText),
+                    ParseUtils.parseDouble(lText, 0, lText.length()), 0.0);
+            assertEquals(lText, Float.parseFloat(lText),
+                    ParseUtils.parseFloat(lText.toCharArray(), 0,
+                            lText.length()), 0.0f);
+        }
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(
+                ParseUtils.parseDouble("-0", 0, 2)));
+    }
+
+    @Test
+    public void testParseRandomDecimals() {
+        Random lRandom = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            String lText = lRandom.nextInt(1000000) + "." + lRandom.nextInt(
+                    1000) + "e" + (lRandom.nextInt(40) - 20);
+            byte[] lBytes = lText.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(lText, Double.parseDouble(lText),
+                    ParseUtils.parseDouble(lBytes, 0, lBytes.length), 0.0);
+            assertEquals(lText, Float.parseFloat(lText),
+                    ParseUtils.parseFloat(lBytes, 0, lBytes.length), 0.0f);
+        }
+    }
+
+    @Test
+    public void testMalformedDecimals() {
+        expectedException.expect(NumberFormatException.class);
+        ParseUtils.parseDouble("1.2.3", 0, 5);
+    }
+
+    @Test
+    public void testParseBooleansAndChars() {
+        assertTrue(ParseUtils.parseBoolean("TRUE", 0, 4));
+        assertFalse(ParseUtils.parseBoolean("[false]", 1, 6));
+        assertEquals('x', ParseUtils.parseChar("axb", 1, 2));
+    }
+
+    @Test
+    public void testMalformedBoolean() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("not a boolean: \"yes\"");
+        ParseUtils.parseBoolean("yes", 0, 3);
+    }
+
+    @Test
+    public void testRangeOutOfBounds() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        ParseUtils.parseInt("12", 1, 3);
+    }
+}
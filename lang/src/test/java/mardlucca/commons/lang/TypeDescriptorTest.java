@@ -0,0 +1,87 @@
+/*
+ * File: TypeDescriptorTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TypeDescriptorTest {
+    @Test
+    public void testClassDescriptorsAreCached() {
+        assertSame(TypeDescriptor.of(ArrayList.class),
+                TypeDescriptor.of(ArrayList.class));
+        assertTrue(TypeDescriptor.of(ArrayList.class).isCollection());
+        assertSame(Object.class,
+                TypeDescriptor.of(ArrayList.class).getCollectionElementType());
+    }
+
+    @Test
+    public void testEqualTypesShareDescriptors() {
+        Type lType1 = new TypeReference<Map<String, List<Integer>>>() {}
+                .getType();
+        Type lType2 = new TypeReference<Map<String, List<Integer>>>() {}
+                .getType();
+        assertNotSame(lType1, lType2);
+
+        TypeDescriptor lDescriptor = TypeDescriptor.of(lType1);
+        assertSame(lDescriptor, TypeDescriptor.of(lType2));
+        assertTrue(lDescriptor.isMap());
+        assertFalse(lDescriptor.isCollection());
+        assertFalse(lDescriptor.isGeneric());
+    }
+
+    @Test
+    public void testMapKeyValueTypesAreCopied() {
+        Type lType = new TypeReference<Map<String, Integer>>() {}.getType();
+        Type[] lTypes = TypeDescriptor.of(lType).getMapKeyValueTypes();
+        lTypes[0] = Object.class;
+        assertArrayEquals(new Type[] {String.class, Integer.class},
+                TypeDescriptor.of(lType).getMapKeyValueTypes());
+    }
+
+    @Test
+    public void testNull() {
+        TypeDescriptor lDescriptor = TypeDescriptor.of(null);
+        assertFalse(lDescriptor.isGeneric());
+        assertFalse(lDescriptor.isArray());
+        assertFalse(lDescriptor.isCollection());
+        assertNull(lDescriptor.getMapKeyValueTypes());
+    }
+
+    @Test
+    public void testGenericArrays() {
+        Type lType = new TypeReference<List<String>[]>() {}.getType();
+        TypeDescriptor lDescriptor = TypeDescriptor.of(lType);
+        assertTrue(lDescriptor.isArray());
+        assertFalse(lDescriptor.isCollection());
+        assertTrue(TypeDescriptor.of(lDescriptor.getArrayComponentType())
+                .isCollection());
+    }
+}
@@ -25,8 +25,17 @@ import org.junit.rules.ExpectedException;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -349,6 +358,11 @@ public class TypeUtilsTest<E, S extends Comparable<E>> {
                 mapOfStringToListsOfWildcards.getType()));
         assertNull(TypeUtils.getCollectionElementType(
                 mapOfStringToIntArray.getType()));
+
+        // subclasses that bind the type argument
+        assertTypeEquals(
+                "class java.lang.Long",
+                TypeUtils.getCollectionElementType(IdList.class));
     }
 
     @Test
@@ -431,6 +445,17 @@ public class TypeUtilsTest<E, S extends Comparable<E>> {
                 "class java.lang.String",
                 "class [I",
                 TypeUtils.getMapKeyValueTypes(mapOfStringToIntArray.getType()));
+
+        // subclasses that bind the type arguments
+        assertTypesEqual(
+                "class java.lang.String",
+                "java.util.List<java.lang.Integer>",
+                TypeUtils.getMapKeyValueTypes(IntegerListMap.class));
+        assertTypesEqual(
+                "class java.lang.String",
+                "java.util.List<java.lang.Double>",
+                TypeUtils.getMapKeyValueTypes(
+                        new TypeReference<ListMap<Double>>() {}.getType()));
     }
 
     @Test
@@ -517,6 +542,32 @@ public class TypeUtilsTest<E, S extends Comparable<E>> {
         assertTrue(TypeUtils.isMap(mapOfStringToIntArray.getType()));
     }
 
+    @Test
+    public void isIterableIteratorSpliteratorAndStream() {
+        assertTrue(TypeUtils.isIterable(Iterable.class));
+        assertTrue(TypeUtils.isIterable(rawList.getType()));
+        assertTrue(TypeUtils.isIterable(listOfInteger.getType()));
+        assertFalse(TypeUtils.isIterable(rawMap.getType()));
+        assertFalse(TypeUtils.isIterable(intArray.getType()));
+        assertFalse(TypeUtils.isIterable(e.getType()));
+
+        assertTrue(TypeUtils.isIterator(Iterator.class));
+        assertTrue(TypeUtils.isIterator(
+                new TypeReference<ListIterator<E>>() {}.getType()));
+        assertFalse(TypeUtils.isIterator(listOfInteger.getType()));
+
+        assertTrue(TypeUtils.isSpliterator(
+                new TypeReference<Spliterator<String>>() {}.getType()));
+        assertTrue(TypeUtils.isSpliterator(Spliterator.OfInt.class));
+        assertFalse(TypeUtils.isSpliterator(Iterator.class));
+
+        assertTrue(TypeUtils.isStream(
+                new TypeReference<Stream<List<E>>>() {}.getType()));
+        assertTrue(TypeUtils.isStream(Stream.class));
+        assertFalse(TypeUtils.isStream(IntStream.class));
+        assertFalse(TypeUtils.isStream(listOfE.getType()));
+    }
+
     @Test
     public void boxingType() {
         assertEquals(Boolean.class, TypeUtils.boxingType(boolean.class));
@@ -702,8 +753,187 @@ public class TypeUtilsTest<E, S extends Comparable<E>> {
         TypeUtils.compareNumericSize(int.class, List.class);
     }
 
+    @Test
+    public void getSupertype() {
+        assertEquals(
+                listOfInteger.getType(),
+                TypeUtils.getSupertype(listOfInteger.getType(), List.class));
+        assertTypeEquals(
+                "java.lang.Iterable<java.lang.Integer>",
+                TypeUtils.getSupertype(
+                        new TypeReference<ArrayList<Integer>>() {}.getType(),
+                        Iterable.class));
+        assertTypeEquals(
+                "java.util.Collection<E>",
+                TypeUtils.getSupertype(listOfE.getType(), Collection.class));
+        assertTypeEquals(
+                "java.util.List<java.lang.Long>",
+                TypeUtils.getSupertype(IdList.class, List.class));
+        assertTypeEquals(
+                "java.util.Map<java.lang.String, java.util.List<"
+                        + "java.lang.Integer>>",
+                TypeUtils.getSupertype(IntegerListMap.class, Map.class));
+        assertTypeEquals(
+                "java.util.Map<java.lang.Object, java.lang.Object>",
+                TypeUtils.getSupertype(Properties.class, Map.class));
+
+        // raw types have raw supertypes
+        assertEquals(
+                Collection.class,
+                TypeUtils.getSupertype(ArrayList.class, Collection.class));
+        assertTypeEquals(
+                "java.lang.Comparable<java.lang.Integer>",
+                TypeUtils.getSupertype(Integer.class, Comparable.class));
+
+        assertNull(TypeUtils.getSupertype(String.class, List.class));
+        assertNull(TypeUtils.getSupertype(rawList.getType(), ArrayList.class));
+        assertNull(TypeUtils.getSupertype(e.getType(), Object.class));
+        assertNull(TypeUtils.getSupertype(
+                arrayOfListsOfInteger.getType(), Object.class));
+    }
+
+    @Test
+    public void getTypeArguments() {
+        assertTypesEqual(
+                "class java.lang.String",
+                "class java.lang.Integer",
+                TypeUtils.getTypeArguments(
+                        new TypeReference<HashMap<String, Integer>>() {}
+                                .getType(),
+                        Map.class));
+        assertTypeEquals(
+                "class java.lang.Long",
+                TypeUtils.getTypeArguments(IdList.class, Iterable.class)[0]);
+        assertNull(TypeUtils.getTypeArguments(ArrayList.class, List.class));
+        assertNull(TypeUtils.getTypeArguments(IdList.class, Map.class));
+    }
+
+    @Test
+    public void resolveTypeVariables() {
+        Type lElement = Collection.class.getTypeParameters()[0];
+
+        assertTypeEquals(
+                "class java.lang.Long",
+                TypeUtils.resolveTypeVariables(lElement, IdList.class));
+        assertTypeEquals(
+                "java.util.List<java.lang.Long>",
+                TypeUtils.resolveTypeVariables(
+                        Types.parameterized(List.class, lElement),
+                        IdList.class));
+        assertTypeEquals(
+                "? super java.lang.Integer[]",
+                TypeUtils.resolveTypeVariables(
+                        Types.arrayOf(Types.supertypeOf(lElement)),
+                        listOfInteger.getType()));
+        assertSame(
+                listOfInteger.getType(),
+                TypeUtils.resolveTypeVariables(
+                        listOfInteger.getType(), IdList.class));
+
+        // not resolvable
+        assertSame(
+                lElement,
+                TypeUtils.resolveTypeVariables(lElement, String.class));
+        assertSame(
+                lElement,
+                TypeUtils.resolveTypeVariables(lElement, ArrayList.class));
+        assertTypeEquals(
+                "E",
+                TypeUtils.resolveTypeVariables(e.getType(), IdList.class));
+    }
+
     @Test
     public void isAssignable() {
+        // classes and primitives
+        assertTrue(TypeUtils.isAssignable(Integer.class, Number.class));
+        assertTrue(TypeUtils.isAssignable(Integer.class, Object.class));
+        assertFalse(TypeUtils.isAssignable(Number.class, Integer.class));
+        assertTrue(TypeUtils.isAssignable(int.class, int.class));
+        assertFalse(TypeUtils.isAssignable(int.class, long.class));
+        assertFalse(TypeUtils.isAssignable(int.class, Integer.class));
+        assertFalse(TypeUtils.isAssignable(int.class, Object.class));
+        assertFalse(TypeUtils.isAssignable(null, Object.class));
+
+        // arrays
+        assertTrue(TypeUtils.isAssignable(Integer[].class, Number[].class));
+        assertTrue(TypeUtils.isAssignable(int[].class, Object.class));
+        assertTrue(TypeUtils.isAssignable(int[].class, Cloneable.class));
+        assertFalse(TypeUtils.isAssignable(int[].class, long[].class));
+        assertFalse(TypeUtils.isAssignable(int[].class, Object[].class));
+        assertTrue(TypeUtils.isAssignable(
+                arrayOfListsOfInteger.getType(), Object[].class));
+        assertTrue(TypeUtils.isAssignable(arrayOfListsOfInteger.getType(),
+                arrayOfListsOfWildcards.getType()));
+        assertFalse(TypeUtils.isAssignable(arrayOfListsOfWildcards.getType(),
+                arrayOfListsOfInteger.getType()));
+
+        // parameterized types
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<ArrayList<Integer>>() {}.getType(),
+                listOfInteger.getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<ArrayList<Integer>>() {}.getType(),
+                new TypeReference<Iterable<Integer>>() {}.getType()));
+        assertFalse(TypeUtils.isAssignable(
+                new TypeReference<ArrayList<Integer>>() {}.getType(),
+                new TypeReference<List<Number>>() {}.getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<HashMap<String, List<Integer>>>() {}
+                        .getType(),
+                new TypeReference<Map<String, List<Integer>>>() {}
+                        .getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<Properties>() {}.getType(),
+                new TypeReference<Map<Object, Object>>() {}.getType()));
+        assertTrue(TypeUtils.isAssignable(listOfInteger.getType(),
+                rawList.getType()));
+        assertTrue(TypeUtils.isAssignable(listOfE.getType(),
+                listOfE.getType()));
+        assertFalse(TypeUtils.isAssignable(listOfE.getType(),
+                listOfInteger.getType()));
+
+        // wildcards
+        assertTrue(TypeUtils.isAssignable(listOfInteger.getType(),
+                listOfWildcards.getType()));
+        assertTrue(TypeUtils.isAssignable(listOfInteger.getType(),
+                new TypeReference<List<? extends Number>>() {}.getType()));
+        assertFalse(TypeUtils.isAssignable(
+                new TypeReference<List<Object>>() {}.getType(),
+                new TypeReference<List<? extends Number>>() {}.getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<List<Number>>() {}.getType(),
+                new TypeReference<List<? super Integer>>() {}.getType()));
+        assertFalse(TypeUtils.isAssignable(listOfInteger.getType(),
+                new TypeReference<List<? super Number>>() {}.getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<List<? extends Integer>>() {}.getType(),
+                new TypeReference<List<? extends Number>>() {}.getType()));
+        assertFalse(TypeUtils.isAssignable(listOfWildcards.getType(),
+                listOfInteger.getType()));
+        assertTrue(TypeUtils.isAssignable(
+                new TypeReference<List<ArrayList<String>>>() {}.getType(),
+                new TypeReference<List<? extends List<String>>>() {}
+                        .getType()));
+        assertFalse(TypeUtils.isAssignable(
+                new TypeReference<List<ArrayList<String>>>() {}.getType(),
+                new TypeReference<List<List<String>>>() {}.getType()));
+
+        // raw types are not assignable to parameterized types, except when
+        // all type arguments are unbounded wildcards
+        assertFalse(TypeUtils.isAssignable(rawList.getType(),
+                listOfInteger.getType()));
+        assertTrue(TypeUtils.isAssignable(ArrayList.class,
+                listOfWildcards.getType()));
+
+        // type variables
+        assertTrue(TypeUtils.isAssignable(e.getType(), Object.class));
+        assertTrue(TypeUtils.isAssignable(s.getType(),
+                new TypeReference<Comparable<E>>() {}.getType()));
+        assertFalse(TypeUtils.isAssignable(s.getType(), e.getType()));
+        assertFalse(TypeUtils.isAssignable(Object.class, e.getType()));
+
+        // results are cached
+        assertTrue(TypeUtils.isAssignable(Integer.class, Number.class));
     }
 
     private static void assertTypeEquals(String aInString, Type aInType) {
@@ -718,4 +948,13 @@ public class TypeUtilsTest<E, S extends Comparable<E>> {
         assertEquals(aInString1, aInTypes[0].toString());
         assertEquals(aInString2, aInTypes[1].toString());
     }
+
+    private static class IdList extends ArrayList<Long> {
+    }
+
+    private static class ListMap<V> extends HashMap<String, List<V>> {
+    }
+
+    private static class IntegerListMap extends ListMap<Integer> {
+    }
 }
\ No newline at end of file
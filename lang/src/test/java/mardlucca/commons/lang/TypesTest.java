@@ -0,0 +1,135 @@
+/*
+ * File: TypesTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.lang;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit test class for {@link Types}.
+ *
+ * @param <E> a type variable. This is used in test cases
+ */
+public class TypesTest<E> {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testParameterized() {
+        Type lJdkType = new TypeReference<Map<String, List<Integer>>>() {}
+                .getType();
+        ParameterizedType lType = Types.parameterized(Map.class,
+                String.class, Types.parameterized(List.class, Integer.class));
+
+        assertEquals(lJdkType, lType);
+        assertEquals(lType, lJdkType);
+        assertEquals(lJdkType.hashCode(), lType.hashCode());
+        assertEquals(lJdkType.toString(), lType.toString());
+        assertEquals(lJdkType.getTypeName(), lType.getTypeName());
+        assertNotEquals(Types.parameterized(List.class, Long.class),
+                Types.parameterized(List.class, Integer.class));
+    }
+
+    @Test
+    public void testMemberClasses() {
+        Type lJdkType = new TypeReference<Map.Entry<String, Integer>>() {}
+                .getType();
+        ParameterizedType lType = Types.parameterized(
+                Map.Entry.class, String.class, Integer.class);
+        assertSame(Map.class, lType.getOwnerType());
+        assertEquals(lJdkType, lType);
+        assertEquals(lJdkType.hashCode(), lType.hashCode());
+    }
+
+    @Test
+    public void testInterning() {
+        assertSame(Types.parameterized(List.class, Integer.class),
+                Types.parameterized(List.class, Integer.class));
+        assertSame(Types.parameterized(List.class, Integer.class),
+                Types.canonicalize(new TypeReference<List<Integer>>() {}
+                        .getType()));
+        assertSame(Types.subtypeOf(Number.class),
+                Types.subtypeOf(Number.class));
+        assertSame(Types.arrayOf(Types.parameterized(List.class, typeVariableE())),
+                Types.canonicalize(new TypeReference<List<E>[]>() {}
+                        .getType()));
+    }
+
+    @Test
+    public void testArrays() {
+        assertSame(int[].class, Types.arrayOf(int.class));
+        assertSame(String[][].class, Types.arrayOf(String[].class));
+
+        Type lJdkType = new TypeReference<List<String>[]>() {}.getType();
+        Type lType = Types.arrayOf(Types.parameterized(List.class,
+                String.class));
+        assertEquals(lJdkType, lType);
+        assertEquals(lType, lJdkType);
+        assertEquals(lJdkType.hashCode(), lType.hashCode());
+        assertEquals(lJdkType.getTypeName(), lType.getTypeName());
+    }
+
+    @Test
+    public void testWildcards() {
+        assertWildcard(new TypeReference<List<?>>() {},
+                Types.unboundedWildcard());
+        assertWildcard(new TypeReference<List<? extends Number>>() {},
+                Types.subtypeOf(Number.class));
+        assertWildcard(new TypeReference<List<? super Integer>>() {},
+                Types.supertypeOf(Integer.class));
+    }
+
+    private static void assertWildcard(
+            TypeReference<?> aInReference, Type aInWildcard) {
+        Type lJdkType = ((ParameterizedType) aInReference.getType())
+                .getActualTypeArguments()[0];
+        assertEquals(lJdkType, aInWildcard);
+        assertEquals(aInWildcard, lJdkType);
+        assertEquals(lJdkType.hashCode(), aInWildcard.hashCode());
+        assertEquals(lJdkType.getTypeName(), aInWildcard.getTypeName());
+        assertSame(aInWildcard, Types.canonicalize(lJdkType));
+    }
+
+    @Test
+    public void testWrongNumberOfArguments() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("java.util.Map expects 2");
+        Types.parameterized(Map.class, String.class);
+    }
+
+    @Test
+    public void testPrimitiveArgument() {
+        expectedException.expect(IllegalArgumentException.class);
+        Types.parameterized(List.class, int.class);
+    }
+
+    private static Type typeVariableE() {
+        return TypesTest.class.getTypeParameters()[0];
+    }
+}
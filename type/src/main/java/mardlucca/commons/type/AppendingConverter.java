@@ -0,0 +1,72 @@
+/*
+ * File: AppendingConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A converter to strings that can also write its text straight into an
+ * {@link Appendable}, e.g. a {@link StringBuilder}, a
+ * {@link java.nio.CharBuffer} or a {@link java.io.Writer}. Callers that
+ * build large texts out of many converted values should append them, rather
+ * than convert each one to a string that is then copied.
+ *
+ * @param <F> the type converted from
+ */
+@FunctionalInterface
+public interface AppendingConverter<F> extends Converter<F, String> {
+    /**
+     * Appends the text of a value, which is what {@link #convert(Object)}
+     * returns for it. Null values are appended as "null".
+     *
+     * @param aInFrom the value to format
+     * @param aInTo where the text is appended
+     * @throws IOException if the target fails to append
+     */
+    void appendTo(F aInFrom, Appendable aInTo) throws IOException;
+
+    /**
+     * Appends the text of a value to a {@link StringBuilder}, which never
+     * fails to append.
+     *
+     * @param aInFrom the value to format
+     * @param aInTo where the text is appended
+     */
+    default void appendTo(F aInFrom, StringBuilder aInTo) {
+        try {
+            appendTo(aInFrom, (Appendable) aInTo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the text of the value, or null if the value is null
+     */
+    @Override
+    default String convert(F aInFrom) {
+        if (aInFrom == null) {
+            return null;
+        }
+        StringBuilder lBuilder = new StringBuilder();
+        appendTo(aInFrom, lBuilder);
+        return lBuilder.toString();
+    }
+}
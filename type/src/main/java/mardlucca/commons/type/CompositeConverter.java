@@ -0,0 +1,141 @@
+/*
+ * File: CompositeConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A flat pipeline of converters, as built by {@link Converter#andThen},
+ * {@link Converter#compose} and {@link Converter#nullConverter}. Pipelines
+ * are kept flat as they are composed: identities are dropped, adjacent
+ * stages that know how to {@link Converter#fuseWith fuse} are fused, and a
+ * null safe pipeline composed with another null safe pipeline makes a single
+ * null safe pipeline rather than a guard nested in another.
+ * <p>
+ * A null safe pipeline returns null as soon as the value entering any of its
+ * stages is null, which is what a chain of null guarded converters does.
+ */
+final class CompositeConverter implements Converter<Object, Object> {
+    private final Converter<Object, Object>[] stages;
+    private final boolean nullSafe;
+
+    private CompositeConverter(Converter<Object, Object>[] aInStages,
+                               boolean aInNullSafe) {
+        stages = aInStages;
+        nullSafe = aInNullSafe;
+    }
+
+    @Override
+    public Object convert(Object aInFrom) {
+        Object lValue = aInFrom;
+        for (Converter<Object, Object> lStage : stages) {
+            if (nullSafe && lValue == null) {
+                return null;
+            }
+            lValue = lStage.convert(lValue);
+        }
+        return lValue;
+    }
+
+    /**
+     * Guards a converter so that it returns null for null.
+     */
+    static Converter<Object, Object> nullSafe(
+            Converter<Object, Object> aInConverter) {
+        if (aInConverter.isIdentity() || isNullSafe(aInConverter)) {
+            return aInConverter;
+        }
+        return create(List.of(aInConverter), true);
+    }
+
+    /**
+     * Returns a converter that converts with one converter and then with
+     * another.
+     */
+    static Converter<Object, Object> andThen(
+            Converter<Object, Object> aInFirst,
+            Converter<Object, Object> aInSecond) {
+        if (aInFirst.isIdentity()) {
+            return aInSecond;
+        }
+        if (aInSecond.isIdentity()) {
+            return aInFirst;
+        }
+
+        // a null safe pipeline only absorbs another null safe pipeline, as
+        // guards can't be added to or removed from stages
+        boolean lNullSafe = isNullSafe(aInFirst) && isNullSafe(aInSecond);
+        List<Converter<Object, Object>> lStages = new ArrayList<>();
+        addStages(lStages, aInFirst, lNullSafe);
+        addStages(lStages, aInSecond, lNullSafe);
+        return create(lStages, lNullSafe);
+    }
+
+    private static boolean isNullSafe(Converter<?, ?> aInConverter) {
+        return aInConverter instanceof CompositeConverter
+                && ((CompositeConverter) aInConverter).nullSafe;
+    }
+
+    /**
+     * Appends the stages of a converter to a pipeline, fusing the first one
+     * with the last stage of the pipeline if possible.
+     */
+    private static void addStages(List<Converter<Object, Object>> aInStages,
+                                  Converter<Object, Object> aInConverter,
+                                  boolean aInNullSafe) {
+        Iterable<Converter<Object, Object>> lStages =
+                aInConverter instanceof CompositeConverter
+                        && ((CompositeConverter) aInConverter).nullSafe
+                                == aInNullSafe
+                ? Arrays.asList(((CompositeConverter) aInConverter).stages)
+                : List.of(aInConverter);
+
+        for (Converter<Object, Object> lStage : lStages) {
+            if (!aInStages.isEmpty()) {
+                Converter<Object, Object> lLast =
+                        aInStages.get(aInStages.size() - 1);
+                Converter<Object, Object> lFused = lLast.fuseWith(lStage);
+                if (lFused != null) {
+                    aInStages.set(aInStages.size() - 1, lFused);
+                    continue;
+                }
+            }
+            aInStages.add(lStage);
+        }
+        aInStages.removeIf(Converter::isIdentity);
+    }
+
+    private static Converter<Object, Object> create(
+            List<Converter<Object, Object>> aInStages, boolean aInNullSafe) {
+        if (aInStages.isEmpty()) {
+            // identities return null for null
+            return Converter.identityConverter();
+        }
+        if (aInStages.size() == 1 && !aInNullSafe) {
+            return aInStages.get(0);
+        }
+        // arrays of a generic type can only be created raw
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Converter<Object, Object>[] lStages =
+                aInStages.toArray(new Converter[0]);
+        return new CompositeConverter(lStages, aInNullSafe);
+    }
+}
@@ -18,18 +18,186 @@
 
 package mardlucca.commons.type;
 
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
 /**
  * Created by mlucca on 1/17/17.
  */
 public interface Converter<F, T> {
     T convert(F aInFrom);
 
+    /**
+     * Converts a range of elements of an array into a range of another
+     * array. Implementations may override this to avoid a virtual call per
+     * element.
+     *
+     * @param aInFrom the array with the elements to convert
+     * @param aInFromOffset index of the first element to convert
+     * @param aInTo the array where converted elements are stored
+     * @param aInToOffset index where the first converted element is stored
+     * @param aInLength the number of elements to convert
+     * @throws IndexOutOfBoundsException if either range is out of the bounds
+     * of its array
+     */
+    default void convertAll(F[] aInFrom, int aInFromOffset,
+                            T[] aInTo, int aInToOffset, int aInLength) {
+        Objects.checkFromIndexSize(aInFromOffset, aInLength, aInFrom.length);
+        Objects.checkFromIndexSize(aInToOffset, aInLength, aInTo.length);
+        for (int i = 0; i < aInLength; i++) {
+            aInTo[aInToOffset + i] = convert(aInFrom[aInFromOffset + i]);
+        }
+    }
+
+    /**
+     * Converts a range of elements of a list into another list. Converted
+     * elements replace the ones in the target list starting at
+     * {@code aInToOffset}; once the end of the target list is reached, the
+     * remaining ones are appended to it.
+     *
+     * @param aInFrom the list with the elements to convert
+     * @param aInFromOffset index of the first element to convert
+     * @param aInTo the list where converted elements are stored
+     * @param aInToOffset index where the first converted element is stored.
+     *                    This can be at most the size of the target list.
+     * @param aInLength the number of elements to convert
+     * @throws IndexOutOfBoundsException if the source range is out of the
+     * bounds of its list or if the target offset is greater than the size
+     * of the target list
+     */
+    default void convertAll(List<? extends F> aInFrom, int aInFromOffset,
+                            List<? super T> aInTo, int aInToOffset,
+                            int aInLength) {
+        Objects.checkFromIndexSize(aInFromOffset, aInLength, aInFrom.size());
+        Objects.checkIndex(aInToOffset, aInTo.size() + 1);
+
+        if (aInFrom instanceof RandomAccess && aInTo instanceof RandomAccess) {
+            int lReplaced = Math.min(aInLength, aInTo.size() - aInToOffset);
+            for (int i = 0; i < lReplaced; i++) {
+                aInTo.set(aInToOffset + i,
+                        convert(aInFrom.get(aInFromOffset + i)));
+            }
+            for (int i = lReplaced; i < aInLength; i++) {
+                aInTo.add(convert(aInFrom.get(aInFromOffset + i)));
+            }
+            return;
+        }
+
+        ListIterator<? extends F> lFrom = aInFrom.listIterator(aInFromOffset);
+        ListIterator<? super T> lTo = aInTo.listIterator(aInToOffset);
+        for (int i = 0; i < aInLength; i++) {
+            T lConverted = convert(lFrom.next());
+            if (lTo.hasNext()) {
+                lTo.next();
+                lTo.set(lConverted);
+            } else {
+                lTo.add(lConverted);
+            }
+        }
+    }
+
+    /**
+     * Tells whether this converter returns the values it is given as they
+     * are, e.g. because it boxes primitives or casts references. Converters
+     * of containers can then hand out the source container instead of
+     * copying it.
+     *
+     * @return true if this converter is an identity; false by default
+     */
+    default boolean isIdentity() {
+        return false;
+    }
+
+    /**
+     * Tells whether this converter converts values that are not equal to
+     * values that are not equal either, e.g. because it widens primitives
+     * without losing precision. Views of maps can then convert keys as they
+     * are accessed, as no two keys of the source map end up as the same key.
+     *
+     * @return true if this converter is injective; by default, whether it is
+     * an {@link #isIdentity() identity}
+     */
+    default boolean isInjective() {
+        return isIdentity();
+    }
+
+    /**
+     * Returns a converter that converts with this converter and then with
+     * another. Identities are left out of the result, and converters that
+     * {@link #fuseWith fuse} are fused, so pipelines built one link at a
+     * time don't pay for each link.
+     *
+     * @param aInAfter the converter applied to the results of this one
+     * @param <V> the type converted to by the result
+     * @return the composed converter
+     */
+    default <V> Converter<F, V> andThen(
+            Converter<? super T, ? extends V> aInAfter) {
+        //noinspection unchecked
+        return (Converter<F, V>) CompositeConverter.andThen(
+                (Converter<Object, Object>) this,
+                (Converter<Object, Object>) aInAfter);
+    }
+
+    /**
+     * Returns a converter that converts with another converter and then
+     * with this one.
+     *
+     * @param aInBefore the converter whose results are given to this one
+     * @param <V> the type converted from by the result
+     * @return the composed converter
+     * @see #andThen(Converter)
+     */
+    default <V> Converter<V, T> compose(
+            Converter<? super V, ? extends F> aInBefore) {
+        //noinspection unchecked
+        return (Converter<V, T>) CompositeConverter.andThen(
+                (Converter<Object, Object>) aInBefore,
+                (Converter<Object, Object>) this);
+    }
+
+    /**
+     * Returns a single converter that does what converting with this
+     * converter and then with the given one does, for every value null
+     * included, if this converter knows how to build one. Used by
+     * {@link #andThen} and {@link #compose}.
+     *
+     * @param aInNext the converter applied after this one
+     * @param <V> the type converted to by the result
+     * @return the fused converter, or null (the default) if the two can't be
+     * fused
+     */
+    default <V> Converter<F, V> fuseWith(
+            Converter<? super T, ? extends V> aInNext) {
+        return null;
+    }
+
+    /**
+     * Returns a converter that converts null to null and other values with
+     * the given converter. Guarding a converter that is already guarded, or
+     * composing guarded converters, does not add guards.
+     *
+     * @param aInConverter the converter to guard
+     * @param <F> the type converted from
+     * @param <T> the type converted to
+     * @return the guarded converter
+     */
     static <F, T> Converter<F, T> nullConverter(Converter<F, T> aInConverter) {
-        return aInFrom ->
-                aInFrom == null ? null : aInConverter.convert(aInFrom);
+        //noinspection unchecked
+        return (Converter<F, T>) CompositeConverter.nullSafe(
+                (Converter<Object, Object>) aInConverter);
     }
 
+    /**
+     * Returns the identity converter. The same instance is always returned.
+     *
+     * @param <T> the type being converted
+     * @return the identity converter
+     */
     static <T> Converter<T, T> identityConverter() {
-        return aInFrom -> aInFrom;
+        //noinspection unchecked
+        return (Converter<T, T>) IdentityConverter.INSTANCE;
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * File: IdentityConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+/**
+ * The converter returned by {@link Converter#identityConverter()}. There's a
+ * single instance of this, so callers can tell an identity conversion apart
+ * from others by reference.
+ */
+final class IdentityConverter implements Converter<Object, Object> {
+    static final IdentityConverter INSTANCE = new IdentityConverter();
+
+    /**
+     * Private constructor. Use {@link #INSTANCE}.
+     */
+    private IdentityConverter() {
+    }
+
+    @Override
+    public Object convert(Object aInFrom) {
+        return aInFrom;
+    }
+
+    @Override
+    public boolean isIdentity() {
+        return true;
+    }
+}
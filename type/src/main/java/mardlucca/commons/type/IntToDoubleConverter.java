@@ -0,0 +1,57 @@
+/*
+ * File: IntToDoubleConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+import java.util.Objects;
+
+/**
+ * A converter from int values to double values, which never boxes either.
+ *
+ * @see Converter
+ */
+@FunctionalInterface
+public interface IntToDoubleConverter {
+    /**
+     * @param aInFrom the value to convert
+     * @return the converted value
+     */
+    double convertIntToDouble(int aInFrom);
+
+    /**
+     * Converts a range of elements of an array into a range of another
+     * array.
+     *
+     * @param aInFrom the array with the elements to convert
+     * @param aInFromOffset index of the first element to convert
+     * @param aInTo the array where converted elements are stored
+     * @param aInToOffset index where the first converted element is stored
+     * @param aInLength the number of elements to convert
+     * @throws IndexOutOfBoundsException if either range is out of the bounds
+     * of its array
+     */
+    default void convertAll(int[] aInFrom, int aInFromOffset,
+                            double[] aInTo, int aInToOffset, int aInLength) {
+        Objects.checkFromIndexSize(aInFromOffset, aInLength, aInFrom.length);
+        Objects.checkFromIndexSize(aInToOffset, aInLength, aInTo.length);
+        for (int i = 0; i < aInLength; i++) {
+            aInTo[aInToOffset + i] =
+                    convertIntToDouble(aInFrom[aInFromOffset + i]);
+        }
+    }
+}
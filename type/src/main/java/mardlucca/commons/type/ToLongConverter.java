@@ -0,0 +1,38 @@
+/*
+ * File: ToLongConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+/**
+ * A converter to long values, which returns the primitive rather than its
+ * wrapper. Converters that implement this as well as {@link Converter}
+ * let callers that store primitives, e.g. in long arrays, skip boxing.
+ *
+ * @param <F> the type converted from
+ * @see Converter
+ */
+@FunctionalInterface
+public interface ToLongConverter<F> {
+    /**
+     * @param aInFrom the value to convert
+     * @return the converted value
+     * @throws NullPointerException if the value is null and can't be
+     * converted to a primitive
+     */
+    long convertToLong(F aInFrom);
+}
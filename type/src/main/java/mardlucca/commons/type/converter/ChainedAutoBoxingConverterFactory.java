@@ -24,6 +24,8 @@ import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverte
 import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
 
 import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class ChainedAutoBoxingConverterFactory
         implements ChainedConverterFactory {
@@ -39,4 +41,14 @@ public class ChainedAutoBoxingConverterFactory
 
         return aInChain.invokeNext(aInFrom, aInTo);
     }
+
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.PRIMITIVE);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.PRIMITIVE);
+    }
 }
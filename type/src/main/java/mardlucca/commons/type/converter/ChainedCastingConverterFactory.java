@@ -35,7 +35,8 @@ public class ChainedCastingConverterFactory
     public <F, T> Converter<F, T> getConverter(
             Type aInFrom, Type aInTo, FactoryChain aInChain) {
         if (TypeUtils.isAssignable(aInFrom, aInTo)) {
-            return aInObject -> (T) aInObject;
+            // values are assigned as they are, so there is nothing to convert
+            return (Converter<F, T>) Converter.identityConverter();
         }
 
         return aInChain.invokeNext(aInFrom, aInTo);
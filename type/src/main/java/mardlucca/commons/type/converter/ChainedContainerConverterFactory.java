@@ -24,14 +24,12 @@ import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverte
 import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
 import mardlucca.commons.type.converter.ContainerConverter.ArrayContainerHandler;
 import mardlucca.commons.type.converter.ContainerConverter.CollectionContainerHandler;
-import mardlucca.commons.type.converter.ContainerConverter.ContainerFactory;
 import mardlucca.commons.type.converter.ContainerConverter.ContainerHandler;
 
-import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
@@ -39,6 +37,67 @@ import java.util.Set;
  */
 public class ChainedContainerConverterFactory
         implements ChainedConverterFactory {
+    private ParallelConversion parallelism;
+    private CollectionFactories collectionFactories;
+    private IdentityPolicy identityPolicy;
+
+    /**
+     * Creates a factory whose converters always convert sequentially.
+     */
+    public ChainedContainerConverterFactory() {
+        this(null, new CollectionFactories());
+    }
+
+    /**
+     * Creates a factory whose converters convert large containers in
+     * parallel. Arrays of primitives that are copied without boxing are
+     * always converted sequentially.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     */
+    public ChainedContainerConverterFactory(
+            ParallelConversion aInParallelism) {
+        this(aInParallelism, new CollectionFactories());
+    }
+
+    /**
+     * Creates a factory whose converters create the target collections with
+     * the given factories. Target collections with no factory are not
+     * converted to.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     * @param aInCollectionFactories the factories of the target collections
+     */
+    public ChainedContainerConverterFactory(
+            ParallelConversion aInParallelism,
+            CollectionFactories aInCollectionFactories) {
+        this(aInParallelism, aInCollectionFactories, IdentityPolicy.COPY);
+    }
+
+    /**
+     * Creates a factory whose converters create the target collections with
+     * the given factories, unless the elements need no conversion and the
+     * given policy says otherwise. By default, such source containers are
+     * copied as well. Targets whose class was {@link
+     * CollectionFactories#register registered} with a factory are always
+     * created with it, whatever the policy.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     * @param aInCollectionFactories the factories of the target collections
+     * @param aInIdentityPolicy what to do when the elements need no
+     *                          conversion
+     */
+    public ChainedContainerConverterFactory(
+            ParallelConversion aInParallelism,
+            CollectionFactories aInCollectionFactories,
+            IdentityPolicy aInIdentityPolicy) {
+        parallelism = aInParallelism;
+        collectionFactories = aInCollectionFactories;
+        identityPolicy = aInIdentityPolicy;
+    }
 
     @Override
     public <F, T> Converter<F, T> getConverter(
@@ -50,8 +109,8 @@ public class ChainedContainerConverterFactory
 
         if (TypeUtils.isArrayType(aInFrom)) {
             lFromElementType = TypeUtils.getArrayComponentType(aInFrom);
-            lFromHandler = new ArrayContainerHandler(
-                    (Class<?>) lFromElementType);
+            lFromHandler = ArrayContainerHandler.forComponentType(
+                    getComponentClass(lFromElementType));
         } else if (TypeUtils.isCollection(aInFrom)) {
             lFromElementType = TypeUtils.getCollectionElementType(aInFrom);
             // don't need a container factory in the "from" side as we are not
@@ -62,11 +121,15 @@ public class ChainedContainerConverterFactory
         if (lFromHandler != null) {
             if (TypeUtils.isArrayType(aInTo)) {
                 lToElementType = TypeUtils.getArrayComponentType(aInTo);
-                lToHander = new ArrayContainerHandler(
-                        (Class<?>) lToElementType);
-            } else if (TypeUtils.isCollection(aInFrom)) {
-                lToElementType = TypeUtils.getCollectionElementType(aInTo);
-                lToHander = new CollectionContainerHandler(getFactory(aInTo));
+                lToHander = ArrayContainerHandler.forComponentType(
+                        getComponentClass(lToElementType));
+            } else if (TypeUtils.isCollection(aInTo)) {
+                CollectionFactory lFactory = collectionFactories.get(aInTo);
+                if (lFactory != null) {
+                    lToElementType =
+                            TypeUtils.getCollectionElementType(aInTo);
+                    lToHander = new CollectionContainerHandler(lFactory);
+                }
             }
         }
 
@@ -74,28 +137,79 @@ public class ChainedContainerConverterFactory
             Converter<Object, Object> lElementConverter =
                     aInChain.invokeFirst(lFromElementType, lToElementType);
             if (lElementConverter != null) {
+                if (lElementConverter.isIdentity()
+                        && !collectionFactories.isCustomized(aInTo)) {
+                    Converter<Object, Object> lUncopied =
+                            identityPolicy.getConverter(
+                                    TypeUtils.getRawClass(aInFrom),
+                                    TypeUtils.getRawClass(aInTo));
+                    if (lUncopied != null) {
+                        return (Converter<F, T>) lUncopied;
+                    }
+                }
+                Converter<Object, Object> lPrimitiveArrayConverter =
+                        getPrimitiveArrayConverter(lFromElementType,
+                                lToElementType, lElementConverter);
+                if (lPrimitiveArrayConverter != null) {
+                    return (Converter<F, T>) lPrimitiveArrayConverter;
+                }
                 return (Converter<F, T>) new ContainerConverter(
-                        lFromHandler, lToHander, lElementConverter);
+                        lFromHandler, lToHander, lElementConverter,
+                        parallelism);
             }
         }
 
         return aInChain.invokeNext(aInFrom, aInTo);
     }
 
-    private ContainerFactory getFactory(Type aInType) {
-        ParameterizedType lType = (ParameterizedType) aInType;
-        Class<?> lClass = (Class<?>) lType.getRawType();
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.ARRAY, TypeKind.COLLECTION);
+    }
 
-        // TODO: In the future will need to allow for the customization of what
-        // data structure implementation to use.
-        if (Set.class.isAssignableFrom(lClass)) {
-            return aInSize -> new HashSet<>();
-        }
-        if (Collection.class.isAssignableFrom(lClass)) {
-            return ArrayList::new;
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.ARRAY, TypeKind.COLLECTION);
+    }
+
+    /**
+     * Returns a converter that copies arrays of primitives without boxing
+     * their elements, if the given element types are primitive and the
+     * element converter resolved by the chain is a plain primitive conversion.
+     */
+    private static Converter<Object, Object> getPrimitiveArrayConverter(
+            Type aInFromElementType, Type aInToElementType,
+            Converter<Object, Object> aInElementConverter) {
+        if (!(aInFromElementType instanceof Class)
+                || !((Class<?>) aInFromElementType).isPrimitive()
+                || !(aInToElementType instanceof Class)
+                || !((Class<?>) aInToElementType).isPrimitive()) {
+            return null;
         }
 
-        // This should never happen
+        if (aInElementConverter.isIdentity()
+                || aInElementConverter instanceof PrimitiveConverter) {
+            return PrimitiveArrayConverters.get(
+                    (Class<?>) aInFromElementType,
+                    (Class<?>) aInToElementType);
+        }
         return null;
     }
+
+    /**
+     * The class of the elements of arrays with a given component type, which
+     * is Object for type variables and wildcards.
+     */
+    private static Class<?> getComponentClass(Type aInType) {
+        Class<?> lClass = TypeUtils.getRawClass(aInType);
+        if (lClass != null) {
+            return lClass;
+        }
+        if (aInType instanceof GenericArrayType) {
+            // arrays of type variables, e.g. T[]
+            return Array.newInstance(getComponentClass(((GenericArrayType)
+                    aInType).getGenericComponentType()), 0).getClass();
+        }
+        return Object.class;
+    }
 }
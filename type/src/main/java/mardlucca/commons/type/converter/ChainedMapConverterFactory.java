@@ -24,17 +24,80 @@ import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverte
 import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
 
 import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Created by mlucca on 1/24/17.
  */
 public class ChainedMapConverterFactory
         implements ChainedConverterFactory {
+    private ParallelConversion parallelism;
+    private MapFactories mapFactories;
+    private IdentityPolicy identityPolicy;
+
+    /**
+     * Creates a factory whose converters always convert sequentially.
+     */
+    public ChainedMapConverterFactory() {
+        this(null, new MapFactories());
+    }
+
+    /**
+     * Creates a factory whose converters convert large maps in parallel.
+     * Target maps that are concurrent are filled in concurrently as well.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     */
+    public ChainedMapConverterFactory(ParallelConversion aInParallelism) {
+        this(aInParallelism, new MapFactories());
+    }
+
+    /**
+     * Creates a factory whose converters create the target maps with the
+     * given factories. Target maps with no factory are not converted to.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     * @param aInMapFactories the factories of the target maps
+     */
+    public ChainedMapConverterFactory(ParallelConversion aInParallelism,
+                                      MapFactories aInMapFactories) {
+        this(aInParallelism, aInMapFactories, IdentityPolicy.COPY);
+    }
+
+    /**
+     * Creates a factory whose converters create the target maps with the
+     * given factories, unless keys and values need no conversion and the
+     * given policy says otherwise. By default, such source maps are copied
+     * as well. Targets whose class was {@link MapFactories#register
+     * registered} with a factory are always created with it, whatever the
+     * policy.
+     *
+     * @param aInParallelism settings for parallel conversions, or null to
+     *                       always convert sequentially
+     * @param aInMapFactories the factories of the target maps
+     * @param aInIdentityPolicy what to do when keys and values need no
+     *                          conversion
+     */
+    public ChainedMapConverterFactory(ParallelConversion aInParallelism,
+                                      MapFactories aInMapFactories,
+                                      IdentityPolicy aInIdentityPolicy) {
+        parallelism = aInParallelism;
+        mapFactories = aInMapFactories;
+        identityPolicy = aInIdentityPolicy;
+    }
+
     @Override
     public <F, T> Converter<F, T> getConverter(
             Type aInFrom, Type aInTo, FactoryChain aInChain) {
 
-        if (TypeUtils.isMap(aInFrom) && TypeUtils.isMap(aInTo)) {
+        MapFactory lMapFactory = TypeUtils.isMap(aInFrom)
+                        && TypeUtils.isMap(aInTo)
+                ? mapFactories.get(aInTo)
+                : null;
+        if (lMapFactory != null) {
             Type[] aInFromTypes = TypeUtils.getMapKeyValueTypes(aInFrom);
             Type[] aInToTypes = TypeUtils.getMapKeyValueTypes(aInTo);
 
@@ -44,10 +107,33 @@ public class ChainedMapConverterFactory
                     aInFromTypes[1], aInToTypes[1]);
 
             if (lKeyConverter != null && lValueConverter != null) {
-                return new MapConverter<>(lKeyConverter, lValueConverter);
+                if (lKeyConverter.isIdentity()
+                        && lValueConverter.isIdentity()
+                        && !mapFactories.isCustomized(aInTo)) {
+                    Converter<Object, Object> lUncopied =
+                            identityPolicy.getConverter(
+                                    TypeUtils.getRawClass(aInFrom),
+                                    TypeUtils.getRawClass(aInTo));
+                    if (lUncopied != null) {
+                        //noinspection unchecked
+                        return (Converter<F, T>) lUncopied;
+                    }
+                }
+                return new MapConverter<>(lKeyConverter, lValueConverter,
+                        lMapFactory, parallelism);
             }
         }
 
         return aInChain.invokeNext(aInFrom, aInTo);
     }
+
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.MAP);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.MAP);
+    }
 }
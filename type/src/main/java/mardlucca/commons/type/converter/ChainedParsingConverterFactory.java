@@ -0,0 +1,155 @@
+/*
+ * File: ChainedParsingConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.ParseUtils;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ToDoubleConverter;
+import mardlucca.commons.type.ToIntConverter;
+import mardlucca.commons.type.ToLongConverter;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
+
+import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Converts strings, and any other {@link CharSequence}, to primitive types
+ * and their wrappers with the parsers in {@link ParseUtils}, which read the
+ * sequence in place rather than calling {@link Object#toString()} on it.
+ * Null values are converted to null.
+ * <p>
+ * The converters to int, long and double also implement
+ * {@link ToIntConverter}, {@link ToLongConverter} and
+ * {@link ToDoubleConverter}, so e.g. arrays of strings are converted to
+ * arrays of int without boxing the parsed values.
+ *
+ * @see ParseUtils for the formats accepted
+ */
+public class ChainedParsingConverterFactory
+        implements ChainedConverterFactory {
+    @Override
+    public <F, T> Converter<F, T> getConverter(
+            Type aInFrom, Type aInTo, FactoryChain aInChain) {
+        if (aInFrom instanceof Class
+                && CharSequence.class.isAssignableFrom((Class<?>) aInFrom)) {
+            Converter<CharSequence, ?> lConverter = getParser(aInTo);
+            if (lConverter != null) {
+                //noinspection unchecked
+                return (Converter<F, T>) lConverter;
+            }
+        }
+        return aInChain.invokeNext(aInFrom, aInTo);
+    }
+
+    /**
+     * Other character sequences, e.g. {@link StringBuilder}, are of kind
+     * {@link TypeKind#OTHER}.
+     */
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.STRING, TypeKind.OTHER);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.PRIMITIVE);
+    }
+
+    private static Converter<CharSequence, ?> getParser(Type aInTo) {
+        if (int.class == aInTo || Integer.class == aInTo) {
+            return new IntParser();
+        }
+        if (long.class == aInTo || Long.class == aInTo) {
+            return new LongParser();
+        }
+        if (double.class == aInTo || Double.class == aInTo) {
+            return new DoubleParser();
+        }
+        if (boolean.class == aInTo || Boolean.class == aInTo) {
+            return nullSafe(aInFrom ->
+                    ParseUtils.parseBoolean(aInFrom, 0, aInFrom.length()));
+        }
+        if (byte.class == aInTo || Byte.class == aInTo) {
+            return nullSafe(aInFrom ->
+                    ParseUtils.parseByte(aInFrom, 0, aInFrom.length()));
+        }
+        if (char.class == aInTo || Character.class == aInTo) {
+            return nullSafe(aInFrom ->
+                    ParseUtils.parseChar(aInFrom, 0, aInFrom.length()));
+        }
+        if (float.class == aInTo || Float.class == aInTo) {
+            return nullSafe(aInFrom ->
+                    ParseUtils.parseFloat(aInFrom, 0, aInFrom.length()));
+        }
+        if (short.class == aInTo || Short.class == aInTo) {
+            return nullSafe(aInFrom ->
+                    ParseUtils.parseShort(aInFrom, 0, aInFrom.length()));
+        }
+        return null;
+    }
+
+    private static <T> Converter<CharSequence, T> nullSafe(
+            Converter<CharSequence, T> aInConverter) {
+        return Converter.nullConverter(aInConverter);
+    }
+
+    private static final class IntParser
+            implements Converter<CharSequence, Integer>,
+            ToIntConverter<CharSequence> {
+        @Override
+        public Integer convert(CharSequence aInFrom) {
+            return aInFrom == null ? null : convertToInt(aInFrom);
+        }
+
+        @Override
+        public int convertToInt(CharSequence aInFrom) {
+            return ParseUtils.parseInt(aInFrom, 0, aInFrom.length());
+        }
+    }
+
+    private static final class LongParser
+            implements Converter<CharSequence, Long>,
+            ToLongConverter<CharSequence> {
+        @Override
+        public Long convert(CharSequence aInFrom) {
+            return aInFrom == null ? null : convertToLong(aInFrom);
+        }
+
+        @Override
+        public long convertToLong(CharSequence aInFrom) {
+            return ParseUtils.parseLong(aInFrom, 0, aInFrom.length());
+        }
+    }
+
+    private static final class DoubleParser
+            implements Converter<CharSequence, Double>,
+            ToDoubleConverter<CharSequence> {
+        @Override
+        public Double convert(CharSequence aInFrom) {
+            return aInFrom == null ? null : convertToDouble(aInFrom);
+        }
+
+        @Override
+        public double convertToDouble(CharSequence aInFrom) {
+            return ParseUtils.parseDouble(aInFrom, 0, aInFrom.length());
+        }
+    }
+}
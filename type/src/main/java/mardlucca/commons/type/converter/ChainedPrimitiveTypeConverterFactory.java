@@ -21,10 +21,16 @@ package mardlucca.commons.type.converter;
 import mardlucca.commons.type.Converter;
 import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
 import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
+import mardlucca.commons.type.converter.PrimitiveConverter.IntToDouble;
+import mardlucca.commons.type.converter.PrimitiveConverter.IntToLong;
+import mardlucca.commons.type.converter.PrimitiveConverter.LongToDouble;
+import mardlucca.commons.type.converter.PrimitiveConverter.ToDouble;
+import mardlucca.commons.type.converter.PrimitiveConverter.ToInt;
+import mardlucca.commons.type.converter.PrimitiveConverter.ToLong;
 
 import java.lang.reflect.Type;
-
-import static mardlucca.commons.type.Converter.nullConverter;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Cannot convert form char to anything other than char. Cannot convert from
@@ -44,7 +50,21 @@ public class ChainedPrimitiveTypeConverterFactory
                 : lNumericConverter;
     }
 
-    private static <F, T> Converter<F, T> getNumericConverter(
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.PRIMITIVE);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.PRIMITIVE);
+    }
+
+    /**
+     * Returns the widening converter between two primitive types (or their
+     * wrappers), or null if Java doesn't widen the one to the other.
+     */
+    static <F, T> Converter<F, T> getNumericConverter(
             Type aInFrom, Type aInTo) {
         if (byte.class == aInFrom || Byte.class == aInFrom) {
             return (Converter<F, T>) getByteConverter(aInTo);
@@ -69,79 +89,87 @@ public class ChainedPrimitiveTypeConverterFactory
 
     private static Converter<Byte, ?> getByteConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(Byte::doubleValue);
+            return new ToDouble<>(byte.class, Byte::doubleValue);
         }
         if (float.class == aInTo || Float.class == aInTo) {
-            return nullConverter(Byte::floatValue);
+            return primitive(byte.class, float.class, Byte::floatValue);
         }
         if (int.class == aInTo || Integer.class == aInTo) {
-            return nullConverter(Byte::intValue);
+            return new ToInt<>(byte.class, Byte::intValue);
         }
         if (long.class == aInTo || Long.class == aInTo) {
-            return nullConverter(Byte::longValue);
+            return new ToLong<>(byte.class, Byte::longValue);
         }
         if (short.class == aInTo || Short.class == aInTo) {
-            return nullConverter(Byte::shortValue);
+            return primitive(byte.class, short.class, Byte::shortValue);
         }
         return null;
     }
 
     private static Converter<Character, ?> getCharacterConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(aInFrom -> (double) aInFrom);
+            return new ToDouble<Character>(char.class,
+                    aInFrom -> (double) aInFrom);
         }
         if (float.class == aInTo || Float.class == aInTo) {
-            return nullConverter(aInFrom -> (float) aInFrom);
+            return primitive(char.class, float.class,
+                    aInFrom -> (float) aInFrom);
         }
         if (int.class == aInTo || Integer.class == aInTo) {
-            return nullConverter(aInFrom -> (int) aInFrom);
+            return new ToInt<Character>(char.class,
+                    aInFrom -> (int) aInFrom);
         }
         return null;
     }
 
     private static Converter<Float, ?> getFloatConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(Float::doubleValue);
+            return new ToDouble<>(float.class, Float::doubleValue);
         }
         return null;
     }
 
     private static Converter<Integer, ?> getIntegerConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(Integer::doubleValue);
+            return new IntToDouble();
         }
         if (float.class == aInTo || Float.class == aInTo) {
-            return nullConverter(Integer::floatValue);
+            return primitive(int.class, float.class, Integer::floatValue);
         }
         if (long.class == aInTo || Long.class == aInTo) {
-            return nullConverter(Integer::longValue);
+            return new IntToLong();
         }
         return null;
     }
 
     private static Converter<Long, ?> getLongConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(Long::doubleValue);
+            return new LongToDouble();
         }
         if (float.class == aInTo || Float.class == aInTo) {
-            return nullConverter(Long::floatValue);
+            return primitive(long.class, float.class, Long::floatValue);
         }
         return null;
     }
 
     private static Converter<Short, ?> getShortConverter(Type aInTo) {
         if (double.class == aInTo || Double.class == aInTo) {
-            return nullConverter(Short::doubleValue);
+            return new ToDouble<>(short.class, Short::doubleValue);
         }
         if (float.class == aInTo || Float.class == aInTo) {
-            return nullConverter(Short::floatValue);
+            return primitive(short.class, float.class, Short::floatValue);
         }
         if (int.class == aInTo || Integer.class == aInTo) {
-            return nullConverter(Short::intValue);
+            return new ToInt<>(short.class, Short::intValue);
         }
         if (long.class == aInTo || Long.class == aInTo) {
-            return nullConverter(Short::longValue);
+            return new ToLong<>(short.class, Short::longValue);
         }
         return null;
     }
+
+    private static <F, T> Converter<F, T> primitive(
+            Class<?> aInFrom, Class<?> aInTo, Converter<F, T> aInConverter) {
+        return new PrimitiveConverter<>(aInFrom, aInTo, aInConverter);
+    }
 }
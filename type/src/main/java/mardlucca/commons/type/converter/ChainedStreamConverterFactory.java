@@ -0,0 +1,130 @@
+/*
+ * File: ChainedStreamConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
+import mardlucca.commons.type.converter.StreamingConverter.Kind;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+/**
+ * Lazily converts iterators, iterables, spliterators and streams into one
+ * another, converting their elements with the chain. Any subtype of those is
+ * accepted as a source, but only the interfaces themselves are accepted as
+ * targets. Conversions into collections are left to
+ * {@link ChainedContainerConverterFactory}.
+ */
+public class ChainedStreamConverterFactory implements ChainedConverterFactory {
+    @Override
+    public <F, T> Converter<F, T> getConverter(
+            Type aInFrom, Type aInTo, FactoryChain aInChain) {
+        Kind lFromKind = getSourceKind(aInFrom);
+        Kind lToKind = lFromKind == null ? null : getTargetKind(aInTo);
+
+        if (lToKind != null) {
+            Converter<Object, Object> lElementConverter = aInChain.invokeFirst(
+                    getElementType(aInFrom, lFromKind),
+                    getElementType(aInTo, lToKind));
+            if (lElementConverter != null) {
+                return (Converter<F, T>) new StreamingConverter(
+                        lFromKind, lToKind, lElementConverter);
+            }
+        }
+
+        return aInChain.invokeNext(aInFrom, aInTo);
+    }
+
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.COLLECTION, TypeKind.OTHER);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.OTHER);
+    }
+
+    private static Kind getSourceKind(Type aInType) {
+        if (TypeUtils.isStream(aInType)) {
+            return Kind.STREAM;
+        }
+        if (TypeUtils.isSpliterator(aInType)) {
+            return Kind.SPLITERATOR;
+        }
+        if (TypeUtils.isIterator(aInType)) {
+            return Kind.ITERATOR;
+        }
+        if (TypeUtils.isIterable(aInType)) {
+            return Kind.ITERABLE;
+        }
+        return null;
+    }
+
+    private static Kind getTargetKind(Type aInType) {
+        Type lRawType = aInType instanceof ParameterizedType
+                ? ((ParameterizedType) aInType).getRawType()
+                : aInType;
+        if (lRawType == Stream.class) {
+            return Kind.STREAM;
+        }
+        if (lRawType == Spliterator.class) {
+            return Kind.SPLITERATOR;
+        }
+        if (lRawType == Iterator.class) {
+            return Kind.ITERATOR;
+        }
+        if (lRawType == Iterable.class) {
+            return Kind.ITERABLE;
+        }
+        return null;
+    }
+
+    private static Type getElementType(Type aInType, Kind aInKind) {
+        // sources may be subtypes that bind the element type themselves, e.g.
+        // class IdList extends ArrayList<Long>
+        Type[] lArguments = TypeUtils.getTypeArguments(
+                aInType, getRawClass(aInKind));
+        return lArguments != null
+                ? lArguments[0]
+                // raw type
+                : Object.class;
+    }
+
+    private static Class<?> getRawClass(Kind aInKind) {
+        switch (aInKind) {
+            case STREAM:
+                return Stream.class;
+            case SPLITERATOR:
+                return Spliterator.class;
+            case ITERATOR:
+                return Iterator.class;
+            default:
+                return Iterable.class;
+        }
+    }
+}
@@ -18,20 +18,36 @@
 
 package mardlucca.commons.type.converter;
 
+import mardlucca.commons.type.AppendingConverter;
 import mardlucca.commons.type.Converter;
 import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
 import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
 
 import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
 
+/**
+ * Converts anything to a string with its {@link Object#toString()}. The
+ * converters returned are {@link AppendingConverter}s, which can also write
+ * the text of values straight into a buffer: primitives are formatted
+ * without creating strings, and collections and maps stream their elements
+ * into the buffer.
+ */
 public class ChainedToStringConverterFactory
         implements ChainedConverterFactory {
     @Override
     public <F, T> Converter<F, T> getConverter(
             Type aInFrom, Type aInTo, FactoryChain aInChain) {
         if (String.class.equals(aInTo)) {
-            return aInFromObject -> (T) aInFromObject.toString();
+            //noinspection unchecked
+            return (Converter<F, T>) FormattingConverter.INSTANCE;
         }
         return aInChain.invokeNext(aInFrom, aInTo);
     }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.STRING);
+    }
 }
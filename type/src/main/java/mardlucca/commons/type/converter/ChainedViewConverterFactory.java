@@ -0,0 +1,107 @@
+/*
+ * File: ChainedViewConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts lists and maps into lazy, read-only views of them rather than into
+ * copies. Only targets that a view can be assigned to are handled, that is,
+ * {@link List}, {@link Collection}, {@link Iterable} and {@link Map}. Maps are
+ * only converted into views if their keys are not converted, or if they are
+ * converted by an {@link Converter#isInjective() injective} converter and
+ * the chain can also convert keys back into the source key type, as lookups
+ * need to map keys back into the source map.
+ * <p>
+ * Views are opt-in: add this factory to a chain ahead of
+ * {@link ChainedContainerConverterFactory} and
+ * {@link ChainedMapConverterFactory} to get views where possible and copies
+ * otherwise.
+ */
+public class ChainedViewConverterFactory implements ChainedConverterFactory {
+    @Override
+    public <F, T> Converter<F, T> getConverter(
+            Type aInFrom, Type aInTo, FactoryChain aInChain) {
+        Class<?> lFromClass = TypeUtils.getRawClass(aInFrom);
+        Class<?> lToClass = TypeUtils.getRawClass(aInTo);
+
+        if (lFromClass != null && List.class.isAssignableFrom(lFromClass)
+                && (lToClass == List.class || lToClass == Collection.class
+                        || lToClass == Iterable.class)) {
+            Converter<Object, Object> lElementConverter = aInChain.invokeFirst(
+                    TypeUtils.getCollectionElementType(aInFrom),
+                    getElementType(aInTo));
+            if (lElementConverter != null) {
+                return (Converter<F, T>)
+                        new ListViewConverter<>(lElementConverter);
+            }
+        } else if (TypeUtils.isMap(aInFrom) && lToClass == Map.class) {
+            Type[] lFromTypes = TypeUtils.getMapKeyValueTypes(aInFrom);
+            Type[] lToTypes = TypeUtils.getMapKeyValueTypes(aInTo);
+
+            Converter<Object, Object> lKeyConverter =
+                    aInChain.invokeFirst(lFromTypes[0], lToTypes[0]);
+            Converter<Object, Object> lInverseKeyConverter =
+                    aInChain.invokeFirst(lToTypes[0], lFromTypes[0]);
+            Converter<Object, Object> lValueConverter =
+                    aInChain.invokeFirst(lFromTypes[1], lToTypes[1]);
+
+            // keys converted by converters that are not injective, e.g. 1
+            // and "1" to String, would be seen twice by a view
+            if (lKeyConverter != null && lKeyConverter.isInjective()
+                    && lInverseKeyConverter != null
+                    && lValueConverter != null) {
+                return (Converter<F, T>) new MapViewConverter<>(
+                        lKeyConverter, lInverseKeyConverter, lValueConverter);
+            }
+        }
+
+        return aInChain.invokeNext(aInFrom, aInTo);
+    }
+
+    @Override
+    public Set<TypeKind> getSourceKinds() {
+        return EnumSet.of(TypeKind.COLLECTION, TypeKind.MAP);
+    }
+
+    @Override
+    public Set<TypeKind> getTargetKinds() {
+        return EnumSet.of(TypeKind.COLLECTION, TypeKind.MAP,
+                TypeKind.OTHER);
+    }
+
+    private static Type getElementType(Type aInType) {
+        if (aInType instanceof ParameterizedType) {
+            return ((ParameterizedType) aInType).getActualTypeArguments()[0];
+        }
+        // raw type
+        return Object.class;
+    }
+}
@@ -21,24 +21,226 @@ package mardlucca.commons.type.converter;
 import mardlucca.commons.type.Converter;
 import mardlucca.commons.type.ConverterFactory;
 
+import mardlucca.commons.type.converter.ConversionPlan.Entry;
+import mardlucca.commons.type.converter.ConversionPlan.Pair;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 /**
+ * Converter factory that resolves converters by walking a list of
+ * {@link ChainedConverterFactory chained factories}. Resolved converters, as
+ * well as the absence of a converter for a given pair of types, are cached so
+ * the chain is only walked once for each (from, to) pair. For that reason,
+ * {@link #getFactories()} is expected to always return the same factories.
+ * <p>
+ * Factories declare the {@link TypeKind kinds} of types they convert from and
+ * to, and only the factories that declare the kinds of a given pair are
+ * asked to convert it. Which factories those are is indexed the first time a
+ * converter is resolved. Walking the chain allocates nothing, and nested
+ * resolutions don't interfere with the resolutions they are part of.
+ * <p>
+ * Once {@link #recordPlan() asked to}, the factory remembers how each pair
+ * was resolved, i.e. which chained factory built its converter and which
+ * pairs that factory resolved in turn. That plan can be
+ * {@link #savePlan(OutputStream) saved} and {@link #loadPlan(InputStream)
+ * loaded} on the next start, which builds the converters it lists by asking
+ * the factories that built them last time, without walking the chain.
+ * <p>
+ * Resolutions are recorded as flight recorder events when the
+ * {@code mardlucca.commons.type.ConverterResolution} event is enabled.
+ *
  * Created by mlucca on 1/17/17.
  */
 public abstract class ChainingConverterFactory
         implements ConverterFactory {
+    private static final int KIND_COUNT = TypeKind.values().length;
+
+    /**
+     * The resolution in progress on each thread, if any.
+     */
+    private static final ThreadLocal<Resolution> RESOLUTION =
+            new ThreadLocal<>();
+
+    private final ConverterCache cache = new ConverterCache(this::resolve);
+
+    private volatile Dispatch dispatch;
+
+    /**
+     * How each pair was resolved, in the order resolutions finished, so the
+     * pairs a converter was built from come before it.
+     */
+    private final Queue<Entry> plan = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The pairs in the plan, or null if the plan is not recorded.
+     */
+    private volatile Set<Pair> plannedPairs;
 
     public abstract List<ChainedConverterFactory> getFactories();
 
     @Override
     public <F, T> Converter<F, T> getConverter(Type aInFrom, Type aInTo) {
-        FactoryChain lChain = new ChainImpl();
-        return lChain.invokeFirst(aInFrom, aInTo);
+        return cache.get(aInFrom, aInTo);
+    }
+
+    /**
+     * Starts recording how pairs are resolved, so the plan can be saved.
+     * Pairs resolved before are not recorded, so this is meant to be called
+     * before any converter is requested. Each pair is recorded once.
+     */
+    public synchronized void recordPlan() {
+        if (plannedPairs == null) {
+            plannedPairs = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Writes how the pairs requested since {@link #recordPlan()} was called
+     * were resolved. Pairs with type variables are left out, as they can't
+     * be written.
+     *
+     * @param aInOutput where to write the plan to; it is not closed
+     * @throws IOException if writing fails
+     * @throws IllegalStateException if the plan is not being recorded
+     */
+    public void savePlan(OutputStream aInOutput) throws IOException {
+        if (plannedPairs == null) {
+            throw new IllegalStateException("plan is not being recorded");
+        }
+        ConversionPlan.write(getFactories(), plan, aInOutput);
+    }
+
+    /**
+     * Builds the converters of a plan written by {@link #savePlan}, asking
+     * the factories that built them before instead of walking the chain.
+     * Plans written for other factories are ignored, and so are the pairs
+     * whose classes no longer exist or whose factory no longer builds their
+     * converter; those pairs are resolved as usual when requested. Loaded
+     * pairs are recorded if the plan is being recorded.
+     *
+     * @param aInInput where to read the plan from; it is not closed
+     * @return the number of pairs loaded
+     * @throws IOException if reading fails or the input is not a plan
+     */
+    public int loadPlan(InputStream aInInput) throws IOException {
+        ClassLoader lClassLoader =
+                Thread.currentThread().getContextClassLoader();
+        List<Entry> lEntries = ConversionPlan.read(getFactories(), aInInput,
+                lClassLoader == null
+                        ? ChainingConverterFactory.class.getClassLoader()
+                        : lClassLoader);
+        if (lEntries == null) {
+            return 0;
+        }
+
+        int lLoaded = 0;
+        for (Entry lEntry : lEntries) {
+            Type lFrom = lEntry.pair.from;
+            Type lTo = lEntry.pair.to;
+            if (cache.contains(lFrom, lTo)) {
+                continue;
+            }
+
+            if (lEntry.factory < 0) {
+                record(lEntry);
+                cache.putIfAbsent(lFrom, lTo, null);
+            } else {
+                Resolution lResolution =
+                        resolveAfter(lEntry.factory - 1, lFrom, lTo);
+                // the factories after the planned one are not asked, as
+                // the factories before it may convert the pair now
+                if (lResolution.converter == null
+                        || lResolution.position != lEntry.factory) {
+                    continue;
+                }
+                record(lEntry.pair, lResolution);
+                cache.putIfAbsent(lFrom, lTo, lResolution.converter);
+            }
+            lLoaded++;
+        }
+        return lLoaded;
+    }
+
+    private <F, T> Converter<F, T> resolve(Type aInFrom, Type aInTo) {
+        Resolution lResolution = resolveAfter(-1, aInFrom, aInTo);
+        record(new Pair(aInFrom, aInTo), lResolution);
+        //noinspection unchecked
+        return (Converter<F, T>) lResolution.converter;
+    }
+
+    /**
+     * Resolves a converter starting with the first factory after the given
+     * position.
+     */
+    private Resolution resolveAfter(
+            int aInPosition, Type aInFrom, Type aInTo) {
+        Dispatch lDispatch = getDispatch();
+        Resolution lOuter = RESOLUTION.get();
+        Resolution lResolution = new Resolution();
+        RESOLUTION.set(lResolution);
+        ConverterResolutionEvent lEvent = ConverterResolutionEvent.isRecording()
+                ? ConverterResolutionEvent.start(aInFrom, aInTo)
+                : null;
+
+        Converter<?, ?> lConverter = null;
+        try {
+            lConverter = lDispatch.invokeAfter(aInPosition, aInFrom, aInTo);
+        } finally {
+            if (lOuter == null) {
+                RESOLUTION.remove();
+            } else {
+                RESOLUTION.set(lOuter);
+            }
+            if (lEvent != null) {
+                lEvent.finish(lConverter == null
+                        ? null
+                        : lDispatch.factories[lResolution.position]);
+            }
+        }
+
+        lResolution.converter = lConverter;
+        return lResolution;
+    }
+
+    private void record(Pair aInPair, Resolution aInResolution) {
+        if (plannedPairs != null) {
+            record(new Entry(aInPair, aInResolution.converter == null
+                            ? -1
+                            : aInResolution.position,
+                    aInResolution.children == null
+                            ? emptyList()
+                            : aInResolution.children));
+        }
+    }
+
+    private void record(Entry aInEntry) {
+        Set<Pair> lPlannedPairs = plannedPairs;
+        if (lPlannedPairs != null && lPlannedPairs.add(aInEntry.pair)) {
+            plan.add(aInEntry);
+        }
+    }
+
+    private Dispatch getDispatch() {
+        Dispatch lDispatch = dispatch;
+        if (lDispatch == null) {
+            // factories don't change, so indexing them twice is harmless
+            lDispatch = new Dispatch(getFactories());
+            dispatch = lDispatch;
+        }
+        return lDispatch;
     }
 
     public static ConverterFactory singletonFactory(
@@ -71,25 +273,153 @@ public abstract class ChainingConverterFactory
     public interface ChainedConverterFactory {
         <F, T> Converter<F, T> getConverter(
                 Type aInFrom, Type aInTo, FactoryChain aInChain);
+
+        /**
+         * Returns the kinds of types this factory may convert from. Pairs
+         * whose "from" type is of any other kind skip this factory.
+         *
+         * @return the kinds of the source types; any kind by default
+         */
+        default Set<TypeKind> getSourceKinds() {
+            return TypeKind.ANY;
+        }
+
+        /**
+         * Returns the kinds of types this factory may convert to. Pairs
+         * whose "to" type is of any other kind skip this factory.
+         *
+         * @return the kinds of the target types; any kind by default
+         */
+        default Set<TypeKind> getTargetKinds() {
+            return TypeKind.ANY;
+        }
     }
 
-    private class ChainImpl implements FactoryChain {
-        private int currentFactory = 0;
+    /**
+     * Index of the factories that may convert each pair of kinds of types.
+     */
+    private class Dispatch {
+        private final ChainedConverterFactory[] factories;
 
-        @Override
-        public <F, T> Converter<F, T> invokeNext(Type aInFrom, Type aInTo) {
-            currentFactory++;
-            List<ChainedConverterFactory> lFactories = getFactories();
-            if (currentFactory >= lFactories.size()) {
+        /**
+         * The chain as seen by each factory. Links are immutable, so the same
+         * links serve every resolution, nested or concurrent.
+         */
+        private final Link[] links;
+
+        /**
+         * For each pair of kinds, and for each position in the chain, the
+         * position of the first factory at or after it that may convert the
+         * pair, or the number of factories if there is none.
+         */
+        private final int[][] candidates;
+
+        Dispatch(List<ChainedConverterFactory> aInFactories) {
+            factories = aInFactories.toArray(new ChainedConverterFactory[0]);
+            links = new Link[factories.length];
+            for (int i = 0; i < factories.length; i++) {
+                links[i] = new Link(this, i);
+            }
+
+            candidates = new int[KIND_COUNT * KIND_COUNT][];
+            for (TypeKind lFromKind : TypeKind.values()) {
+                for (TypeKind lToKind : TypeKind.values()) {
+                    int[] lCandidates = new int[factories.length + 1];
+                    lCandidates[factories.length] = factories.length;
+                    for (int i = factories.length - 1; i >= 0; i--) {
+                        lCandidates[i] = converts(factories[i], lFromKind,
+                                lToKind) ? i : lCandidates[i + 1];
+                    }
+                    candidates[index(lFromKind, lToKind)] = lCandidates;
+                }
+            }
+        }
+
+        /**
+         * Asks the first factory after the given position that may convert
+         * the given types to convert them.
+         */
+        <F, T> Converter<F, T> invokeAfter(
+                int aInPosition, Type aInFrom, Type aInTo) {
+            int lPosition = candidates[index(
+                    TypeKind.of(aInFrom), TypeKind.of(aInTo))][aInPosition + 1];
+            if (lPosition == factories.length) {
                 return null;
             }
-            return lFactories.get(currentFactory)
-                    .getConverter(aInFrom, aInTo, this);
+            Converter<F, T> lConverter = factories[lPosition].getConverter(
+                    aInFrom, aInTo, links[lPosition]);
+            if (lConverter != null) {
+                // the factory that built the converter is the last one to
+                // return it that did not get it from the rest of the chain
+                Resolution lResolution = RESOLUTION.get();
+                if (lResolution != null
+                        && lConverter != lResolution.converter) {
+                    lResolution.converter = lConverter;
+                    lResolution.position = lPosition;
+                }
+            }
+            return lConverter;
+        }
+
+        private boolean converts(ChainedConverterFactory aInFactory,
+                                 TypeKind aInFromKind, TypeKind aInToKind) {
+            return aInFactory.getSourceKinds().contains(aInFromKind)
+                    && aInFactory.getTargetKinds().contains(aInToKind);
+        }
+
+        private int index(TypeKind aInFromKind, TypeKind aInToKind) {
+            return aInFromKind.ordinal() * KIND_COUNT + aInToKind.ordinal();
+        }
+    }
+
+    private class Link implements FactoryChain {
+        private final Dispatch dispatch;
+        private final int position;
+
+        Link(Dispatch aInDispatch, int aInPosition) {
+            dispatch = aInDispatch;
+            position = aInPosition;
+        }
+
+        @Override
+        public <F, T> Converter<F, T> invokeNext(Type aInFrom, Type aInTo) {
+            return dispatch.invokeAfter(position, aInFrom, aInTo);
         }
 
         @Override
         public <F, T> Converter<F, T> invokeFirst(Type aInFrom, Type aInTo) {
-            return getFactories().get(0).getConverter(aInFrom, aInTo, this);
+            // nested resolutions start over from the first factory and go
+            // through the cache as well
+            Resolution lResolution = RESOLUTION.get();
+            if (lResolution != null) {
+                if (lResolution.children == null) {
+                    lResolution.children = new ArrayList<>();
+                }
+                lResolution.children.add(new Pair(aInFrom, aInTo));
+            }
+            return ChainingConverterFactory.this.getConverter(
+                    aInFrom, aInTo);
         }
     }
+
+    /**
+     * What is known about a resolution while it is in progress.
+     */
+    private static final class Resolution {
+        /**
+         * The position of the factory that built the converter.
+         */
+        private int position = -1;
+
+        /**
+         * The converter last returned by a factory, and in the end the
+         * converter resolved.
+         */
+        private Converter<?, ?> converter;
+
+        /**
+         * The pairs resolved by the factories, or null if there are none.
+         */
+        private List<Pair> children;
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * File: CollectionFactories.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+
+import java.lang.reflect.Type;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Registry of the {@link CollectionFactory factories} used to create the
+ * collections containers are converted to, keyed by the raw class of the
+ * target type. Interfaces and abstract classes are registered with the
+ * implementation used for them, e.g. {@link ArrayDeque} for {@link Deque},
+ * and concrete classes that are not registered are created with their public
+ * no-arg constructor. Hash based collections are created with a capacity
+ * that holds the elements converted without rehashing.
+ * <p>
+ * {@link EnumSet} targets are created for the enum of their element type,
+ * and can't be registered.
+ * <p>
+ * Factories are meant to be registered before converters are resolved, as
+ * converters keep the factory they were resolved with.
+ */
+public final class CollectionFactories {
+    /**
+     * The default load factor of hash based collections and maps.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    @SuppressWarnings("unchecked")
+    private final FactoryRegistry<CollectionFactory> factories =
+            new FactoryRegistry<>(Collection.class, EnumSet.class,
+                    TypeUtils::getCollectionElementType,
+                    aInEnumClass -> aInSize -> (Collection<Object>)
+                            (Collection<?>) EnumSet.noneOf(aInEnumClass),
+                    aInConstructor -> aInSize -> (Collection<Object>)
+                            FactoryRegistry.newInstance(aInConstructor));
+
+    /**
+     * Creates a registry with the default factories.
+     */
+    public CollectionFactories() {
+        CollectionFactory lList = ArrayList::new;
+        registerDefault(Collection.class, lList);
+        registerDefault(AbstractCollection.class, lList);
+        registerDefault(List.class, lList);
+        registerDefault(AbstractList.class, lList);
+        registerDefault(ArrayList.class, lList);
+
+        CollectionFactory lSet = aInSize -> new HashSet<>(
+                hashCapacity(aInSize));
+        registerDefault(Set.class, lSet);
+        registerDefault(AbstractSet.class, lSet);
+        registerDefault(HashSet.class, lSet);
+        registerDefault(LinkedHashSet.class, aInSize -> new LinkedHashSet<>(
+                hashCapacity(aInSize)));
+
+        CollectionFactory lSortedSet = aInSize -> new TreeSet<>();
+        registerDefault(SortedSet.class, lSortedSet);
+        registerDefault(NavigableSet.class, lSortedSet);
+        registerDefault(TreeSet.class, lSortedSet);
+
+        CollectionFactory lDeque = ArrayDeque::new;
+        registerDefault(Queue.class, lDeque);
+        registerDefault(Deque.class, lDeque);
+        registerDefault(ArrayDeque.class, lDeque);
+        registerDefault(LinkedList.class, aInSize -> new LinkedList<>());
+    }
+
+    /**
+     * Registers the factory used for a target class, replacing the one
+     * registered before, if any.
+     *
+     * @param aInClass the raw class of the target types
+     * @param aInFactory the factory; the collections it creates must be
+     *                   instances of the class
+     * @return this registry
+     * @throws IllegalArgumentException if the class is not a collection or
+     * is {@link EnumSet}
+     */
+    public CollectionFactories register(
+            Class<?> aInClass, CollectionFactory aInFactory) {
+        factories.register(aInClass, aInFactory);
+        return this;
+    }
+
+    /**
+     * Returns whether a factory was registered for the raw class of a target
+     * type with {@link #register}, in place of the default one.
+     */
+    boolean isCustomized(Type aInType) {
+        return factories.isCustomized(aInType);
+    }
+
+    /**
+     * Returns the factory for a target type.
+     *
+     * @param aInType the type converted to
+     * @return the factory, or null if no factory was registered for the raw
+     * class of the type and the class can't be instantiated
+     */
+    public CollectionFactory get(Type aInType) {
+        return factories.get(aInType);
+    }
+
+    /**
+     * Returns a factory of read-only lists. Lists without null elements are
+     * copied to the compact lists returned by {@link List#copyOf}, which are
+     * no larger than their elements; lists with nulls are wrapped by
+     * {@link Collections#unmodifiableList}.
+     */
+    public static CollectionFactory immutableList() {
+        return new CollectionFactory() {
+            @Override
+            public Collection<Object> newInstance(int aInSize) {
+                return new ArrayList<>(aInSize);
+            }
+
+            @Override
+            public Collection<?> finish(Collection<Object> aInCollection) {
+                return aInCollection.contains(null)
+                        ? Collections.unmodifiableList(
+                                (List<Object>) aInCollection)
+                        : List.copyOf(aInCollection);
+            }
+        };
+    }
+
+    /**
+     * Returns a factory of read-only sets. Sets without null elements are
+     * copied to the compact sets returned by {@link Set#copyOf}, which do not
+     * keep the order elements were added in; sets with nulls are wrapped by
+     * {@link Collections#unmodifiableSet}.
+     */
+    public static CollectionFactory immutableSet() {
+        return new CollectionFactory() {
+            @Override
+            public Collection<Object> newInstance(int aInSize) {
+                return new HashSet<>(hashCapacity(aInSize));
+            }
+
+            @Override
+            public Collection<?> finish(Collection<Object> aInCollection) {
+                return aInCollection.contains(null)
+                        ? Collections.unmodifiableSet(
+                                (Set<Object>) aInCollection)
+                        : Set.copyOf(aInCollection);
+            }
+        };
+    }
+
+    /**
+     * Returns the initial capacity of a hash based collection or map that
+     * holds a number of elements without rehashing, given the default load
+     * factor.
+     */
+    static int hashCapacity(int aInSize) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                (long) Math.ceil(aInSize / (double) LOAD_FACTOR));
+    }
+
+    private void registerDefault(
+            Class<?> aInClass, CollectionFactory aInFactory) {
+        factories.registerDefault(aInClass, aInFactory);
+    }
+}
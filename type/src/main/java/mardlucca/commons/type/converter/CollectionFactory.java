@@ -0,0 +1,51 @@
+/*
+ * File: CollectionFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.util.Collection;
+
+/**
+ * Creates the collections that containers are converted to. Converters
+ * create a collection sized for the elements to come, add the converted
+ * elements to it and then {@link #finish(Collection) finish} it, which is
+ * where read-only collections are made.
+ *
+ * @see CollectionFactories
+ */
+@FunctionalInterface
+public interface CollectionFactory {
+    /**
+     * Creates an empty collection.
+     *
+     * @param aInSize the number of elements that will be added to it
+     * @return the collection
+     */
+    Collection<Object> newInstance(int aInSize);
+
+    /**
+     * Turns a collection created by {@link #newInstance(int)}, with all
+     * elements added, into the collection returned by the conversion.
+     *
+     * @param aInCollection the collection filled in
+     * @return the collection itself, by default
+     */
+    default Collection<?> finish(Collection<Object> aInCollection) {
+        return aInCollection;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * File: CompilingConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converter factory that compiles the converters returned by another factory
+ * with {@link ConverterCompiler}. Each (from, to) pair is compiled once, on
+ * first request, and the compiled converter is cached from then on.
+ */
+public class CompilingConverterFactory implements ConverterFactory {
+    private ConverterFactory delegate;
+
+    private final ConverterCache cache = new ConverterCache(this::compile);
+
+    public CompilingConverterFactory(ConverterFactory aInDelegate) {
+        delegate = aInDelegate;
+    }
+
+    @Override
+    public <F, T> Converter<F, T> getConverter(Type aInFrom, Type aInTo) {
+        return cache.get(aInFrom, aInTo);
+    }
+
+    private Converter<?, ?> compile(Type aInFrom, Type aInTo) {
+        return ConverterCompiler.compile(
+                delegate.getConverter(aInFrom, aInTo));
+    }
+}
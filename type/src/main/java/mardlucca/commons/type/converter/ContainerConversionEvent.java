@@ -0,0 +1,119 @@
+/*
+ * File: ContainerConversionEvent.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.UnaryOperator;
+
+/**
+ * Flight recorder event for the conversion of a large array, collection or
+ * map by a {@link ContainerConverter} or a {@link MapConverter}. Disabled by
+ * default. Only containers with at least
+ * {@code mardlucca.commons.type.jfr.containerThreshold} elements (a system
+ * property, 10000 by default) are recorded.
+ * <p>
+ * Converters do not know the types they were resolved for, so the classes of
+ * the source and target containers are recorded instead. Bytes allocated are
+ * those allocated by the converting thread, so they leave out what worker
+ * threads allocate during parallel conversions.
+ */
+@Name("mardlucca.commons.type.ContainerConversion")
+@Label("Container Conversion")
+@Category({"Mardlucca Commons", "Type Conversion"})
+@Description("Conversion of a large array, collection or map")
+@Enabled(false)
+@StackTrace(false)
+final class ContainerConversionEvent extends Event {
+    static final int THRESHOLD = Integer.getInteger(
+            "mardlucca.commons.type.jfr.containerThreshold", 10000);
+
+    private static final ContainerConversionEvent PROBE =
+            new ContainerConversionEvent();
+
+    private static final ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+
+    @Label("From")
+    Class<?> from;
+
+    @Label("To")
+    Class<?> to;
+
+    @Label("Elements")
+    int elements;
+
+    @Label("Bytes Allocated")
+    @DataAmount
+    long bytesAllocated;
+
+    /**
+     * Checks whether a container of a given size is to be recorded.
+     */
+    static boolean isRecorded(int aInSize) {
+        return aInSize >= THRESHOLD && PROBE.isEnabled();
+    }
+
+    /**
+     * Converts a container, recording the conversion.
+     *
+     * @param aInFrom the container to convert
+     * @param aInSize the number of elements in it
+     * @param aInConversion the conversion
+     * @return the converted container
+     */
+    static Object record(Object aInFrom, int aInSize,
+                         UnaryOperator<Object> aInConversion) {
+        ContainerConversionEvent lEvent = new ContainerConversionEvent();
+        long lAllocated = getAllocatedBytes();
+        lEvent.begin();
+
+        Object lConverted = aInConversion.apply(aInFrom);
+
+        lEvent.end();
+        if (lAllocated >= 0) {
+            lEvent.bytesAllocated = getAllocatedBytes() - lAllocated;
+        }
+        lEvent.from = aInFrom.getClass();
+        lEvent.to = lConverted == null ? null : lConverted.getClass();
+        lEvent.elements = aInSize;
+        lEvent.commit();
+        return lConverted;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the
+     * JVM does not tell.
+     */
+    private static long getAllocatedBytes() {
+        return THREADS instanceof com.sun.management.ThreadMXBean
+                ? ((com.sun.management.ThreadMXBean) THREADS)
+                        .getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+}
@@ -19,34 +19,228 @@
 package mardlucca.commons.type.converter;
 
 import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.IntConverter;
+import mardlucca.commons.type.LongConverter;
+import mardlucca.commons.type.ToDoubleConverter;
+import mardlucca.commons.type.ToIntConverter;
+import mardlucca.commons.type.ToLongConverter;
 
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class ContainerConverter
         implements Converter<Object, Object> {
     private ContainerHandler fromHandler;
     private ContainerHandler toHandler;
     private Converter<Object, Object> elementConverter;
+    private ParallelConversion parallelism;
 
     public ContainerConverter(
             ContainerHandler aInFromHandler,
             ContainerHandler aInToHandler,
             Converter<Object, Object> aInElementConverter) {
+        this(aInFromHandler, aInToHandler, aInElementConverter, null);
+    }
+
+    /**
+     * @param aInParallelism settings for converting large containers in
+     *                       parallel, or null to always convert sequentially
+     */
+    public ContainerConverter(
+            ContainerHandler aInFromHandler,
+            ContainerHandler aInToHandler,
+            Converter<Object, Object> aInElementConverter,
+            ParallelConversion aInParallelism) {
         fromHandler = aInFromHandler;
         toHandler = aInToHandler;
         elementConverter = aInElementConverter;
+        parallelism = aInParallelism;
     }
 
     @Override
     public Object convert(Object aInFrom) {
-        Object lContainer = toHandler.newInstance(fromHandler.getSize(aInFrom));
+        if (aInFrom == null) {
+            return null;
+        }
+
+        int lSize = fromHandler.getSize(aInFrom);
+        try {
+            if (ContainerConversionEvent.isRecorded(lSize)) {
+                return ContainerConversionEvent.record(aInFrom, lSize,
+                        aInContainer -> convert(aInContainer, lSize));
+            }
+            return convert(aInFrom, lSize);
+        } catch (RuntimeException | Error e) {
+            ConversionFailureEvent.record(aInFrom, e);
+            throw e;
+        }
+    }
+
+    private Object convert(Object aInFrom, int aInSize) {
+        if (parallelism != null && parallelism.appliesTo(aInSize)) {
+            return convertInParallel(aInFrom, aInSize);
+        }
+
+        Object lContainer = toHandler.newInstance(aInSize);
+        if (fromHandler instanceof ArrayContainerHandler
+                && toHandler instanceof ArrayContainerHandler) {
+            // array to array, no need for an iterator or appender
+            if (convertUnboxed(aInFrom, lContainer, aInSize)) {
+                return lContainer;
+            }
+            ArrayContainerHandler lFromHandler =
+                    (ArrayContainerHandler) fromHandler;
+            ArrayContainerHandler lToHandler =
+                    (ArrayContainerHandler) toHandler;
+            for (int i = 0; i < aInSize; i++) {
+                lToHandler.set(lContainer, i, elementConverter.convert(
+                        lFromHandler.get(aInFrom, i)));
+            }
+            return lContainer;
+        }
+
         Appender lAppender = toHandler.getAppender(lContainer);
         for (Object lObject : fromHandler.asIterable(aInFrom)) {
             lAppender.add(elementConverter.convert(lObject));
         }
-        return lContainer;
+        return toHandler.finish(lContainer);
+    }
+
+    /**
+     * Converts arrays of objects into arrays of int, long or double, or
+     * arrays of int or long into arrays of objects, through the unboxed
+     * shape of the element converter, if it has one. The primitive side of
+     * the conversion is then never boxed.
+     *
+     * @return true if the elements were converted, false if there is no
+     * unboxed shape for this conversion
+     */
+    @SuppressWarnings("unchecked")
+    private boolean convertUnboxed(Object aInFrom, Object aInTo, int aInSize) {
+        if (fromHandler instanceof ObjectArrayHandler) {
+            Object[] lFrom = (Object[]) aInFrom;
+            if (toHandler instanceof IntArrayHandler
+                    && elementConverter instanceof ToIntConverter) {
+                ToIntConverter<Object> lConverter =
+                        (ToIntConverter<Object>) elementConverter;
+                int[] lTo = (int[]) aInTo;
+                for (int i = 0; i < aInSize; i++) {
+                    lTo[i] = lConverter.convertToInt(lFrom[i]);
+                }
+                return true;
+            }
+            if (toHandler instanceof LongArrayHandler
+                    && elementConverter instanceof ToLongConverter) {
+                ToLongConverter<Object> lConverter =
+                        (ToLongConverter<Object>) elementConverter;
+                long[] lTo = (long[]) aInTo;
+                for (int i = 0; i < aInSize; i++) {
+                    lTo[i] = lConverter.convertToLong(lFrom[i]);
+                }
+                return true;
+            }
+            if (toHandler instanceof DoubleArrayHandler
+                    && elementConverter instanceof ToDoubleConverter) {
+                ToDoubleConverter<Object> lConverter =
+                        (ToDoubleConverter<Object>) elementConverter;
+                double[] lTo = (double[]) aInTo;
+                for (int i = 0; i < aInSize; i++) {
+                    lTo[i] = lConverter.convertToDouble(lFrom[i]);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        if (toHandler instanceof ObjectArrayHandler) {
+            Object[] lTo = (Object[]) aInTo;
+            if (fromHandler instanceof IntArrayHandler
+                    && elementConverter instanceof IntConverter) {
+                IntConverter<?> lConverter = (IntConverter<?>) elementConverter;
+                int[] lFrom = (int[]) aInFrom;
+                for (int i = 0; i < aInSize; i++) {
+                    lTo[i] = lConverter.convertInt(lFrom[i]);
+                }
+                return true;
+            }
+            if (fromHandler instanceof LongArrayHandler
+                    && elementConverter instanceof LongConverter) {
+                LongConverter<?> lConverter =
+                        (LongConverter<?>) elementConverter;
+                long[] lFrom = (long[]) aInFrom;
+                for (int i = 0; i < aInSize; i++) {
+                    lTo[i] = lConverter.convertLong(lFrom[i]);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts the elements in chunks, concurrently. Chunks read the source
+     * by index and write the target by index, so the order of the elements
+     * is preserved. Collections are copied to an array first; when the target
+     * is a collection, elements are converted into an array that is then
+     * appended to the target in order.
+     */
+    private Object convertInParallel(Object aInFrom, int aInSize) {
+        ArrayContainerHandler lFromHandler;
+        Object lFrom;
+        if (fromHandler instanceof ArrayContainerHandler) {
+            lFromHandler = (ArrayContainerHandler) fromHandler;
+            lFrom = aInFrom;
+        } else {
+            lFromHandler = new ObjectArrayHandler(Object.class);
+            lFrom = ((Collection<?>) aInFrom).toArray();
+            aInSize = ((Object[]) lFrom).length;
+        }
+
+        if (toHandler instanceof ArrayContainerHandler) {
+            ArrayContainerHandler lToHandler =
+                    (ArrayContainerHandler) toHandler;
+            Object lContainer = lToHandler.newInstance(aInSize);
+            parallelism.forEachChunk(aInSize, (aInStart, aInEnd) -> {
+                for (int i = aInStart; i < aInEnd; i++) {
+                    lToHandler.set(lContainer, i, elementConverter.convert(
+                            lFromHandler.get(lFrom, i)));
+                }
+            });
+            return lContainer;
+        }
+
+        Object[] lConverted = new Object[aInSize];
+        parallelism.forEachChunk(aInSize, (aInStart, aInEnd) -> {
+            for (int i = aInStart; i < aInEnd; i++) {
+                lConverted[i] = elementConverter.convert(
+                        lFromHandler.get(lFrom, i));
+            }
+        });
+
+        Object lContainer = toHandler.newInstance(aInSize);
+        Appender lAppender = toHandler.getAppender(lContainer);
+        for (Object lObject : lConverted) {
+            lAppender.add(lObject);
+        }
+        return toHandler.finish(lContainer);
+    }
+
+    ContainerHandler getFromHandler() {
+        return fromHandler;
+    }
+
+    ContainerHandler getToHandler() {
+        return toHandler;
+    }
+
+    Converter<Object, Object> getElementConverter() {
+        return elementConverter;
+    }
+
+    ParallelConversion getParallelism() {
+        return parallelism;
     }
 
     interface ContainerHandler {
@@ -54,42 +248,77 @@ public class ContainerConverter
         int getSize(Object aInContainer);
         Iterable<Object> asIterable(Object aInContainer);
         Appender getAppender(Object aInContainer);
+
+        /**
+         * Turns a container created by {@link #newInstance(int)}, with all
+         * elements added, into the one returned by the conversion.
+         */
+        default Object finish(Object aInContainer) {
+            return aInContainer;
+        }
     }
 
     interface Appender {
         boolean add(Object aInValue);
     }
 
-    static class ArrayContainerHandler implements ContainerHandler {
-        private Class<?> componentType;
-
-        public ArrayContainerHandler(Class<?> aInComponentType) {
-            componentType = aInComponentType;
+    /**
+     * Base class for array handlers. There is one subclass per primitive
+     * component type, plus one for arrays of objects, so elements are accessed
+     * directly rather than through {@link Array}. Use
+     * {@link #forComponentType(Class)} to get the right handler for an array.
+     */
+    abstract static class ArrayContainerHandler implements ContainerHandler {
+        static ArrayContainerHandler forComponentType(
+                Class<?> aInComponentType) {
+            if (!aInComponentType.isPrimitive()) {
+                return new ObjectArrayHandler(aInComponentType);
+            }
+            if (aInComponentType == int.class) {
+                return new IntArrayHandler();
+            }
+            if (aInComponentType == long.class) {
+                return new LongArrayHandler();
+            }
+            if (aInComponentType == double.class) {
+                return new DoubleArrayHandler();
+            }
+            if (aInComponentType == float.class) {
+                return new FloatArrayHandler();
+            }
+            if (aInComponentType == short.class) {
+                return new ShortArrayHandler();
+            }
+            if (aInComponentType == byte.class) {
+                return new ByteArrayHandler();
+            }
+            if (aInComponentType == char.class) {
+                return new CharArrayHandler();
+            }
+            return new BooleanArrayHandler();
         }
 
-        @Override
-        public Object newInstance(int aInSize) {
-            return Array.newInstance(componentType, aInSize);
-        }
+        abstract Object get(Object aInArray, int aInIndex);
 
-        @Override
-        public int getSize(Object aInContainer) {
-            return Array.getLength(aInContainer);
-        }
+        abstract void set(Object aInArray, int aInIndex, Object aInValue);
 
         @Override
         public Iterable<Object> asIterable(Object aInContainer) {
             return () -> new Iterator<Object>() {
                 private int index = 0;
+                private int size = getSize(aInContainer);
 
                 @Override
                 public boolean hasNext() {
-                    return index < Array.getLength(aInContainer);
+                    return index < size;
                 }
 
                 @Override
                 public Object next() {
-                    return Array.get(aInContainer, index++);
+                    if (index >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(aInContainer, index++);
                 }
             };
         }
@@ -101,29 +330,233 @@ public class ContainerConverter
 
                 @Override
                 public boolean add(Object aInValue) {
-                    Array.set(aInContainer, index++, aInValue);
+                    set(aInContainer, index++, aInValue);
                     return true;
                 }
             };
         }
     }
 
-    @FunctionalInterface
-    interface ContainerFactory {
-        Object newInstance(int aInSize);
+    static class ObjectArrayHandler extends ArrayContainerHandler {
+        private Class<?> componentType;
+
+        ObjectArrayHandler(Class<?> aInComponentType) {
+            componentType = aInComponentType;
+        }
+
+        @Override
+        public Object newInstance(int aInSize) {
+            return Array.newInstance(componentType, aInSize);
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((Object[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((Object[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((Object[]) aInArray)[aInIndex] = aInValue;
+        }
+    }
+
+    static class BooleanArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new boolean[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((boolean[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((boolean[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((boolean[]) aInArray)[aInIndex] = (Boolean) aInValue;
+        }
+    }
+
+    static class ByteArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new byte[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((byte[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((byte[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((byte[]) aInArray)[aInIndex] = (Byte) aInValue;
+        }
+    }
+
+    static class CharArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new char[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((char[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((char[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((char[]) aInArray)[aInIndex] = (Character) aInValue;
+        }
+    }
+
+    static class ShortArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new short[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((short[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((short[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((short[]) aInArray)[aInIndex] = (Short) aInValue;
+        }
+    }
+
+    static class IntArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new int[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((int[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((int[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((int[]) aInArray)[aInIndex] = (Integer) aInValue;
+        }
+    }
+
+    static class LongArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new long[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((long[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((long[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((long[]) aInArray)[aInIndex] = (Long) aInValue;
+        }
+    }
+
+    static class FloatArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new float[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((float[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((float[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((float[]) aInArray)[aInIndex] = (Float) aInValue;
+        }
+    }
+
+    static class DoubleArrayHandler extends ArrayContainerHandler {
+        @Override
+        public Object newInstance(int aInSize) {
+            return new double[aInSize];
+        }
+
+        @Override
+        public int getSize(Object aInContainer) {
+            return ((double[]) aInContainer).length;
+        }
+
+        @Override
+        Object get(Object aInArray, int aInIndex) {
+            return ((double[]) aInArray)[aInIndex];
+        }
+
+        @Override
+        void set(Object aInArray, int aInIndex, Object aInValue) {
+            ((double[]) aInArray)[aInIndex] = (Double) aInValue;
+        }
     }
 
     static class CollectionContainerHandler implements ContainerHandler {
-        private ContainerFactory containerFactory;
+        private CollectionFactory collectionFactory;
 
         public CollectionContainerHandler(
-                ContainerFactory aInContainerFactory) {
-            containerFactory = aInContainerFactory;
+                CollectionFactory aInCollectionFactory) {
+            collectionFactory = aInCollectionFactory;
         }
 
         @Override
         public Object newInstance(int aInSize) {
-            return containerFactory.newInstance(aInSize);
+            return collectionFactory.newInstance(aInSize);
+        }
+
+        @Override
+        public Object finish(Object aInContainer) {
+            return collectionFactory.finish(toCollection(aInContainer));
         }
 
         @Override
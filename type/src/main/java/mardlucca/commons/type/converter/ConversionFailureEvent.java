@@ -0,0 +1,93 @@
+/*
+ * File: ConversionFailureEvent.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Flight recorder event for a conversion that threw an exception. Disabled
+ * by default. Converters of arrays, collections and maps record the failures
+ * of their elements, and converters returned by an
+ * {@link InstrumentedConverterFactory} record failures of any kind. Each
+ * failure is recorded once, by the innermost of those converters it goes
+ * through, even when containers are nested or converted in parallel.
+ */
+@Name("mardlucca.commons.type.ConversionFailure")
+@Label("Conversion Failure")
+@Category({"Mardlucca Commons", "Type Conversion"})
+@Description("Conversion that threw an exception")
+@Enabled(false)
+final class ConversionFailureEvent extends Event {
+    private static final ConversionFailureEvent PROBE =
+            new ConversionFailureEvent();
+
+    /**
+     * The exceptions recorded, which the converters they go through next
+     * don't record again. Keys are weak, so exceptions are not kept.
+     */
+    private static final Map<Throwable, Boolean> RECORDED =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Label("From")
+    Class<?> from;
+
+    @Label("Exception")
+    Class<?> exception;
+
+    @Label("Message")
+    String message;
+
+    /**
+     * Records a failed conversion, if these events are being recorded and
+     * the exception, or an exception it was rethrown as, was not recorded
+     * already.
+     *
+     * @param aInFrom the value that failed to be converted
+     * @param aInException what the conversion threw
+     */
+    static void record(Object aInFrom, Throwable aInException) {
+        if (!PROBE.isEnabled()) {
+            return;
+        }
+        // exceptions thrown by other threads may be rethrown wrapped, e.g.
+        // by fork/join tasks
+        for (Throwable lCause = aInException; lCause != null;
+             lCause = lCause.getCause()) {
+            if (RECORDED.containsKey(lCause)) {
+                return;
+            }
+        }
+        RECORDED.put(aInException, Boolean.TRUE);
+
+        ConversionFailureEvent lEvent = new ConversionFailureEvent();
+        lEvent.from = aInFrom == null ? null : aInFrom.getClass();
+        lEvent.exception = aInException.getClass();
+        lEvent.message = aInException.getMessage();
+        lEvent.commit();
+    }
+}
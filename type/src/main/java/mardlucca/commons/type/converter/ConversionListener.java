@@ -0,0 +1,77 @@
+/*
+ * File: ConversionListener.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Listens to what an {@link InstrumentedConverterFactory} and the converters
+ * it returns do. Methods are called by the threads that request converters
+ * and convert values, so implementations must be thread safe and should
+ * return quickly. Every method does nothing by default.
+ *
+ * @see ConversionMetrics
+ */
+public interface ConversionListener {
+    /**
+     * Element count of conversions of values that are not containers.
+     */
+    int NOT_A_CONTAINER = -1;
+
+    /**
+     * Duration of conversions that were not sampled for timing.
+     */
+    long NOT_TIMED = -1;
+
+    /**
+     * Called each time a converter is requested from the factory.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     */
+    default void converterRequested(Type aInFrom, Type aInTo) {
+    }
+
+    /**
+     * Called when a requested converter was not cached yet and was resolved.
+     * Requests that are not followed by a resolution are cache hits.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @param aInFound whether a converter was found
+     * @param aInNanos how long resolving took
+     */
+    default void converterResolved(
+            Type aInFrom, Type aInTo, boolean aInFound, long aInNanos) {
+    }
+
+    /**
+     * Called each time a value is converted.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @param aInElements the number of elements in the source array,
+     *                    collection or map, or {@link #NOT_A_CONTAINER}
+     * @param aInNanos how long converting took, or {@link #NOT_TIMED} if this
+     *                 conversion was not sampled
+     */
+    default void converted(
+            Type aInFrom, Type aInTo, int aInElements, long aInNanos) {
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * File: ConversionMetrics.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener that aggregates what it hears into counters and latency
+ * histograms, and that exposes them through JMX. Counters are striped, so
+ * they can be updated by many threads at once without contending, and
+ * recording a conversion does not allocate once its (from, to) pair was seen.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * ConversionMetrics lMetrics = new ConversionMetrics();
+ * lMetrics.registerMBean("default");
+ * ConverterFactory lFactory =
+ *         new InstrumentedConverterFactory(aInFactory, lMetrics);
+ * }</pre>
+ */
+public class ConversionMetrics
+        implements ConversionListener, ConversionMetricsMXBean {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder failedResolutions = new LongAdder();
+    private final LatencyHistogram resolutionLatency = new LatencyHistogram();
+
+    private final LongAdder conversions = new LongAdder();
+    private final LatencyHistogram conversionLatency = new LatencyHistogram();
+
+    private final LongAdder containerConversions = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LatencyHistogram containerConversionLatency =
+            new LatencyHistogram();
+
+    /**
+     * Conversions by "from" type and then by "to" type. Two levels are used
+     * so counting doesn't need to allocate a composite key.
+     */
+    private final ConcurrentMap<Type, ConcurrentMap<Type, LongAdder>>
+            conversionsByType = new ConcurrentHashMap<>();
+
+    /**
+     * Registers these metrics with the platform MBean server, under
+     * {@code mardlucca.commons.type:type=ConversionMetrics,name=<name>}.
+     *
+     * @param aInName the name that tells these metrics apart from others
+     * @return the name the metrics were registered under
+     * @throws JMException if the metrics could not be registered, e.g.
+     * because the name is taken
+     */
+    public ObjectName registerMBean(String aInName) throws JMException {
+        ObjectName lName = new ObjectName(
+                "mardlucca.commons.type:type=ConversionMetrics,name="
+                        + ObjectName.quote(aInName));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, lName);
+        return lName;
+    }
+
+    @Override
+    public void converterRequested(Type aInFrom, Type aInTo) {
+        requests.increment();
+    }
+
+    @Override
+    public void converterResolved(
+            Type aInFrom, Type aInTo, boolean aInFound, long aInNanos) {
+        resolutions.increment();
+        if (!aInFound) {
+            failedResolutions.increment();
+        }
+        resolutionLatency.record(aInNanos);
+    }
+
+    @Override
+    public void converted(
+            Type aInFrom, Type aInTo, int aInElements, long aInNanos) {
+        conversions.increment();
+        getCounter(aInFrom, aInTo).increment();
+        conversionLatency.record(aInNanos);
+
+        if (aInElements != NOT_A_CONTAINER) {
+            containerConversions.increment();
+            elements.add(aInElements);
+            containerConversionLatency.record(aInNanos);
+        }
+    }
+
+    @Override
+    public long getConverterRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getConverterResolutions() {
+        return resolutions.sum();
+    }
+
+    @Override
+    public long getFailedConverterResolutions() {
+        return failedResolutions.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long lRequests = requests.sum();
+        return lRequests == 0
+                ? 0
+                : Math.max(0, lRequests - resolutions.sum())
+                        / (double) lRequests;
+    }
+
+    @Override
+    public double getMeanResolutionNanos() {
+        return resolutionLatency.getMean();
+    }
+
+    @Override
+    public long[] getResolutionLatencyHistogram() {
+        return resolutionLatency.getCounts();
+    }
+
+    @Override
+    public long getConversions() {
+        return conversions.sum();
+    }
+
+    @Override
+    public Map<String, Long> getConversionsByType() {
+        Map<String, Long> lConversions = new TreeMap<>();
+        conversionsByType.forEach((aInFrom, aInToMap) ->
+                aInToMap.forEach((aInTo, aInCounter) -> lConversions.put(
+                        aInFrom.getTypeName() + " -> " + aInTo.getTypeName(),
+                        aInCounter.sum())));
+        return lConversions;
+    }
+
+    /**
+     * Returns the number of conversions of a (from, to) pair.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @return the number of conversions
+     */
+    public long getConversions(Type aInFrom, Type aInTo) {
+        ConcurrentMap<Type, LongAdder> lToMap = conversionsByType.get(aInFrom);
+        LongAdder lCounter = lToMap == null ? null : lToMap.get(aInTo);
+        return lCounter == null ? 0 : lCounter.sum();
+    }
+
+    @Override
+    public double getMeanConversionNanos() {
+        return conversionLatency.getMean();
+    }
+
+    @Override
+    public long getConversionLatency99thPercentileNanos() {
+        return conversionLatency.getPercentile(99);
+    }
+
+    @Override
+    public long[] getConversionLatencyHistogram() {
+        return conversionLatency.getCounts();
+    }
+
+    @Override
+    public long getContainerConversions() {
+        return containerConversions.sum();
+    }
+
+    @Override
+    public long getConvertedElements() {
+        return elements.sum();
+    }
+
+    @Override
+    public double getMeanContainerConversionNanos() {
+        return containerConversionLatency.getMean();
+    }
+
+    @Override
+    public long getContainerConversionLatency99thPercentileNanos() {
+        return containerConversionLatency.getPercentile(99);
+    }
+
+    @Override
+    public long[] getContainerConversionLatencyHistogram() {
+        return containerConversionLatency.getCounts();
+    }
+
+    @Override
+    public void reset() {
+        requests.reset();
+        resolutions.reset();
+        failedResolutions.reset();
+        resolutionLatency.reset();
+        conversions.reset();
+        conversionLatency.reset();
+        containerConversions.reset();
+        elements.reset();
+        containerConversionLatency.reset();
+        conversionsByType.clear();
+    }
+
+    private LongAdder getCounter(Type aInFrom, Type aInTo) {
+        ConcurrentMap<Type, LongAdder> lToMap = conversionsByType.get(aInFrom);
+        if (lToMap == null) {
+            lToMap = conversionsByType.computeIfAbsent(
+                    aInFrom, aInKey -> new ConcurrentHashMap<>());
+        }
+
+        LongAdder lCounter = lToMap.get(aInTo);
+        if (lCounter == null) {
+            lCounter = lToMap.computeIfAbsent(
+                    aInTo, aInKey -> new LongAdder());
+        }
+        return lCounter;
+    }
+}
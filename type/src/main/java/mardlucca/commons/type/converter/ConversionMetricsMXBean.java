@@ -0,0 +1,75 @@
+/*
+ * File: ConversionMetricsMXBean.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ConversionMetrics}. Durations are in
+ * nanoseconds. Latency histograms have 64 buckets, bucket i counting the
+ * durations in [2^i, 2^(i+1)). Conversion latencies only cover the sampled
+ * conversions.
+ */
+public interface ConversionMetricsMXBean {
+    long getConverterRequests();
+
+    long getConverterResolutions();
+
+    long getFailedConverterResolutions();
+
+    /**
+     * Returns the ratio of converter requests served from the cache, or 0 if
+     * no converter was requested.
+     */
+    double getCacheHitRatio();
+
+    double getMeanResolutionNanos();
+
+    long[] getResolutionLatencyHistogram();
+
+    long getConversions();
+
+    /**
+     * Returns the number of conversions of each (from, to) pair, keyed by
+     * "from -> to".
+     */
+    Map<String, Long> getConversionsByType();
+
+    double getMeanConversionNanos();
+
+    long getConversionLatency99thPercentileNanos();
+
+    long[] getConversionLatencyHistogram();
+
+    long getContainerConversions();
+
+    /**
+     * Returns the number of elements in the arrays, collections and maps
+     * converted so far. Its rate is the element throughput.
+     */
+    long getConvertedElements();
+
+    double getMeanContainerConversionNanos();
+
+    long getContainerConversionLatency99thPercentileNanos();
+
+    long[] getContainerConversionLatencyHistogram();
+
+    void reset();
+}
@@ -0,0 +1,390 @@
+/*
+ * File: ConversionPlan.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.Types;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The pairs of types resolved by a {@link ChainingConverterFactory}, with the
+ * chained factory that built the converter of each pair and the pairs it
+ * resolved in turn, in a compact binary form.
+ * <p>
+ * The file starts with the class names of the chained factories, so plans
+ * written for a different chain are recognized as stale. Then come the types
+ * the pairs are made of, each written once, and then the pairs themselves,
+ * in the order they were resolved, so the pairs a converter is built from
+ * always come before it.
+ */
+final class ConversionPlan {
+    private static final int MAGIC = 0x43504c4e;
+    private static final int VERSION = 1;
+
+    private static final byte CLASS = 0;
+    private static final byte PARAMETERIZED = 1;
+    private static final byte GENERIC_ARRAY = 2;
+    private static final byte WILDCARD = 3;
+    private static final byte NONE = 4;
+
+    /**
+     * Read in place of the types whose classes can't be loaded.
+     */
+    private static final Type MISSING = new Type() {
+    };
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> lClass : new Class<?>[]{boolean.class, byte.class,
+                char.class, short.class, int.class, long.class, float.class,
+                double.class, void.class}) {
+            PRIMITIVES.put(lClass.getName(), lClass);
+        }
+    }
+
+    private ConversionPlan() {
+    }
+
+    /**
+     * A (from, to) pair of types.
+     */
+    static final class Pair {
+        final Type from;
+        final Type to;
+
+        Pair(Type aInFrom, Type aInTo) {
+            from = aInFrom;
+            to = aInTo;
+        }
+
+        @Override
+        public boolean equals(Object aInObject) {
+            if (!(aInObject instanceof Pair)) {
+                return false;
+            }
+            Pair lPair = (Pair) aInObject;
+            return from.equals(lPair.from) && to.equals(lPair.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return from.hashCode() * 31 + to.hashCode();
+        }
+    }
+
+    /**
+     * How a pair was resolved.
+     */
+    static final class Entry {
+        final Pair pair;
+
+        /**
+         * The position of the chained factory that built the converter, or
+         * -1 if there is no converter for the pair.
+         */
+        final int factory;
+
+        /**
+         * The pairs resolved while building the converter.
+         */
+        final List<Pair> children;
+
+        Entry(Pair aInPair, int aInFactory, List<Pair> aInChildren) {
+            pair = aInPair;
+            factory = aInFactory;
+            children = aInChildren;
+        }
+    }
+
+    /**
+     * Writes a plan. Pairs resolved more than once are written once, and
+     * pairs that can't be written (those with type variables) are left out,
+     * along with the pairs built from them.
+     *
+     * @param aInFactories the chained factories, in order
+     * @param aInEntries the pairs, children first
+     * @param aInOutput where to write the plan to; it is not closed
+     * @throws IOException if writing fails
+     */
+    static void write(List<ChainedConverterFactory> aInFactories,
+                      Collection<Entry> aInEntries,
+                      OutputStream aInOutput) throws IOException {
+        Map<Pair, Integer> lIndexes = new HashMap<>();
+        List<Entry> lEntries = new ArrayList<>();
+        Map<Type, Integer> lTypes = new HashMap<>();
+        List<Type> lTypeList = new ArrayList<>();
+        for (Entry lEntry : aInEntries) {
+            if (lIndexes.containsKey(lEntry.pair)
+                    || !isWritable(lEntry.pair.from)
+                    || !isWritable(lEntry.pair.to)
+                    || !lIndexes.keySet().containsAll(lEntry.children)) {
+                continue;
+            }
+            lIndexes.put(lEntry.pair, lEntries.size());
+            lEntries.add(lEntry);
+            for (Type lType : new Type[]{lEntry.pair.from, lEntry.pair.to}) {
+                if (!lTypes.containsKey(lType)) {
+                    lTypes.put(lType, lTypeList.size());
+                    lTypeList.add(lType);
+                }
+            }
+        }
+
+        DataOutputStream lOutput = new DataOutputStream(aInOutput);
+        lOutput.writeInt(MAGIC);
+        lOutput.writeInt(VERSION);
+        lOutput.writeInt(aInFactories.size());
+        for (ChainedConverterFactory lFactory : aInFactories) {
+            lOutput.writeUTF(lFactory.getClass().getName());
+        }
+
+        lOutput.writeInt(lTypeList.size());
+        for (Type lType : lTypeList) {
+            writeType(lOutput, lType);
+        }
+
+        lOutput.writeInt(lEntries.size());
+        for (Entry lEntry : lEntries) {
+            lOutput.writeInt(lTypes.get(lEntry.pair.from));
+            lOutput.writeInt(lTypes.get(lEntry.pair.to));
+            lOutput.writeInt(lEntry.factory);
+            lOutput.writeInt(lEntry.children.size());
+            for (Pair lChild : lEntry.children) {
+                lOutput.writeInt(lIndexes.get(lChild));
+            }
+        }
+        lOutput.flush();
+    }
+
+    /**
+     * Reads a plan.
+     *
+     * @param aInFactories the chained factories the plan is for, in order
+     * @param aInInput where to read the plan from; it is not closed
+     * @param aInClassLoader the class loader to load classes with
+     * @return the pairs, children first, or null if the plan was written for
+     * different factories. Pairs whose classes can't be loaded are left out,
+     * along with the pairs built from them.
+     * @throws IOException if reading fails or the plan is malformed
+     */
+    static List<Entry> read(List<ChainedConverterFactory> aInFactories,
+                            InputStream aInInput,
+                            ClassLoader aInClassLoader) throws IOException {
+        DataInputStream lInput = new DataInputStream(aInInput);
+        if (lInput.readInt() != MAGIC) {
+            throw new IOException("not a conversion plan");
+        }
+        if (lInput.readInt() != VERSION) {
+            return null;
+        }
+
+        int lFactoryCount = lInput.readInt();
+        boolean lStale = lFactoryCount != aInFactories.size();
+        for (int i = 0; i < lFactoryCount; i++) {
+            String lName = lInput.readUTF();
+            lStale |= !lStale && !lName.equals(
+                    aInFactories.get(i).getClass().getName());
+        }
+        if (lStale) {
+            return null;
+        }
+
+        Type[] lTypes = new Type[lInput.readInt()];
+        for (int i = 0; i < lTypes.length; i++) {
+            lTypes[i] = readType(lInput, aInClassLoader);
+            if (lTypes[i] == null) {
+                throw new IOException("missing type " + i);
+            }
+        }
+
+        Pair[] lPairs = new Pair[lInput.readInt()];
+        List<Entry> lEntries = new ArrayList<>(lPairs.length);
+        for (int i = 0; i < lPairs.length; i++) {
+            Type lFrom = type(lTypes, lInput.readInt());
+            Type lTo = type(lTypes, lInput.readInt());
+            int lFactory = lInput.readInt();
+            if (lFactory < -1 || lFactory >= lFactoryCount) {
+                throw new IOException("bad factory position " + lFactory);
+            }
+
+            boolean lMissing = lFrom == MISSING || lTo == MISSING;
+            List<Pair> lChildren = new ArrayList<>();
+            for (int j = lInput.readInt(); j > 0; j--) {
+                int lChild = lInput.readInt();
+                if (lChild < 0 || lChild >= i) {
+                    throw new IOException("bad child index " + lChild);
+                }
+                lMissing |= lPairs[lChild] == null;
+                lChildren.add(lPairs[lChild]);
+            }
+
+            if (!lMissing) {
+                lPairs[i] = new Pair(lFrom, lTo);
+                lEntries.add(new Entry(lPairs[i], lFactory, lChildren));
+            }
+        }
+        return lEntries;
+    }
+
+    private static Type type(Type[] aInTypes, int aInIndex)
+            throws IOException {
+        if (aInIndex < 0 || aInIndex >= aInTypes.length) {
+            throw new IOException("bad type index " + aInIndex);
+        }
+        return aInTypes[aInIndex];
+    }
+
+    private static boolean isWritable(Type aInType) {
+        if (aInType instanceof Class) {
+            return true;
+        }
+        if (aInType instanceof ParameterizedType) {
+            ParameterizedType lType = (ParameterizedType) aInType;
+            if (lType.getOwnerType() != null
+                    && !isWritable(lType.getOwnerType())) {
+                return false;
+            }
+            for (Type lArgument : lType.getActualTypeArguments()) {
+                if (!isWritable(lArgument)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (aInType instanceof GenericArrayType) {
+            return isWritable(
+                    ((GenericArrayType) aInType).getGenericComponentType());
+        }
+        if (aInType instanceof WildcardType) {
+            WildcardType lType = (WildcardType) aInType;
+            return lType.getUpperBounds().length == 1
+                    && isWritable(lType.getUpperBounds()[0])
+                    && (lType.getLowerBounds().length == 0
+                            || isWritable(lType.getLowerBounds()[0]));
+        }
+        return false;
+    }
+
+    private static void writeType(DataOutputStream aInOutput, Type aInType)
+            throws IOException {
+        if (aInType == null) {
+            aInOutput.writeByte(NONE);
+        } else if (aInType instanceof Class) {
+            aInOutput.writeByte(CLASS);
+            aInOutput.writeUTF(((Class<?>) aInType).getName());
+        } else if (aInType instanceof ParameterizedType) {
+            ParameterizedType lType = (ParameterizedType) aInType;
+            aInOutput.writeByte(PARAMETERIZED);
+            writeType(aInOutput, lType.getOwnerType());
+            aInOutput.writeUTF(((Class<?>) lType.getRawType()).getName());
+            Type[] lArguments = lType.getActualTypeArguments();
+            aInOutput.writeByte(lArguments.length);
+            for (Type lArgument : lArguments) {
+                writeType(aInOutput, lArgument);
+            }
+        } else if (aInType instanceof GenericArrayType) {
+            aInOutput.writeByte(GENERIC_ARRAY);
+            writeType(aInOutput,
+                    ((GenericArrayType) aInType).getGenericComponentType());
+        } else {
+            WildcardType lType = (WildcardType) aInType;
+            aInOutput.writeByte(WILDCARD);
+            writeType(aInOutput, lType.getUpperBounds()[0]);
+            writeType(aInOutput, lType.getLowerBounds().length == 0
+                    ? null
+                    : lType.getLowerBounds()[0]);
+        }
+    }
+
+    /**
+     * Reads a type, returning {@link #MISSING} (after reading it whole) if
+     * one of its classes can't be loaded, and null if there is no type.
+     */
+    private static Type readType(DataInputStream aInInput,
+                                 ClassLoader aInClassLoader)
+            throws IOException {
+        byte lTag = aInInput.readByte();
+        switch (lTag) {
+            case NONE:
+                return null;
+            case CLASS:
+                return loadClass(aInInput.readUTF(), aInClassLoader);
+            case PARAMETERIZED: {
+                Type lOwner = readType(aInInput, aInClassLoader);
+                Type lRawType = loadClass(aInInput.readUTF(), aInClassLoader);
+                Type[] lArguments = new Type[aInInput.readByte()];
+                boolean lMissing = lOwner == MISSING || lRawType == MISSING;
+                for (int i = 0; i < lArguments.length; i++) {
+                    lArguments[i] = readType(aInInput, aInClassLoader);
+                    lMissing |= lArguments[i] == MISSING;
+                }
+                return lMissing
+                        ? MISSING
+                        : Types.parameterizedWithOwner(
+                                lOwner, (Class<?>) lRawType, lArguments);
+            }
+            case GENERIC_ARRAY: {
+                Type lComponent = readType(aInInput, aInClassLoader);
+                return lComponent == MISSING
+                        ? MISSING
+                        : Types.arrayOf(lComponent);
+            }
+            case WILDCARD: {
+                Type lUpper = readType(aInInput, aInClassLoader);
+                Type lLower = readType(aInInput, aInClassLoader);
+                if (lUpper == MISSING || lLower == MISSING) {
+                    return MISSING;
+                }
+                return lLower == null
+                        ? Types.subtypeOf(lUpper)
+                        : Types.supertypeOf(lLower);
+            }
+            default:
+                throw new IOException("bad type tag " + lTag);
+        }
+    }
+
+    private static Type loadClass(String aInName,
+                                  ClassLoader aInClassLoader) {
+        Class<?> lClass = PRIMITIVES.get(aInName);
+        if (lClass != null) {
+            return lClass;
+        }
+        try {
+            return Class.forName(aInName, false, aInClassLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return MISSING;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * File: ConverterCache.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Thread safe cache of converters keyed by (from, to) pairs of types. The
+ * absence of a converter for a given pair is cached as well.
+ */
+final class ConverterCache {
+    /**
+     * Marker used to cache the fact that no converter exists for a given pair
+     * of types.
+     */
+    private static final Converter<?, ?> NO_CONVERTER = aInFrom -> {
+        throw new UnsupportedOperationException();
+    };
+
+    /**
+     * Resolved converters, keyed by "from" type and then by "to" type. Two
+     * levels are used so cache hits don't need to allocate a composite key.
+     */
+    private final ConcurrentMap<Type, ConcurrentMap<Type, Converter<?, ?>>>
+            converters = new ConcurrentHashMap<>();
+
+    private final BiFunction<Type, Type, Converter<?, ?>> resolver;
+
+    /**
+     * Constructor
+     * @param aInResolver function used to resolve converters missing from the
+     *                    cache. It may return {@code null} when there's no
+     *                    converter for the types given.
+     */
+    ConverterCache(BiFunction<Type, Type, Converter<?, ?>> aInResolver) {
+        resolver = aInResolver;
+    }
+
+    <F, T> Converter<F, T> get(Type aInFrom, Type aInTo) {
+        ConcurrentMap<Type, Converter<?, ?>> lToMap = getToMap(aInFrom);
+        Converter<?, ?> lConverter = lToMap.get(aInTo);
+        if (lConverter == null) {
+            // resolution is done outside of computeIfAbsent as resolving a
+            // converter may recursively resolve (and cache) other converters.
+            lConverter = resolver.apply(aInFrom, aInTo);
+            Converter<?, ?> lExisting = lToMap.putIfAbsent(aInTo,
+                    lConverter == null ? NO_CONVERTER : lConverter);
+            if (lExisting != null) {
+                lConverter = lExisting;
+            }
+        }
+
+        //noinspection unchecked
+        return lConverter == NO_CONVERTER
+                ? null
+                : (Converter<F, T>) lConverter;
+    }
+
+    /**
+     * Checks whether a pair is cached, either with a converter or without
+     * one.
+     */
+    boolean contains(Type aInFrom, Type aInTo) {
+        ConcurrentMap<Type, Converter<?, ?>> lToMap = converters.get(aInFrom);
+        return lToMap != null && lToMap.containsKey(aInTo);
+    }
+
+    /**
+     * Caches a converter resolved by other means than the resolver, unless
+     * the pair is cached already.
+     *
+     * @param aInConverter the converter, or {@code null} if there's no
+     *                     converter for the types given
+     */
+    void putIfAbsent(Type aInFrom, Type aInTo, Converter<?, ?> aInConverter) {
+        getToMap(aInFrom).putIfAbsent(aInTo,
+                aInConverter == null ? NO_CONVERTER : aInConverter);
+    }
+
+    private ConcurrentMap<Type, Converter<?, ?>> getToMap(Type aInFrom) {
+        ConcurrentMap<Type, Converter<?, ?>> lToMap = converters.get(aInFrom);
+        if (lToMap == null) {
+            lToMap = converters.computeIfAbsent(
+                    aInFrom, aInKey -> new ConcurrentHashMap<>());
+        }
+        return lToMap;
+    }
+}
@@ -0,0 +1,539 @@
+/*
+ * File: ConverterCompiler.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.converter.ContainerConverter.ArrayContainerHandler;
+import mardlucca.commons.type.converter.ContainerConverter.ContainerHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Compiles converters into a single {@link MethodHandle} and then into a
+ * hidden class holding that handle as a constant.
+ * <p>
+ * Converters built by the chain are trees of small objects: container and map
+ * converters delegate to element converters, which may in turn be containers,
+ * and so on. Once many type pairs are in use, the calls between these objects
+ * become megamorphic and the JIT stops inlining them. Compiling a converter
+ * turns the whole tree into one method handle: identities, primitive
+ * conversions, containers and maps known to this class are translated into
+ * method handle combinators, and any other converter is bound as a constant
+ * receiver. The handle is then stored as a class constant of a hidden class
+ * generated for that converter, so the JIT sees the entire conversion as one
+ * piece of code it can inline.
+ */
+public final class ConverterCompiler {
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONVERT_TYPE =
+            methodType(Object.class, Object.class);
+
+    /**
+     * Bytecode of the hidden classes generated for compiled converters. The
+     * same bytes are used for every converter, each class differing only by
+     * the method handle given to it as class data.
+     */
+    private static final byte[] TEMPLATE = createTemplate();
+
+    private static final MethodHandle CONVERT;
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle NEW_INSTANCE;
+    private static final MethodHandle FINISH;
+    private static final MethodHandle GET_SIZE;
+    private static final MethodHandle GET;
+    private static final MethodHandle SET;
+    private static final MethodHandle ADD;
+    private static final MethodHandle TO_ARRAY;
+    private static final MethodHandle NEW_MAP;
+    private static final MethodHandle FINISH_MAP;
+    private static final MethodHandle ENTRIES;
+    private static final MethodHandle GET_KEY;
+    private static final MethodHandle GET_VALUE;
+    private static final MethodHandle PUT;
+    private static final MethodHandle MAP_SIZE;
+    private static final MethodHandle IS_RECORDED;
+    private static final MethodHandle RECORD_FAILURE;
+    private static final MethodHandle ELEMENT_AT = MethodHandles
+            .arrayElementGetter(Object[].class)
+            .asType(methodType(Object.class, Object.class, int.class));
+    private static final MethodHandle LENGTH = MethodHandles
+            .arrayLength(Object[].class)
+            .asType(methodType(int.class, Object.class));
+
+    static {
+        try {
+            CONVERT = LOOKUP.findVirtual(Converter.class, "convert",
+                    CONVERT_TYPE);
+            IS_NULL = LOOKUP.findStatic(Objects.class, "isNull",
+                    methodType(boolean.class, Object.class));
+            NEW_INSTANCE = LOOKUP.findVirtual(ContainerHandler.class,
+                    "newInstance", methodType(Object.class, int.class));
+            FINISH = LOOKUP.findVirtual(ContainerHandler.class, "finish",
+                    methodType(Object.class, Object.class));
+            GET_SIZE = LOOKUP.findVirtual(ContainerHandler.class, "getSize",
+                    methodType(int.class, Object.class));
+            GET = LOOKUP.findVirtual(ArrayContainerHandler.class, "get",
+                    methodType(Object.class, Object.class, int.class));
+            SET = LOOKUP.findVirtual(ArrayContainerHandler.class, "set",
+                    methodType(void.class, Object.class, int.class,
+                            Object.class));
+            ADD = LOOKUP.findVirtual(Collection.class, "add",
+                    methodType(boolean.class, Object.class))
+                    .asType(methodType(void.class, Object.class,
+                            Object.class));
+            TO_ARRAY = LOOKUP.findVirtual(Collection.class, "toArray",
+                    methodType(Object[].class))
+                    .asType(CONVERT_TYPE);
+            NEW_MAP = LOOKUP.findVirtual(MapConverter.class, "newMap",
+                    methodType(Map.class, int.class))
+                    .asType(methodType(Object.class, MapConverter.class,
+                            int.class));
+            FINISH_MAP = LOOKUP.findVirtual(MapConverter.class, "finish",
+                    methodType(Map.class, Map.class))
+                    .asType(methodType(Object.class, MapConverter.class,
+                            Object.class));
+            ENTRIES = LOOKUP.findStatic(ConverterCompiler.class, "entries",
+                    methodType(Object[].class, Map.class))
+                    .asType(CONVERT_TYPE);
+            GET_KEY = LOOKUP.findVirtual(Map.Entry.class, "getKey",
+                    methodType(Object.class))
+                    .asType(CONVERT_TYPE);
+            GET_VALUE = LOOKUP.findVirtual(Map.Entry.class, "getValue",
+                    methodType(Object.class))
+                    .asType(CONVERT_TYPE);
+            PUT = LOOKUP.findVirtual(Map.class, "put",
+                    methodType(Object.class, Object.class, Object.class))
+                    .asType(methodType(void.class, Object.class,
+                            Object.class, Object.class));
+            MAP_SIZE = LOOKUP.findVirtual(Map.class, "size",
+                    methodType(int.class))
+                    .asType(methodType(int.class, Object.class));
+            IS_RECORDED = LOOKUP.findStatic(ContainerConversionEvent.class,
+                    "isRecorded", methodType(boolean.class, int.class));
+            RECORD_FAILURE = LOOKUP.findStatic(ConverterCompiler.class,
+                    "recordFailure", methodType(Object.class,
+                            Throwable.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private ConverterCompiler() {
+    }
+
+    /**
+     * Compiles a converter into a hidden class. The converter returned
+     * converts values exactly like the one given, but only implements
+     * {@link Converter#convert}: it is not {@link Converter#isInjective()
+     * injective} as far as callers can tell, and it does not implement the
+     * primitive shapes of the converter given, e.g.
+     * {@link mardlucca.commons.type.ToIntConverter}. Identities are returned
+     * as they are, as there is nothing to compile and callers check for them.
+     *
+     * @param aInConverter the converter to compile
+     * @param <F> the type converted from
+     * @param <T> the type converted to
+     * @return the compiled converter, the converter given if it is an
+     * identity, or {@code null} if the converter given is null.
+     */
+    public static <F, T> Converter<F, T> compile(
+            Converter<F, T> aInConverter) {
+        if (aInConverter == null || aInConverter.isIdentity()) {
+            return aInConverter;
+        }
+
+        try {
+            Lookup lLookup = LOOKUP.defineHiddenClassWithClassData(
+                    TEMPLATE, toMethodHandle(aInConverter), true);
+            //noinspection unchecked
+            return (Converter<F, T>) lLookup.findConstructor(
+                    lLookup.lookupClass(), methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(
+                    "Could not compile converter " + aInConverter, e);
+        }
+    }
+
+    /**
+     * Translates a converter into a method handle of type (Object)Object.
+     *
+     * @param aInConverter the converter to translate
+     * @return the method handle
+     */
+    static MethodHandle toMethodHandle(Converter<?, ?> aInConverter) {
+        if (aInConverter.isIdentity()) {
+            return MethodHandles.identity(Object.class);
+        }
+        if (aInConverter instanceof PrimitiveConverter) {
+            return toMethodHandle((PrimitiveConverter<?, ?>) aInConverter);
+        }
+        if (aInConverter instanceof ContainerConverter) {
+            return toMethodHandle((ContainerConverter) aInConverter);
+        }
+        if (aInConverter instanceof MapConverter) {
+            return toMethodHandle((MapConverter<?, ?, ?, ?>) aInConverter);
+        }
+        return CONVERT.bindTo(aInConverter);
+    }
+
+    private static MethodHandle toMethodHandle(
+            PrimitiveConverter<?, ?> aInConverter) {
+        Class<?> lFromType = aInConverter.getFromType();
+        Class<?> lToType = aInConverter.getToType();
+
+        // unboxes the wrapper, widens the primitive and boxes it back
+        MethodHandle lConversion = MethodHandles.identity(lFromType)
+                .asType(methodType(lToType, lFromType))
+                .asType(methodType(
+                        (Class<?>) TypeUtils.boxingType(lToType),
+                        (Class<?>) TypeUtils.boxingType(lFromType)))
+                .asType(CONVERT_TYPE);
+        return nullSafe(lConversion);
+    }
+
+    /**
+     * Containers are translated into a counted loop over the elements of the
+     * source container. Collections are first copied into an array, so that
+     * all sources can be read by index. Containers converted in parallel keep
+     * their own loop and only have their element converter compiled.
+     * Conversions that are recorded as flight recorder events go through the
+     * converter itself, as the loop does not record them.
+     */
+    private static MethodHandle toMethodHandle(
+            ContainerConverter aInConverter) {
+        ContainerHandler lFromHandler = aInConverter.getFromHandler();
+        ContainerHandler lToHandler = aInConverter.getToHandler();
+        if (aInConverter.getParallelism() != null) {
+            return CONVERT.bindTo(new ContainerConverter(
+                    lFromHandler, lToHandler,
+                    compile(aInConverter.getElementConverter()),
+                    aInConverter.getParallelism()));
+        }
+        MethodHandle lElementConverter =
+                toMethodHandle(aInConverter.getElementConverter());
+
+        // (Object source) -> int, (Object source, int index) -> Object
+        MethodHandle lSize;
+        MethodHandle lGet;
+        if (lFromHandler instanceof ArrayContainerHandler) {
+            lSize = GET_SIZE.bindTo(lFromHandler);
+            lGet = GET.bindTo(lFromHandler);
+        } else {
+            lSize = LENGTH;
+            lGet = ELEMENT_AT;
+        }
+
+        // (Object target, int index, Object value) -> void
+        MethodHandle lStore = lToHandler instanceof ArrayContainerHandler
+                ? SET.bindTo(lToHandler)
+                : MethodHandles.dropArguments(ADD, 1, int.class);
+
+        // (Object source) -> Object target
+        MethodHandle lInit = MethodHandles.filterReturnValue(
+                lSize, NEW_INSTANCE.bindTo(lToHandler));
+
+        // (Object target, int index, Object source) -> Object target
+        MethodHandle lBody = MethodHandles.collectArguments(
+                storeAndReturn(lStore), 2,
+                MethodHandles.filterReturnValue(lGet, lElementConverter));
+        lBody = MethodHandles.permuteArguments(lBody,
+                methodType(Object.class, Object.class, int.class,
+                        Object.class),
+                0, 1, 2, 1);
+
+        MethodHandle lLoop = MethodHandles.countedLoop(lSize, lInit, lBody);
+        if (!(lFromHandler instanceof ArrayContainerHandler)) {
+            lLoop = MethodHandles.filterArguments(lLoop, 0, TO_ARRAY);
+        }
+        if (!(lToHandler instanceof ArrayContainerHandler)) {
+            lLoop = MethodHandles.filterReturnValue(
+                    lLoop, FINISH.bindTo(lToHandler));
+        }
+        return nullSafe(recorded(lLoop, GET_SIZE.bindTo(lFromHandler),
+                aInConverter));
+    }
+
+    /**
+     * Maps are translated into a counted loop over an array with the entries
+     * of the source map. Maps converted in parallel keep their own loop and
+     * only have their key and value converters compiled. Conversions that are
+     * recorded as flight recorder events go through the converter itself.
+     */
+    private static MethodHandle toMethodHandle(
+            MapConverter<?, ?, ?, ?> aInConverter) {
+        if (aInConverter.getParallelism() != null) {
+            return CONVERT.bindTo(new MapConverter<>(
+                    compile(aInConverter.getKeyConverter()),
+                    compile(aInConverter.getValueConverter()),
+                    aInConverter.getMapFactory(),
+                    aInConverter.getParallelism()));
+        }
+        MethodHandle lKey = MethodHandles.filterReturnValue(
+                GET_KEY, toMethodHandle(aInConverter.getKeyConverter()));
+        MethodHandle lValue = MethodHandles.filterReturnValue(
+                GET_VALUE, toMethodHandle(aInConverter.getValueConverter()));
+
+        // (Object[] entries) -> Object target
+        MethodHandle lInit = MethodHandles.filterReturnValue(
+                LENGTH, NEW_MAP.bindTo(aInConverter));
+
+        // (Object target, Object entry, Object entry) -> Object target
+        MethodHandle lBody = MethodHandles.filterArguments(
+                storeAndReturn(PUT), 1, lKey, lValue);
+        // (Object target, Object[] entries, int index, Object[] entries,
+        //  int index) -> Object target
+        lBody = MethodHandles.collectArguments(lBody, 2, ELEMENT_AT);
+        lBody = MethodHandles.collectArguments(lBody, 1, ELEMENT_AT);
+        // (Object target, int index, Object[] entries) -> Object target
+        lBody = MethodHandles.permuteArguments(lBody,
+                methodType(Object.class, Object.class, int.class,
+                        Object.class),
+                0, 2, 1, 2, 1);
+
+        MethodHandle lLoop = MethodHandles.countedLoop(LENGTH, lInit, lBody);
+        lLoop = MethodHandles.filterReturnValue(
+                lLoop, FINISH_MAP.bindTo(aInConverter));
+        return nullSafe(recorded(
+                MethodHandles.filterArguments(lLoop, 0, ENTRIES), MAP_SIZE,
+                aInConverter));
+    }
+
+    /**
+     * Makes a compiled loop record what its converter records: containers
+     * whose conversion is recorded as a {@link ContainerConversionEvent} are
+     * converted by the converter itself, and failures are recorded as
+     * {@link ConversionFailureEvent}s.
+     *
+     * @param aInLoop the loop, of type (Object)Object
+     * @param aInSize the size of a source container, of type (Object)int
+     * @param aInConverter the converter the loop was compiled from
+     */
+    private static MethodHandle recorded(MethodHandle aInLoop,
+                                         MethodHandle aInSize,
+                                         Converter<?, ?> aInConverter) {
+        MethodHandle lRecorded = MethodHandles.guardWithTest(
+                MethodHandles.filterReturnValue(aInSize, IS_RECORDED),
+                CONVERT.bindTo(aInConverter),
+                aInLoop);
+        return MethodHandles.catchException(
+                lRecorded, Throwable.class, RECORD_FAILURE);
+    }
+
+    /**
+     * Records a failed conversion and rethrows what it threw. Failures
+     * already recorded by a nested converter are not recorded again.
+     */
+    private static Object recordFailure(Throwable aInException,
+                                        Object aInFrom) throws Throwable {
+        ConversionFailureEvent.record(aInFrom, aInException);
+        throw aInException;
+    }
+
+    /**
+     * Adapts a void method handle whose first argument is the target
+     * container so that it returns the target container.
+     */
+    private static MethodHandle storeAndReturn(MethodHandle aInStore) {
+        Class<?>[] lParameters = aInStore.type().parameterArray();
+        MethodHandle lReturnTarget = MethodHandles.dropArguments(
+                MethodHandles.identity(Object.class), 1,
+                Arrays.copyOfRange(lParameters, 1,
+                        lParameters.length));
+        return MethodHandles.foldArguments(lReturnTarget, aInStore);
+    }
+
+    /**
+     * Guards a method handle of type (Object)Object so that it returns
+     * {@code null} for a {@code null} argument.
+     */
+    private static MethodHandle nullSafe(MethodHandle aInHandle) {
+        return MethodHandles.guardWithTest(
+                IS_NULL,
+                MethodHandles.dropArguments(
+                        MethodHandles.constant(Object.class, null),
+                        0, Object.class),
+                aInHandle);
+    }
+
+    private static Object[] entries(Map<?, ?> aInMap) {
+        return aInMap.entrySet().toArray();
+    }
+
+    /**
+     * Creates the bytecode for a class equivalent to:
+     * <pre>
+     * final class CompiledConverter implements Converter {
+     *     public Object convert(Object aInFrom) {
+     *         return (Object) HANDLE.invokeExact(aInFrom);
+     *     }
+     * }
+     * </pre>
+     * where HANDLE is a dynamic constant loaded with
+     * {@link MethodHandles#classData}.
+     */
+    private static byte[] createTemplate() {
+        try {
+            ByteArrayOutputStream lBytes = new ByteArrayOutputStream();
+            DataOutputStream lOut = new DataOutputStream(lBytes);
+            lOut.writeInt(0xCAFEBABE);
+            lOut.writeShort(0); // minor version
+            lOut.writeShort(59); // major version (Java 15)
+
+            // constant pool
+            lOut.writeShort(31);
+            utf8(lOut, ConverterCompiler.class.getPackage().getName()
+                    .replace('.', '/') + "/CompiledConverter"); // #1
+            classRef(lOut, 1); // #2
+            utf8(lOut, "java/lang/Object"); // #3
+            classRef(lOut, 3); // #4
+            utf8(lOut, Converter.class.getName().replace('.', '/')); // #5
+            classRef(lOut, 5); // #6
+            utf8(lOut, "<init>"); // #7
+            utf8(lOut, "()V"); // #8
+            nameAndType(lOut, 7, 8); // #9
+            memberRef(lOut, 4, 9); // #10 Object.<init>
+            utf8(lOut, "convert"); // #11
+            utf8(lOut, "(Ljava/lang/Object;)Ljava/lang/Object;"); // #12
+            utf8(lOut, "Code"); // #13
+            utf8(lOut, "java/lang/invoke/MethodHandle"); // #14
+            classRef(lOut, 14); // #15
+            utf8(lOut, "invokeExact"); // #16
+            nameAndType(lOut, 16, 12); // #17
+            memberRef(lOut, 15, 17); // #18 MethodHandle.invokeExact
+            utf8(lOut, "java/lang/invoke/MethodHandles"); // #19
+            classRef(lOut, 19); // #20
+            utf8(lOut, "classData"); // #21
+            utf8(lOut, "(Ljava/lang/invoke/MethodHandles$Lookup;"
+                    + "Ljava/lang/String;Ljava/lang/Class;)"
+                    + "Ljava/lang/Object;"); // #22
+            nameAndType(lOut, 21, 22); // #23
+            memberRef(lOut, 20, 23); // #24 MethodHandles.classData
+            lOut.writeByte(15); // #25 CONSTANT_MethodHandle
+            lOut.writeByte(6); // REF_invokeStatic
+            lOut.writeShort(24);
+            utf8(lOut, "_"); // #26
+            utf8(lOut, "Ljava/lang/invoke/MethodHandle;"); // #27
+            nameAndType(lOut, 26, 27); // #28
+            lOut.writeByte(17); // #29 CONSTANT_Dynamic
+            lOut.writeShort(0); // bootstrap method #0
+            lOut.writeShort(28);
+            utf8(lOut, "BootstrapMethods"); // #30
+
+            lOut.writeShort(0x0030); // ACC_FINAL | ACC_SUPER
+            lOut.writeShort(2); // this class
+            lOut.writeShort(4); // super class
+            lOut.writeShort(1); // interfaces
+            lOut.writeShort(6);
+            lOut.writeShort(0); // fields
+
+            lOut.writeShort(2); // methods
+            lOut.writeShort(0x0001); // public <init>()
+            lOut.writeShort(7);
+            lOut.writeShort(8);
+            lOut.writeShort(1);
+            lOut.writeShort(13);
+            lOut.writeInt(17);
+            lOut.writeShort(1); // max stack
+            lOut.writeShort(1); // max locals
+            lOut.writeInt(5);
+            lOut.writeByte(0x2A); // aload_0
+            lOut.writeByte(0xB7); // invokespecial Object.<init>
+            lOut.writeShort(10);
+            lOut.writeByte(0xB1); // return
+            lOut.writeShort(0); // exception table
+            lOut.writeShort(0); // attributes
+
+            lOut.writeShort(0x0001); // public Object convert(Object)
+            lOut.writeShort(11);
+            lOut.writeShort(12);
+            lOut.writeShort(1);
+            lOut.writeShort(13);
+            lOut.writeInt(19);
+            lOut.writeShort(2); // max stack
+            lOut.writeShort(2); // max locals
+            lOut.writeInt(7);
+            lOut.writeByte(0x12); // ldc HANDLE
+            lOut.writeByte(29);
+            lOut.writeByte(0x2B); // aload_1
+            lOut.writeByte(0xB6); // invokevirtual MethodHandle.invokeExact
+            lOut.writeShort(18);
+            lOut.writeByte(0xB0); // areturn
+            lOut.writeShort(0); // exception table
+            lOut.writeShort(0); // attributes
+
+            lOut.writeShort(1); // class attributes
+            lOut.writeShort(30); // BootstrapMethods
+            lOut.writeInt(6);
+            lOut.writeShort(1);
+            lOut.writeShort(25); // MethodHandles.classData
+            lOut.writeShort(0); // no static arguments
+            return lBytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void utf8(DataOutputStream aInOut, String aInValue)
+            throws IOException {
+        aInOut.writeByte(1);
+        aInOut.writeUTF(aInValue);
+    }
+
+    private static void classRef(DataOutputStream aInOut, int aInName)
+            throws IOException {
+        aInOut.writeByte(7);
+        aInOut.writeShort(aInName);
+    }
+
+    private static void nameAndType(
+            DataOutputStream aInOut, int aInName, int aInDescriptor)
+            throws IOException {
+        aInOut.writeByte(12);
+        aInOut.writeShort(aInName);
+        aInOut.writeShort(aInDescriptor);
+    }
+
+    private static void memberRef(
+            DataOutputStream aInOut, int aInClass, int aInNameAndType)
+            throws IOException {
+        aInOut.writeByte(10);
+        aInOut.writeShort(aInClass);
+        aInOut.writeShort(aInNameAndType);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * File: ConverterRegistry.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the (from, to) pairs an application is known to convert ahead of
+ * time, so the first requests after startup don't pay for walking the chain
+ * or for running converters in the interpreter. Once every pair is declared,
+ * the registry can be {@link #freeze(Fallback) frozen} into a factory that
+ * looks converters up in an immutable table, without ever consulting the
+ * delegate again (unless configured to, for pairs that were not declared).
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * ConverterFactory lFactory = new ConverterRegistry(aInFactory)
+ *         .declare(int.class, long.class)
+ *         .warmUp(new TypeReference<List<Integer>>() {},
+ *                 new TypeReference<long[]>() {},
+ *                 Arrays.asList(1, 2, 3), 10000)
+ *         .freeze(ConverterRegistry.Fallback.FAIL);
+ * }</pre>
+ * A registry is meant to be set up by a single thread at startup; the frozen
+ * factories it creates are thread safe.
+ */
+public class ConverterRegistry implements ConverterFactory {
+    /**
+     * Written by warm-up loops so the conversions they run can't be
+     * optimized away.
+     */
+    private static volatile Object sink;
+
+    private final ConverterFactory delegate;
+
+    /**
+     * Declared converters, keyed by "from" type and then by "to" type.
+     */
+    private final Map<Type, Map<Type, Converter<?, ?>>> converters =
+            new LinkedHashMap<>();
+
+    /**
+     * What frozen factories do when asked for a pair that was not declared.
+     */
+    public enum Fallback {
+        /**
+         * Resolve the converter through the delegate, as if the factory
+         * wasn't frozen.
+         */
+        DELEGATE,
+
+        /**
+         * Throw an {@link IllegalArgumentException}.
+         */
+        FAIL
+    }
+
+    public ConverterRegistry(ConverterFactory aInDelegate) {
+        delegate = aInDelegate;
+    }
+
+    /**
+     * Resolves the converter for a pair of types right away.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @return this registry
+     * @throws IllegalArgumentException if there is no converter for the pair
+     */
+    public ConverterRegistry declare(Type aInFrom, Type aInTo) {
+        resolve(aInFrom, aInTo);
+        return this;
+    }
+
+    /**
+     * Resolves the converter for a pair of types right away.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @return this registry
+     * @throws IllegalArgumentException if there is no converter for the pair
+     */
+    public ConverterRegistry declare(
+            TypeReference<?> aInFrom, TypeReference<?> aInTo) {
+        return declare(aInFrom.getType(), aInTo.getType());
+    }
+
+    /**
+     * Resolves the converter for a pair of types right away and then runs it
+     * on a sample value a number of times, so it gets compiled by the JIT
+     * before real requests come in.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @param aInSample the value to convert; it should look like the values
+     *                  converted in production, e.g. containers of typical
+     *                  sizes
+     * @param aInIterations how many times to convert the sample
+     * @param <F> the type converted from
+     * @return this registry
+     * @throws IllegalArgumentException if there is no converter for the pair,
+     * or if the number of iterations is negative
+     */
+    public <F> ConverterRegistry warmUp(
+            Type aInFrom, Type aInTo, F aInSample, int aInIterations) {
+        if (aInIterations < 0) {
+            throw new IllegalArgumentException(
+                    "iterations must not be negative: " + aInIterations);
+        }
+
+        Converter<F, ?> lConverter = resolve(aInFrom, aInTo);
+        for (int i = 0; i < aInIterations; i++) {
+            sink = lConverter.convert(aInSample);
+        }
+        return this;
+    }
+
+    /**
+     * Resolves the converter for a pair of types right away and then runs it
+     * on a sample value a number of times, so it gets compiled by the JIT
+     * before real requests come in.
+     *
+     * @param aInFrom the type converted from
+     * @param aInTo the type converted to
+     * @param aInSample the value to convert
+     * @param aInIterations how many times to convert the sample
+     * @param <F> the type converted from
+     * @return this registry
+     * @throws IllegalArgumentException if there is no converter for the pair,
+     * or if the number of iterations is negative
+     * @see #warmUp(Type, Type, Object, int)
+     */
+    public <F> ConverterRegistry warmUp(
+            TypeReference<F> aInFrom, TypeReference<?> aInTo,
+            F aInSample, int aInIterations) {
+        return warmUp(aInFrom.getType(), aInTo.getType(), aInSample,
+                aInIterations);
+    }
+
+    /**
+     * Returns the converter declared for a pair of types, or the one the
+     * delegate resolves if the pair was not declared.
+     */
+    @Override
+    public <F, T> Converter<F, T> getConverter(Type aInFrom, Type aInTo) {
+        Map<Type, Converter<?, ?>> lToMap = converters.get(aInFrom);
+        Converter<?, ?> lConverter = lToMap == null ? null : lToMap.get(aInTo);
+        //noinspection unchecked
+        return lConverter != null
+                ? (Converter<F, T>) lConverter
+                : delegate.getConverter(aInFrom, aInTo);
+    }
+
+    /**
+     * Creates a factory that serves the pairs declared so far from an
+     * immutable table. Pairs declared afterwards are not seen by it.
+     *
+     * @param aInFallback what to do for pairs that were not declared
+     * @return the frozen factory
+     */
+    public ConverterFactory freeze(Fallback aInFallback) {
+        return new FrozenConverterFactory(converters, delegate, aInFallback);
+    }
+
+    private <F, T> Converter<F, T> resolve(Type aInFrom, Type aInTo) {
+        Converter<F, T> lConverter = delegate.getConverter(aInFrom, aInTo);
+        if (lConverter == null) {
+            throw new IllegalArgumentException("no converter from "
+                    + aInFrom.getTypeName() + " to " + aInTo.getTypeName());
+        }
+        converters.computeIfAbsent(aInFrom, aInKey -> new LinkedHashMap<>())
+                .put(aInTo, lConverter);
+        return lConverter;
+    }
+
+    /**
+     * Factory that looks converters up in a table that never changes after
+     * it is built, so lookups take no locks and write nothing.
+     */
+    private static final class FrozenConverterFactory
+            implements ConverterFactory {
+        private final Map<Type, Map<Type, Converter<?, ?>>> converters;
+        private final ConverterFactory delegate;
+        private final Fallback fallback;
+
+        FrozenConverterFactory(
+                Map<Type, Map<Type, Converter<?, ?>>> aInConverters,
+                ConverterFactory aInDelegate, Fallback aInFallback) {
+            // copied, so the registry can go on declaring pairs; final
+            // fields publish the copy safely to every thread
+            converters = new HashMap<>();
+            aInConverters.forEach((aInFrom, aInToMap) ->
+                    converters.put(aInFrom, new HashMap<>(aInToMap)));
+            delegate = aInDelegate;
+            fallback = aInFallback;
+        }
+
+        @Override
+        public <F, T> Converter<F, T> getConverter(Type aInFrom, Type aInTo) {
+            Map<Type, Converter<?, ?>> lToMap = converters.get(aInFrom);
+            Converter<?, ?> lConverter =
+                    lToMap == null ? null : lToMap.get(aInTo);
+            if (lConverter != null) {
+                //noinspection unchecked
+                return (Converter<F, T>) lConverter;
+            }
+
+            if (fallback == Fallback.FAIL) {
+                throw new IllegalArgumentException("converter from "
+                        + aInFrom.getTypeName() + " to "
+                        + aInTo.getTypeName() + " was not declared");
+            }
+            return delegate.getConverter(aInFrom, aInTo);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * File: ConverterResolutionEvent.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+
+import java.lang.reflect.Type;
+
+/**
+ * Flight recorder event for the resolution of a converter by a
+ * {@link ChainingConverterFactory}, i.e. for a cache miss. Disabled by
+ * default. Nested resolutions have events of their own.
+ */
+@Name("mardlucca.commons.type.ConverterResolution")
+@Label("Converter Resolution")
+@Category({"Mardlucca Commons", "Type Conversion"})
+@Description("Resolution of a converter by a chain of factories")
+@Enabled(false)
+@StackTrace(false)
+final class ConverterResolutionEvent extends Event {
+    private static final ConverterResolutionEvent PROBE =
+            new ConverterResolutionEvent();
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Factory")
+    @Description("The chained factory that built the converter")
+    String factory;
+
+    @Label("Found")
+    boolean found;
+
+    /**
+     * Checks whether these events are being recorded. This is a static check
+     * once the event class is registered with the flight recorder.
+     */
+    static boolean isRecording() {
+        return PROBE.isEnabled();
+    }
+
+    /**
+     * Starts recording the resolution of a converter.
+     */
+    static ConverterResolutionEvent start(Type aInFrom, Type aInTo) {
+        ConverterResolutionEvent lEvent = new ConverterResolutionEvent();
+        lEvent.from = aInFrom.getTypeName();
+        lEvent.to = aInTo.getTypeName();
+        lEvent.begin();
+        return lEvent;
+    }
+
+    /**
+     * Finishes recording the resolution, committing the event.
+     *
+     * @param aInFactory the factory that built the converter, or null if no
+     *                   converter was found
+     */
+    void finish(ChainedConverterFactory aInFactory) {
+        end();
+        found = aInFactory != null;
+        factory = found ? aInFactory.getClass().getName() : null;
+        commit();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * File: ConvertingSpliterator.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator that converts the elements of another spliterator as they
+ * are traversed. Splitting splits the source spliterator, so parallel streams
+ * built on top of this split as well as they would on the source.
+ * <p>
+ * The characteristics of the source are kept, except for
+ * {@link Spliterator#DISTINCT}, {@link Spliterator#SORTED} and
+ * {@link Spliterator#NONNULL}, none of which is guaranteed to hold after
+ * conversion.
+ */
+class ConvertingSpliterator<F, T> implements Spliterator<T> {
+    private static final int DROPPED_CHARACTERISTICS =
+            DISTINCT | SORTED | NONNULL;
+
+    private Spliterator<F> source;
+    private Converter<F, T> converter;
+
+    ConvertingSpliterator(Spliterator<F> aInSource,
+                          Converter<F, T> aInConverter) {
+        source = aInSource;
+        converter = aInConverter;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> aInAction) {
+        return source.tryAdvance(
+                aInElement -> aInAction.accept(converter.convert(aInElement)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> aInAction) {
+        source.forEachRemaining(
+                aInElement -> aInAction.accept(converter.convert(aInElement)));
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<F> lPrefix = source.trySplit();
+        return lPrefix == null
+                ? null
+                : new ConvertingSpliterator<>(lPrefix, converter);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return source.getExactSizeIfKnown();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~DROPPED_CHARACTERISTICS;
+    }
+}
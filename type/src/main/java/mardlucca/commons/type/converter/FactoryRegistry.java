@@ -0,0 +1,168 @@
+/*
+ * File: FactoryRegistry.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * The registry behind {@link CollectionFactories} and {@link MapFactories}.
+ * Factories are keyed by the raw class of the target type; concrete classes
+ * with no factory are created with their public no-arg constructor, and
+ * enum containers ({@link java.util.EnumSet}, {@link java.util.EnumMap})
+ * are created for the enum their type is parameterized with.
+ *
+ * @param <T> the type of the factories
+ */
+final class FactoryRegistry<T> {
+    private final Class<?> containerClass;
+    private final Class<?> enumContainerClass;
+    private final Function<Type, Type> enumType;
+    @SuppressWarnings("rawtypes")
+    private final Function<Class<Enum>, T> enumFactory;
+    private final Function<Constructor<?>, T> constructorFactory;
+
+    private final ConcurrentMap<Class<?>, T> factories =
+            new ConcurrentHashMap<>();
+    /**
+     * The classes registered with a factory other than the default one.
+     */
+    private final Set<Class<?>> customized = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param aInContainerClass the class all target classes extend
+     * @param aInEnumContainerClass the enum container class, which is not
+     *                              registrable
+     * @param aInEnumType returns the type whose enum the enum containers of
+     *                    a target type are created for
+     * @param aInEnumFactory creates the factory of enum containers for an
+     *                       enum
+     * @param aInConstructorFactory creates the factory that creates
+     *                              containers with a no-arg constructor
+     */
+    @SuppressWarnings("rawtypes")
+    FactoryRegistry(Class<?> aInContainerClass,
+                    Class<?> aInEnumContainerClass,
+                    Function<Type, Type> aInEnumType,
+                    Function<Class<Enum>, T> aInEnumFactory,
+                    Function<Constructor<?>, T> aInConstructorFactory) {
+        containerClass = aInContainerClass;
+        enumContainerClass = aInEnumContainerClass;
+        enumType = aInEnumType;
+        enumFactory = aInEnumFactory;
+        constructorFactory = aInConstructorFactory;
+    }
+
+    /**
+     * Registers one of the default factories.
+     */
+    void registerDefault(Class<?> aInClass, T aInFactory) {
+        factories.put(aInClass, aInFactory);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the class does not extend the
+     * container class or is the enum container class
+     */
+    void register(Class<?> aInClass, T aInFactory) {
+        if (!containerClass.isAssignableFrom(aInClass)
+                || enumContainerClass.isAssignableFrom(aInClass)) {
+            throw new IllegalArgumentException("not a registrable "
+                    + containerClass.getSimpleName().toLowerCase()
+                    + " class: " + aInClass.getName());
+        }
+        factories.put(aInClass, aInFactory);
+        customized.add(aInClass);
+    }
+
+    /**
+     * @return whether a factory was registered for the raw class of a target
+     * type, in place of the default one
+     */
+    boolean isCustomized(Type aInType) {
+        Class<?> lClass = TypeUtils.getRawClass(aInType);
+        return lClass != null && customized.contains(lClass);
+    }
+
+    /**
+     * @return the factory for a target type, or null if no factory was
+     * registered for its raw class and the class can't be instantiated
+     */
+    T get(Type aInType) {
+        Class<?> lClass = TypeUtils.getRawClass(aInType);
+        if (lClass == null) {
+            return null;
+        }
+        if (enumContainerClass.isAssignableFrom(lClass)) {
+            return getEnumFactory(aInType);
+        }
+
+        T lFactory = factories.get(lClass);
+        if (lFactory == null) {
+            lFactory = getConstructorFactory(lClass);
+            if (lFactory != null) {
+                T lExisting = factories.putIfAbsent(lClass, lFactory);
+                if (lExisting != null) {
+                    lFactory = lExisting;
+                }
+            }
+        }
+        return lFactory;
+    }
+
+    /**
+     * Creates a container with a no-arg constructor.
+     */
+    static Object newInstance(Constructor<?> aInConstructor) {
+        try {
+            return aInConstructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate "
+                    + aInConstructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private T getEnumFactory(Type aInType) {
+        Class<?> lEnumClass = TypeUtils.getRawClass(enumType.apply(aInType));
+        if (lEnumClass == null || !lEnumClass.isEnum()) {
+            return null;
+        }
+        return enumFactory.apply((Class<Enum>) lEnumClass);
+    }
+
+    private T getConstructorFactory(Class<?> aInClass) {
+        if (aInClass.isInterface()
+                || Modifier.isAbstract(aInClass.getModifiers())) {
+            return null;
+        }
+        try {
+            return constructorFactory.apply(aInClass.getConstructor());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
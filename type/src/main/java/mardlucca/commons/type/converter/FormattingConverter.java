@@ -0,0 +1,154 @@
+/*
+ * File: FormattingConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.FormatUtils;
+import mardlucca.commons.type.AppendingConverter;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts values to the text their {@link Object#toString()} gives. Values
+ * appended to a target are written into it: primitives are formatted with
+ * {@link FormatUtils}, character sequences are appended as they are, and
+ * collections and maps that use the {@code toString()} of
+ * {@link AbstractCollection} and {@link AbstractMap} stream their elements
+ * into the target, in the same format. Other values are appended as the
+ * string their {@code toString()} returns.
+ */
+class FormattingConverter implements AppendingConverter<Object> {
+    static final FormattingConverter INSTANCE = new FormattingConverter();
+
+    /**
+     * Whether instances of a class format themselves with the
+     * {@code toString()} of {@link AbstractCollection} or
+     * {@link AbstractMap}.
+     */
+    private static final ClassValue<Boolean> STREAMED =
+            new ClassValue<Boolean>() {
+                @Override
+                protected Boolean computeValue(Class<?> aInClass) {
+                    try {
+                        Class<?> lDeclaringClass = aInClass
+                                .getMethod("toString").getDeclaringClass();
+                        return lDeclaringClass == AbstractCollection.class
+                                || lDeclaringClass == AbstractMap.class;
+                    } catch (NoSuchMethodException e) {
+                        return false;
+                    }
+                }
+            };
+
+    private FormattingConverter() {
+    }
+
+    /**
+     * Same as calling {@link Object#toString()} on the value, which for
+     * strings returns the string itself.
+     */
+    @Override
+    public String convert(Object aInFrom) {
+        return aInFrom == null ? null : aInFrom.toString();
+    }
+
+    @Override
+    public void appendTo(Object aInFrom, Appendable aInTo)
+            throws IOException {
+        if (aInFrom == null) {
+            aInTo.append("null");
+        } else if (aInFrom instanceof CharSequence) {
+            aInTo.append((CharSequence) aInFrom);
+        } else if (aInFrom instanceof Integer || aInFrom instanceof Long
+                || aInFrom instanceof Short || aInFrom instanceof Byte) {
+            FormatUtils.append(((Number) aInFrom).longValue(), aInTo);
+        } else if (aInFrom instanceof Double) {
+            FormatUtils.append((double) (Double) aInFrom, aInTo);
+        } else if (aInFrom instanceof Float) {
+            FormatUtils.append((float) (Float) aInFrom, aInTo);
+        } else if (aInFrom instanceof Boolean) {
+            FormatUtils.append((boolean) (Boolean) aInFrom, aInTo);
+        } else if (aInFrom instanceof Character) {
+            aInTo.append((Character) aInFrom);
+        } else if (aInFrom instanceof Collection
+                && STREAMED.get(aInFrom.getClass())) {
+            appendCollection((Collection<?>) aInFrom, aInTo);
+        } else if (aInFrom instanceof Map
+                && STREAMED.get(aInFrom.getClass())) {
+            appendMap((Map<?, ?>) aInFrom, aInTo);
+        } else {
+            aInTo.append(aInFrom.toString());
+        }
+    }
+
+    /**
+     * Appends a collection the way {@link AbstractCollection#toString()}
+     * formats it.
+     */
+    private void appendCollection(Collection<?> aInCollection,
+                                  Appendable aInTo) throws IOException {
+        aInTo.append('[');
+        Iterator<?> lIterator = aInCollection.iterator();
+        while (lIterator.hasNext()) {
+            Object lElement = lIterator.next();
+            if (lElement == aInCollection) {
+                aInTo.append("(this Collection)");
+            } else {
+                appendTo(lElement, aInTo);
+            }
+            if (lIterator.hasNext()) {
+                aInTo.append(", ");
+            }
+        }
+        aInTo.append(']');
+    }
+
+    /**
+     * Appends a map the way {@link AbstractMap#toString()} formats it.
+     */
+    private void appendMap(Map<?, ?> aInMap, Appendable aInTo)
+            throws IOException {
+        aInTo.append('{');
+        Iterator<? extends Map.Entry<?, ?>> lIterator =
+                aInMap.entrySet().iterator();
+        while (lIterator.hasNext()) {
+            Map.Entry<?, ?> lEntry = lIterator.next();
+            appendMapValue(aInMap, lEntry.getKey(), aInTo);
+            aInTo.append('=');
+            appendMapValue(aInMap, lEntry.getValue(), aInTo);
+            if (lIterator.hasNext()) {
+                aInTo.append(", ");
+            }
+        }
+        aInTo.append('}');
+    }
+
+    private void appendMapValue(Map<?, ?> aInMap, Object aInValue,
+                                Appendable aInTo) throws IOException {
+        if (aInValue == aInMap) {
+            aInTo.append("(this Map)");
+        } else {
+            appendTo(aInValue, aInTo);
+        }
+    }
+}
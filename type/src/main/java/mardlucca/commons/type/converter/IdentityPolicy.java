@@ -0,0 +1,114 @@
+/*
+ * File: IdentityPolicy.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * What converters of containers do when every element would be converted by
+ * an {@link Converter#isIdentity() identity}, e.g. from a
+ * {@code List<Integer>} to a {@code Collection<Number>}, and the source
+ * container is an instance of the target class. Arrays, collections and maps
+ * that are not instances of the target class are always copied, and so are
+ * those converted to a target class registered with its own factory, e.g.
+ * {@link CollectionFactories#immutableList()}.
+ */
+public enum IdentityPolicy {
+    /**
+     * Copy the source container, as is done for other conversions. This is
+     * the default policy.
+     */
+    COPY,
+
+    /**
+     * Return the source container itself, so changes made to either are seen
+     * by the other.
+     */
+    SHARE,
+
+    /**
+     * Return an unmodifiable view of the source container, for targets that
+     * are {@link Collection}, {@link List}, {@link Set}, {@link SortedSet},
+     * {@link NavigableSet}, {@link Map}, {@link SortedMap} or
+     * {@link NavigableMap}. Containers of other targets, arrays included,
+     * are copied.
+     */
+    WRAP;
+
+    private static final Map<Class<?>, UnaryOperator<Object>> VIEWS =
+            new LinkedHashMap<>();
+
+    static {
+        VIEWS.put(Collection.class, aInFrom ->
+                Collections.unmodifiableCollection((Collection<?>) aInFrom));
+        VIEWS.put(List.class, aInFrom ->
+                Collections.unmodifiableList((List<?>) aInFrom));
+        VIEWS.put(Set.class, aInFrom ->
+                Collections.unmodifiableSet((Set<?>) aInFrom));
+        VIEWS.put(SortedSet.class, aInFrom ->
+                Collections.unmodifiableSortedSet((SortedSet<?>) aInFrom));
+        VIEWS.put(NavigableSet.class, aInFrom ->
+                Collections.unmodifiableNavigableSet(
+                        (NavigableSet<?>) aInFrom));
+        VIEWS.put(Map.class, aInFrom ->
+                Collections.unmodifiableMap((Map<?, ?>) aInFrom));
+        VIEWS.put(SortedMap.class, aInFrom ->
+                Collections.unmodifiableSortedMap((SortedMap<?, ?>) aInFrom));
+        VIEWS.put(NavigableMap.class, aInFrom ->
+                Collections.unmodifiableNavigableMap(
+                        (NavigableMap<?, ?>) aInFrom));
+    }
+
+    /**
+     * Returns the converter that applies this policy to containers of a
+     * given class converted to another, when their elements need no
+     * conversion.
+     *
+     * @param aInFromClass the raw class of the source containers
+     * @param aInToClass the raw class of the target containers
+     * @return the converter, or null if containers are to be copied
+     */
+    Converter<Object, Object> getConverter(
+            Class<?> aInFromClass, Class<?> aInToClass) {
+        if (this == COPY || aInFromClass == null || aInToClass == null
+                || !aInToClass.isAssignableFrom(aInFromClass)) {
+            return null;
+        }
+        if (this == SHARE) {
+            return Converter.identityConverter();
+        }
+
+        UnaryOperator<Object> lView = VIEWS.get(aInToClass);
+        return lView == null
+                ? null
+                : aInFrom -> aInFrom == null ? null : lView.apply(aInFrom);
+    }
+}
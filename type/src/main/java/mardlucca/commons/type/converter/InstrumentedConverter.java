@@ -0,0 +1,113 @@
+/*
+ * File: InstrumentedConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Converter that reports each conversion of another converter to a
+ * {@link ConversionListener}, timing a sample of them. Conversions that
+ * throw are recorded as {@link ConversionFailureEvent flight recorder
+ * events}.
+ *
+ * @see InstrumentedConverterFactory
+ */
+final class InstrumentedConverter<F, T> implements Converter<F, T> {
+    private Type from;
+    private Type to;
+    private Converter<F, T> delegate;
+    private ConversionListener listener;
+    private int samplingInterval;
+    private boolean container;
+
+    InstrumentedConverter(Type aInFrom, Type aInTo, Converter<F, T> aInDelegate,
+                          ConversionListener aInListener,
+                          int aInSamplingInterval) {
+        from = aInFrom;
+        to = aInTo;
+        delegate = aInDelegate;
+        listener = aInListener;
+        samplingInterval = aInSamplingInterval;
+        container = isContainer(aInFrom) && isContainer(aInTo);
+    }
+
+    @Override
+    public T convert(F aInFrom) {
+        // a thread local random keeps threads from contending on a shared
+        // sampling counter
+        boolean lTimed = samplingInterval == 1
+                || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+        long lStart = lTimed ? System.nanoTime() : 0;
+        T lConverted;
+        try {
+            lConverted = delegate.convert(aInFrom);
+        } catch (RuntimeException | Error e) {
+            ConversionFailureEvent.record(aInFrom, e);
+            throw e;
+        }
+        long lNanos = lTimed
+                ? System.nanoTime() - lStart
+                : ConversionListener.NOT_TIMED;
+
+        int lElements = container
+                ? getSize(aInFrom)
+                : ConversionListener.NOT_A_CONTAINER;
+        listener.converted(from, to, lElements, lNanos);
+        return lConverted;
+    }
+
+    /**
+     * Conversions of identities are still reported.
+     */
+    @Override
+    public boolean isIdentity() {
+        return delegate.isIdentity();
+    }
+
+    @Override
+    public boolean isInjective() {
+        return delegate.isInjective();
+    }
+
+    private static boolean isContainer(Type aInType) {
+        TypeKind lKind = TypeKind.of(aInType);
+        return lKind == TypeKind.ARRAY || lKind == TypeKind.COLLECTION
+                || lKind == TypeKind.MAP;
+    }
+
+    private static int getSize(Object aInContainer) {
+        if (aInContainer instanceof Collection) {
+            return ((Collection<?>) aInContainer).size();
+        }
+        if (aInContainer instanceof Map) {
+            return ((Map<?, ?>) aInContainer).size();
+        }
+        if (aInContainer != null && aInContainer.getClass().isArray()) {
+            return Array.getLength(aInContainer);
+        }
+        // null
+        return 0;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * File: InstrumentedConverterFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converter factory that reports what another factory and its converters do
+ * to a {@link ConversionListener}. Converters are wrapped once per (from, to)
+ * pair and cached, so requesting a converter is still a lookup.
+ * <p>
+ * Only the converters this factory returns are instrumented; the converters
+ * they are built from, e.g. the element converters of a container converter,
+ * are not, so each conversion is reported once, however deeply it is nested.
+ * Instrumented converters tell whether they are
+ * {@link Converter#isIdentity() identities} as their delegates do, but they
+ * don't implement the primitive shapes of them, e.g.
+ * {@link mardlucca.commons.type.ToIntConverter}, so every conversion goes
+ * through {@link Converter#convert} and is reported.
+ * <p>
+ * Every conversion is reported, but only one in every
+ * {@link #getSamplingInterval() sampling interval} conversions, picked at
+ * random, is timed, as reading the clock costs more than the rest of the
+ * instrumentation.
+ * <p>
+ * Conversions that throw are recorded as flight recorder events when the
+ * {@code mardlucca.commons.type.ConversionFailure} event is enabled. That
+ * is how failures of converters that are not of containers, e.g. parsers,
+ * get recorded.
+ */
+public class InstrumentedConverterFactory implements ConverterFactory {
+    public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+
+    private ConverterFactory delegate;
+    private ConversionListener listener;
+    private int samplingInterval;
+
+    private final ConverterCache cache = new ConverterCache(this::resolve);
+
+    public InstrumentedConverterFactory(
+            ConverterFactory aInDelegate, ConversionListener aInListener) {
+        this(aInDelegate, aInListener, DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param aInDelegate the factory whose converters are instrumented
+     * @param aInListener the listener events are reported to
+     * @param aInSamplingInterval one in how many conversions is timed, on
+     *                            average. 1 times every conversion.
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public InstrumentedConverterFactory(
+            ConverterFactory aInDelegate, ConversionListener aInListener,
+            int aInSamplingInterval) {
+        if (aInSamplingInterval < 1) {
+            throw new IllegalArgumentException(
+                    "sampling interval must be positive: "
+                            + aInSamplingInterval);
+        }
+        delegate = aInDelegate;
+        listener = aInListener;
+        samplingInterval = aInSamplingInterval;
+    }
+
+    @Override
+    public <F, T> Converter<F, T> getConverter(Type aInFrom, Type aInTo) {
+        listener.converterRequested(aInFrom, aInTo);
+        return cache.get(aInFrom, aInTo);
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    private Converter<?, ?> resolve(Type aInFrom, Type aInTo) {
+        long lStart = System.nanoTime();
+        Converter<Object, Object> lConverter =
+                delegate.getConverter(aInFrom, aInTo);
+        listener.converterResolved(aInFrom, aInTo, lConverter != null,
+                System.nanoTime() - lStart);
+
+        return lConverter == null
+                ? null
+                : new InstrumentedConverter<>(aInFrom, aInTo, lConverter,
+                        listener, samplingInterval);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * File: LatencyHistogram.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe histogram of durations in nanoseconds. Bucket i counts the
+ * durations in [2^i, 2^(i+1)), except for bucket 0, which also counts
+ * durations of 0. Counters are striped, so concurrent recording does not
+ * contend.
+ */
+final class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long aInNanos) {
+        if (aInNanos < 0) {
+            return;
+        }
+        buckets[bucketOf(aInNanos)].increment();
+        count.increment();
+        sum.add(aInNanos);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean duration, or 0 if none was recorded.
+     */
+    double getMean() {
+        long lCount = count.sum();
+        return lCount == 0 ? 0 : (double) sum.sum() / lCount;
+    }
+
+    /**
+     * Returns an upper bound of a percentile, i.e. the upper bound of the
+     * bucket the percentile falls in, or 0 if no duration was recorded.
+     *
+     * @param aInPercentile the percentile, between 0 and 100
+     */
+    long getPercentile(double aInPercentile) {
+        long[] lCounts = getCounts();
+        long lTotal = 0;
+        for (long lCount : lCounts) {
+            lTotal += lCount;
+        }
+        if (lTotal == 0) {
+            return 0;
+        }
+
+        long lRank = (long) Math.ceil(lTotal * aInPercentile / 100);
+        long lSeen = 0;
+        for (int i = 0; i < lCounts.length; i++) {
+            lSeen += lCounts[i];
+            if (lSeen >= lRank && lCounts[i] > 0) {
+                return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a snapshot of the counts of the buckets.
+     */
+    long[] getCounts() {
+        long[] lCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            lCounts[i] = buckets[i].sum();
+        }
+        return lCounts;
+    }
+
+    void reset() {
+        for (LongAdder lBucket : buckets) {
+            lBucket.reset();
+        }
+        count.reset();
+        sum.reset();
+    }
+
+    private static int bucketOf(long aInNanos) {
+        return aInNanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(aInNanos);
+    }
+}
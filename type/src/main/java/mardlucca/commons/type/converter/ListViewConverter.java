@@ -0,0 +1,81 @@
+/*
+ * File: ListViewConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Converts a list into a read-only view of it that converts elements as they
+ * are accessed, rather than copying the whole list up front. Changes to the
+ * source list are visible through the view.
+ */
+public class ListViewConverter<F, T> implements Converter<List<F>, List<T>> {
+    private Converter<F, T> elementConverter;
+
+    public ListViewConverter(Converter<F, T> aInElementConverter) {
+        elementConverter = aInElementConverter;
+    }
+
+    @Override
+    public List<T> convert(List<F> aInFrom) {
+        if (aInFrom == null) {
+            return null;
+        }
+        if (aInFrom instanceof RandomAccess) {
+            return new RandomAccessListView<>(aInFrom, elementConverter);
+        }
+        return new ListView<>(aInFrom, elementConverter);
+    }
+
+    Converter<F, T> getElementConverter() {
+        return elementConverter;
+    }
+
+    static class ListView<F, T> extends AbstractList<T> {
+        private List<F> source;
+        private Converter<F, T> elementConverter;
+
+        ListView(List<F> aInSource, Converter<F, T> aInElementConverter) {
+            source = aInSource;
+            elementConverter = aInElementConverter;
+        }
+
+        @Override
+        public T get(int aInIndex) {
+            return elementConverter.convert(source.get(aInIndex));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+    }
+
+    static class RandomAccessListView<F, T> extends ListView<F, T>
+            implements RandomAccess {
+        RandomAccessListView(List<F> aInSource,
+                             Converter<F, T> aInElementConverter) {
+            super(aInSource, aInElementConverter);
+        }
+    }
+}
@@ -20,8 +20,8 @@ package mardlucca.commons.type.converter;
 
 import mardlucca.commons.type.Converter;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by mlucca on 1/20/17.
@@ -30,12 +30,29 @@ public class MapConverter<FK, TK, FV, TV>
         implements Converter<Map<FK, FV>, Map<TK, TV>> {
     private Converter<FK, TK> keyConverter;
     private Converter<FV, TV> valueConverter;
+    private MapFactory mapFactory;
+    private ParallelConversion parallelism;
 
     public MapConverter(
             Converter<FK, TK> aInKeyConverter,
             Converter<FV, TV> aInValueConverter) {
+        this(aInKeyConverter, aInValueConverter, MapFactories.HASH_MAP, null);
+    }
+
+    /**
+     * @param aInMapFactory factory of the maps converted to
+     * @param aInParallelism settings for converting large maps in parallel,
+     *                       or null to always convert sequentially
+     */
+    public MapConverter(
+            Converter<FK, TK> aInKeyConverter,
+            Converter<FV, TV> aInValueConverter,
+            MapFactory aInMapFactory,
+            ParallelConversion aInParallelism) {
         keyConverter = aInKeyConverter;
         valueConverter = aInValueConverter;
+        mapFactory = aInMapFactory;
+        parallelism = aInParallelism;
     }
 
     @Override
@@ -44,13 +61,103 @@ public class MapConverter<FK, TK, FV, TV>
             return null;
         }
 
-        Map<TK, TV> lConvertedMap = new HashMap<>(aInFrom.size());
+        try {
+            if (ContainerConversionEvent.isRecorded(aInFrom.size())) {
+                //noinspection unchecked
+                return (Map<TK, TV>) ContainerConversionEvent.record(
+                        aInFrom, aInFrom.size(), aInMap ->
+                                convertEntries((Map<FK, FV>) aInMap));
+            }
+            return convertEntries(aInFrom);
+        } catch (RuntimeException | Error e) {
+            ConversionFailureEvent.record(aInFrom, e);
+            throw e;
+        }
+    }
+
+    private Map<TK, TV> convertEntries(Map<FK, FV> aInFrom) {
+        if (parallelism != null && parallelism.appliesTo(aInFrom.size())) {
+            return convertInParallel(aInFrom);
+        }
+
+        Map<TK, TV> lConvertedMap = newMap(aInFrom.size());
 
         for (Map.Entry<FK, FV> lEntry : aInFrom.entrySet()) {
             lConvertedMap.put(keyConverter.convert(lEntry.getKey()),
                     valueConverter.convert(lEntry.getValue()));
         }
 
-        return lConvertedMap;
+        return finish(lConvertedMap);
+    }
+
+    /**
+     * Converts the entries in chunks, concurrently, from an array with the
+     * entries of the source map. Concurrent maps, e.g. a
+     * {@link java.util.concurrent.ConcurrentHashMap}, are filled in by the
+     * chunks themselves; other maps get the converted keys and values put in
+     * them afterwards, in the order of the source map.
+     */
+    private Map<TK, TV> convertInParallel(Map<FK, FV> aInFrom) {
+        Object[] lEntries = aInFrom.entrySet().toArray();
+        int lSize = lEntries.length;
+        Map<TK, TV> lConvertedMap = newMap(lSize);
+
+        if (lConvertedMap instanceof ConcurrentMap) {
+            parallelism.forEachChunk(lSize, (aInStart, aInEnd) -> {
+                for (int i = aInStart; i < aInEnd; i++) {
+                    Map.Entry<FK, FV> lEntry = entry(lEntries[i]);
+                    lConvertedMap.put(keyConverter.convert(lEntry.getKey()),
+                            valueConverter.convert(lEntry.getValue()));
+                }
+            });
+            return finish(lConvertedMap);
+        }
+
+        Object[] lKeys = new Object[lSize];
+        Object[] lValues = new Object[lSize];
+        parallelism.forEachChunk(lSize, (aInStart, aInEnd) -> {
+            for (int i = aInStart; i < aInEnd; i++) {
+                Map.Entry<FK, FV> lEntry = entry(lEntries[i]);
+                lKeys[i] = keyConverter.convert(lEntry.getKey());
+                lValues[i] = valueConverter.convert(lEntry.getValue());
+            }
+        });
+        for (int i = 0; i < lSize; i++) {
+            //noinspection unchecked
+            lConvertedMap.put((TK) lKeys[i], (TV) lValues[i]);
+        }
+        return finish(lConvertedMap);
+    }
+
+    Map<TK, TV> newMap(int aInSize) {
+        //noinspection unchecked
+        return (Map<TK, TV>) (Map<?, ?>) mapFactory.newInstance(aInSize);
+    }
+
+    Map<TK, TV> finish(Map<TK, TV> aInMap) {
+        //noinspection unchecked
+        return (Map<TK, TV>) mapFactory.finish(
+                (Map<Object, Object>) (Map<?, ?>) aInMap);
+    }
+
+    Converter<FK, TK> getKeyConverter() {
+        return keyConverter;
+    }
+
+    Converter<FV, TV> getValueConverter() {
+        return valueConverter;
+    }
+
+    MapFactory getMapFactory() {
+        return mapFactory;
+    }
+
+    ParallelConversion getParallelism() {
+        return parallelism;
+    }
+
+    private static <K, V> Map.Entry<K, V> entry(Object aInEntry) {
+        //noinspection unchecked
+        return (Map.Entry<K, V>) aInEntry;
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * File: MapFactories.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+
+import java.lang.reflect.Type;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static mardlucca.commons.type.converter.CollectionFactories.hashCapacity;
+
+/**
+ * Registry of the {@link MapFactory factories} used to create the maps that
+ * maps are converted to, keyed by the raw class of the target type. Works
+ * like {@link CollectionFactories}: interfaces and abstract classes are
+ * registered with the implementation used for them, concrete classes that
+ * are not registered are created with their public no-arg constructor, and
+ * hash based maps are created with a capacity that holds the entries
+ * converted without rehashing.
+ * <p>
+ * {@link EnumMap} targets are created for the enum of their key type, and
+ * can't be registered.
+ */
+public final class MapFactories {
+    /**
+     * The factory of the maps created when no registry is given.
+     */
+    static final MapFactory HASH_MAP =
+            aInSize -> new HashMap<>(hashCapacity(aInSize));
+
+    @SuppressWarnings("unchecked")
+    private final FactoryRegistry<MapFactory> factories =
+            new FactoryRegistry<>(Map.class, EnumMap.class,
+                    aInType -> TypeUtils.getMapKeyValueTypes(aInType)[0],
+                    aInEnumClass -> aInSize -> (Map<Object, Object>)
+                            (Map<?, ?>) new EnumMap<>(aInEnumClass),
+                    aInConstructor -> aInSize -> (Map<Object, Object>)
+                            FactoryRegistry.newInstance(aInConstructor));
+
+    /**
+     * Creates a registry with the default factories.
+     */
+    public MapFactories() {
+        registerDefault(Map.class, HASH_MAP);
+        registerDefault(AbstractMap.class, HASH_MAP);
+        registerDefault(HashMap.class, HASH_MAP);
+        registerDefault(LinkedHashMap.class, aInSize -> new LinkedHashMap<>(
+                hashCapacity(aInSize)));
+        registerDefault(Hashtable.class, aInSize -> new Hashtable<>(
+                hashCapacity(aInSize)));
+        registerDefault(WeakHashMap.class, aInSize -> new WeakHashMap<>(
+                hashCapacity(aInSize)));
+        // sized for the number of entries already
+        registerDefault(IdentityHashMap.class, IdentityHashMap::new);
+
+        MapFactory lSortedMap = aInSize -> new TreeMap<>();
+        registerDefault(SortedMap.class, lSortedMap);
+        registerDefault(NavigableMap.class, lSortedMap);
+        registerDefault(TreeMap.class, lSortedMap);
+
+        // sized for the number of entries already
+        MapFactory lConcurrentMap = ConcurrentHashMap::new;
+        registerDefault(ConcurrentMap.class, lConcurrentMap);
+        registerDefault(ConcurrentHashMap.class, lConcurrentMap);
+
+        MapFactory lConcurrentSortedMap =
+                aInSize -> new ConcurrentSkipListMap<>();
+        registerDefault(ConcurrentNavigableMap.class, lConcurrentSortedMap);
+        registerDefault(ConcurrentSkipListMap.class, lConcurrentSortedMap);
+    }
+
+    /**
+     * Registers the factory used for a target class, replacing the one
+     * registered before, if any.
+     *
+     * @param aInClass the raw class of the target types
+     * @param aInFactory the factory; the maps it creates must be instances of
+     *                   the class
+     * @return this registry
+     * @throws IllegalArgumentException if the class is not a map or is
+     * {@link EnumMap}
+     */
+    public MapFactories register(Class<?> aInClass, MapFactory aInFactory) {
+        factories.register(aInClass, aInFactory);
+        return this;
+    }
+
+    /**
+     * Returns whether a factory was registered for the raw class of a target
+     * type with {@link #register}, in place of the default one.
+     */
+    boolean isCustomized(Type aInType) {
+        return factories.isCustomized(aInType);
+    }
+
+    /**
+     * Returns the factory for a target type.
+     *
+     * @param aInType the type converted to
+     * @return the factory, or null if no factory was registered for the raw
+     * class of the type and the class can't be instantiated
+     */
+    public MapFactory get(Type aInType) {
+        return factories.get(aInType);
+    }
+
+    /**
+     * Returns a factory of read-only maps. Maps without null keys or values
+     * are copied to the compact maps returned by {@link Map#copyOf}, which
+     * do not keep the order entries were put in; maps with nulls are wrapped
+     * by {@link Collections#unmodifiableMap}.
+     */
+    public static MapFactory immutableMap() {
+        return new MapFactory() {
+            @Override
+            public Map<Object, Object> newInstance(int aInSize) {
+                return new HashMap<>(hashCapacity(aInSize));
+            }
+
+            @Override
+            public Map<?, ?> finish(Map<Object, Object> aInMap) {
+                return aInMap.containsKey(null) || aInMap.containsValue(null)
+                        ? Collections.unmodifiableMap(aInMap)
+                        : Map.copyOf(aInMap);
+            }
+        };
+    }
+
+    private void registerDefault(Class<?> aInClass, MapFactory aInFactory) {
+        factories.registerDefault(aInClass, aInFactory);
+    }
+}
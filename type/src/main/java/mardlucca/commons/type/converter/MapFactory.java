@@ -0,0 +1,50 @@
+/*
+ * File: MapFactory.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.util.Map;
+
+/**
+ * Creates the maps that maps are converted to. Converters create a map sized
+ * for the entries to come, put the converted entries in it and then
+ * {@link #finish(Map) finish} it, which is where read-only maps are made.
+ *
+ * @see MapFactories
+ */
+@FunctionalInterface
+public interface MapFactory {
+    /**
+     * Creates an empty map.
+     *
+     * @param aInSize the number of entries that will be put in it
+     * @return the map
+     */
+    Map<Object, Object> newInstance(int aInSize);
+
+    /**
+     * Turns a map created by {@link #newInstance(int)}, with all entries put
+     * in it, into the map returned by the conversion.
+     *
+     * @param aInMap the map filled in
+     * @return the map itself, by default
+     */
+    default Map<?, ?> finish(Map<Object, Object> aInMap) {
+        return aInMap;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * File: MapViewConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Converts a map into a read-only view of it that converts keys and values as
+ * they are accessed, rather than copying the whole map up front. Changes to
+ * the source map are visible through the view.
+ * <p>
+ * Lookups by key need the key converter to be invertible, so the view is
+ * given an inverse converter that maps keys of the view back into keys of the
+ * source map. A key is only found if converting it back and forth yields the
+ * same key. When keys are not converted, both converters are the identity and
+ * lookups go straight to the source map.
+ * <p>
+ * The key converter must also be {@link Converter#isInjective() injective}:
+ * a view can't merge source keys converted to the same key the way a copy
+ * does, so it would hold that key twice.
+ */
+public class MapViewConverter<FK, TK, FV, TV>
+        implements Converter<Map<FK, FV>, Map<TK, TV>> {
+    private static final Object NOT_FOUND = new Object();
+
+    private Converter<FK, TK> keyConverter;
+    private Converter<TK, FK> inverseKeyConverter;
+    private Converter<FV, TV> valueConverter;
+
+    /**
+     * @param aInKeyConverter converts keys of the source map into keys of the
+     *                        view
+     * @param aInInverseKeyConverter converts keys of the view back into keys
+     *                               of the source map
+     * @param aInValueConverter converts values of the source map into values
+     *                          of the view
+     */
+    public MapViewConverter(
+            Converter<FK, TK> aInKeyConverter,
+            Converter<TK, FK> aInInverseKeyConverter,
+            Converter<FV, TV> aInValueConverter) {
+        keyConverter = aInKeyConverter;
+        inverseKeyConverter = aInInverseKeyConverter;
+        valueConverter = aInValueConverter;
+    }
+
+    @Override
+    public Map<TK, TV> convert(Map<FK, FV> aInFrom) {
+        if (aInFrom == null) {
+            return null;
+        }
+        return new MapView<>(aInFrom, keyConverter, inverseKeyConverter,
+                valueConverter);
+    }
+
+    static class MapView<FK, TK, FV, TV> extends AbstractMap<TK, TV> {
+        private Map<FK, FV> source;
+        private Converter<FK, TK> keyConverter;
+        private Converter<TK, FK> inverseKeyConverter;
+        private Converter<FV, TV> valueConverter;
+        private Set<Entry<TK, TV>> entrySet;
+
+        MapView(Map<FK, FV> aInSource,
+                Converter<FK, TK> aInKeyConverter,
+                Converter<TK, FK> aInInverseKeyConverter,
+                Converter<FV, TV> aInValueConverter) {
+            source = aInSource;
+            keyConverter = aInKeyConverter;
+            inverseKeyConverter = aInInverseKeyConverter;
+            valueConverter = aInValueConverter;
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean containsKey(Object aInKey) {
+            Object lSourceKey = toSourceKey(aInKey);
+            return lSourceKey != NOT_FOUND && source.containsKey(lSourceKey);
+        }
+
+        @Override
+        public TV get(Object aInKey) {
+            Object lSourceKey = toSourceKey(aInKey);
+            if (lSourceKey == NOT_FOUND) {
+                return null;
+            }
+            FV lValue = source.get(lSourceKey);
+            if (lValue == null && !source.containsKey(lSourceKey)) {
+                return null;
+            }
+            return valueConverter.convert(lValue);
+        }
+
+        @Override
+        public Set<Entry<TK, TV>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<TK, TV>>() {
+                    @Override
+                    public Iterator<Entry<TK, TV>> iterator() {
+                        Iterator<Entry<FK, FV>> lIterator =
+                                source.entrySet().iterator();
+                        return new Iterator<Entry<TK, TV>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return lIterator.hasNext();
+                            }
+
+                            @Override
+                            public Entry<TK, TV> next() {
+                                Entry<FK, FV> lEntry = lIterator.next();
+                                return new SimpleImmutableEntry<>(
+                                        keyConverter.convert(lEntry.getKey()),
+                                        valueConverter.convert(
+                                                lEntry.getValue()));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return source.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        /**
+         * Returns the key of the source map corresponding to the given key of
+         * the view, or {@link #NOT_FOUND} if there is none.
+         */
+        private Object toSourceKey(Object aInKey) {
+            FK lSourceKey;
+            try {
+                //noinspection unchecked
+                lSourceKey = inverseKeyConverter.convert((TK) aInKey);
+            } catch (ClassCastException e) {
+                return NOT_FOUND;
+            }
+            if (!Objects.equals(keyConverter.convert(lSourceKey), aInKey)) {
+                return NOT_FOUND;
+            }
+            return lSourceKey;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * File: ParallelConversion.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Settings for converting large containers in parallel. Containers with at
+ * least {@link #getThreshold() threshold} elements are split in chunks that
+ * are converted concurrently, either by a {@link ForkJoinPool} or by an
+ * {@link ExecutorService}. The latter is meant for element converters that
+ * block, in which case an executor that starts a virtual thread per task is
+ * a good fit.
+ * <p>
+ * Containers nested in a container converted in parallel are converted by
+ * the thread running the chunk they are in, rather than split again, so
+ * tasks never wait on tasks queued behind them in a bounded pool.
+ */
+public final class ParallelConversion {
+    /**
+     * Minimum number of elements converted by each task, so tasks are not
+     * dominated by their own scheduling overhead.
+     */
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    /**
+     * The executor whose chunk the current thread is running, if any.
+     */
+    private static final ThreadLocal<ExecutorService> RUNNING_EXECUTOR =
+            new ThreadLocal<>();
+
+    private int threshold;
+    private ForkJoinPool pool;
+    private ExecutorService executor;
+    private int chunkSize;
+
+    private ParallelConversion(int aInThreshold, ForkJoinPool aInPool,
+                               ExecutorService aInExecutor,
+                               int aInChunkSize) {
+        if (aInThreshold < 1) {
+            throw new IllegalArgumentException(
+                    "threshold must be positive: " + aInThreshold);
+        }
+        if (aInChunkSize < 1) {
+            throw new IllegalArgumentException(
+                    "chunk size must be positive: " + aInChunkSize);
+        }
+        threshold = aInThreshold;
+        pool = aInPool;
+        executor = aInExecutor;
+        chunkSize = aInChunkSize;
+    }
+
+    /**
+     * Converts containers in parallel using the common fork/join pool.
+     *
+     * @param aInThreshold minimum number of elements for a container to be
+     *                     converted in parallel
+     * @return the parallel conversion settings
+     */
+    public static ParallelConversion forkJoin(int aInThreshold) {
+        return forkJoin(aInThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts containers in parallel using a fork/join pool. Containers are
+     * split recursively until chunks are small enough for the pool's
+     * parallelism.
+     *
+     * @param aInThreshold minimum number of elements for a container to be
+     *                     converted in parallel
+     * @param aInPool the pool running the conversions
+     * @return the parallel conversion settings
+     */
+    public static ParallelConversion forkJoin(
+            int aInThreshold, ForkJoinPool aInPool) {
+        return new ParallelConversion(
+                aInThreshold, aInPool, null, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Converts containers in parallel by submitting one task per chunk to an
+     * executor service. The calling thread waits for all tasks to complete.
+     *
+     * @param aInThreshold minimum number of elements for a container to be
+     *                     converted in parallel
+     * @param aInExecutor the executor running the conversions
+     * @param aInChunkSize number of elements converted by each task
+     * @return the parallel conversion settings
+     */
+    public static ParallelConversion executor(
+            int aInThreshold, ExecutorService aInExecutor, int aInChunkSize) {
+        return new ParallelConversion(
+                aInThreshold, null, aInExecutor, aInChunkSize);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    boolean appliesTo(int aInSize) {
+        return aInSize >= threshold;
+    }
+
+    /**
+     * Runs a task for every chunk of the range [0, aInSize) concurrently and
+     * waits for all of them to complete. Exceptions thrown by tasks are
+     * rethrown in the calling thread.
+     */
+    void forEachChunk(int aInSize, ChunkTask aInTask) {
+        if (pool != null) {
+            if (ForkJoinTask.getPool() == pool) {
+                // nested in a chunk, which is already running in parallel
+                aInTask.run(0, aInSize);
+                return;
+            }
+            int lChunkSize = Math.max(chunkSize,
+                    aInSize / (pool.getParallelism() * 4));
+            pool.invoke(new ChunkAction(aInTask, 0, aInSize, lChunkSize));
+            return;
+        }
+
+        if (RUNNING_EXECUTOR.get() == executor) {
+            // waiting on the executor from one of its own tasks could block
+            // forever once all of its threads are waiting
+            aInTask.run(0, aInSize);
+            return;
+        }
+
+        List<Callable<Void>> lTasks = new ArrayList<>();
+        for (int lStart = 0; lStart < aInSize; lStart += chunkSize) {
+            int lChunkStart = lStart;
+            int lChunkEnd = Math.min(aInSize, lStart + chunkSize);
+            lTasks.add(() -> {
+                ExecutorService lPrevious = RUNNING_EXECUTOR.get();
+                RUNNING_EXECUTOR.set(executor);
+                try {
+                    aInTask.run(lChunkStart, lChunkEnd);
+                } finally {
+                    RUNNING_EXECUTOR.set(lPrevious);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> lFuture : executor.invokeAll(lTasks)) {
+                lFuture.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while converting in parallel", e);
+        } catch (ExecutionException e) {
+            Throwable lCause = e.getCause();
+            if (lCause instanceof RuntimeException) {
+                throw (RuntimeException) lCause;
+            }
+            if (lCause instanceof Error) {
+                throw (Error) lCause;
+            }
+            throw new IllegalStateException(lCause);
+        }
+    }
+
+    @FunctionalInterface
+    interface ChunkTask {
+        /**
+         * Converts the elements in the range [aInStart, aInEnd).
+         */
+        void run(int aInStart, int aInEnd);
+    }
+
+    private static class ChunkAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private ChunkTask task;
+        private int start;
+        private int end;
+        private int chunkSize;
+
+        ChunkAction(ChunkTask aInTask, int aInStart, int aInEnd,
+                    int aInChunkSize) {
+            task = aInTask;
+            start = aInStart;
+            end = aInEnd;
+            chunkSize = aInChunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= chunkSize) {
+                task.run(start, end);
+                return;
+            }
+            int lMiddle = (start + end) >>> 1;
+            invokeAll(new ChunkAction(task, start, lMiddle, chunkSize),
+                    new ChunkAction(task, lMiddle, end, chunkSize));
+        }
+    }
+}
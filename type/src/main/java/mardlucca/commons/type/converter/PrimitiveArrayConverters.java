@@ -0,0 +1,113 @@
+/*
+ * File: PrimitiveArrayConverters.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.ArrayUtils;
+import mardlucca.commons.type.Converter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converters between arrays of primitive types. These copy elements with
+ * the primitive widening conversions in {@link ArrayUtils}, so elements are
+ * never boxed and the loops can be fully optimized by the JIT.
+ */
+final class PrimitiveArrayConverters {
+    private static final Map<Class<?>, Map<Class<?>, Converter<?, ?>>>
+            CONVERTERS = new HashMap<>();
+
+    static {
+        register(boolean.class, boolean.class, boolean[]::clone);
+        register(byte.class, byte.class, byte[]::clone);
+        register(char.class, char.class, char[]::clone);
+        register(short.class, short.class, short[]::clone);
+        register(int.class, int.class, int[]::clone);
+        register(long.class, long.class, long[]::clone);
+        register(float.class, float.class, float[]::clone);
+        register(double.class, double.class, double[]::clone);
+        PrimitiveArrayConverters.<byte[]>register(
+                byte.class, short.class, ArrayUtils::toShortArray);
+        PrimitiveArrayConverters.<byte[]>register(
+                byte.class, int.class, ArrayUtils::toIntArray);
+        PrimitiveArrayConverters.<byte[]>register(
+                byte.class, long.class, ArrayUtils::toLongArray);
+        PrimitiveArrayConverters.<byte[]>register(
+                byte.class, float.class, ArrayUtils::toFloatArray);
+        PrimitiveArrayConverters.<byte[]>register(
+                byte.class, double.class, ArrayUtils::toDoubleArray);
+        PrimitiveArrayConverters.<char[]>register(
+                char.class, int.class, ArrayUtils::toIntArray);
+        PrimitiveArrayConverters.<char[]>register(
+                char.class, long.class, ArrayUtils::toLongArray);
+        PrimitiveArrayConverters.<char[]>register(
+                char.class, float.class, ArrayUtils::toFloatArray);
+        PrimitiveArrayConverters.<char[]>register(
+                char.class, double.class, ArrayUtils::toDoubleArray);
+        PrimitiveArrayConverters.<short[]>register(
+                short.class, int.class, ArrayUtils::toIntArray);
+        PrimitiveArrayConverters.<short[]>register(
+                short.class, long.class, ArrayUtils::toLongArray);
+        PrimitiveArrayConverters.<short[]>register(
+                short.class, float.class, ArrayUtils::toFloatArray);
+        PrimitiveArrayConverters.<short[]>register(
+                short.class, double.class, ArrayUtils::toDoubleArray);
+        PrimitiveArrayConverters.<int[]>register(
+                int.class, long.class, ArrayUtils::toLongArray);
+        PrimitiveArrayConverters.<int[]>register(
+                int.class, float.class, ArrayUtils::toFloatArray);
+        PrimitiveArrayConverters.<int[]>register(
+                int.class, double.class, ArrayUtils::toDoubleArray);
+        PrimitiveArrayConverters.<long[]>register(
+                long.class, float.class, ArrayUtils::toFloatArray);
+        PrimitiveArrayConverters.<long[]>register(
+                long.class, double.class, ArrayUtils::toDoubleArray);
+        PrimitiveArrayConverters.<float[]>register(
+                float.class, double.class, ArrayUtils::toDoubleArray);
+    }
+
+    /**
+     * Private constructor. This is not meant to be instantiated.
+     */
+    private PrimitiveArrayConverters() {
+    }
+
+    /**
+     * Returns a converter from arrays with the given primitive component type
+     * to arrays of another primitive component type.
+     *
+     * @param aInFrom the component type of the arrays converted from
+     * @param aInTo the component type of the arrays converted to
+     * @return the converter or {@code null} if the component types are not
+     * primitive or if there is no widening conversion between them.
+     */
+    static Converter<Object, Object> get(Class<?> aInFrom, Class<?> aInTo) {
+        Map<Class<?>, Converter<?, ?>> lConverters = CONVERTERS.get(aInFrom);
+        //noinspection unchecked
+        return lConverters == null
+                ? null
+                : (Converter<Object, Object>) lConverters.get(aInTo);
+    }
+
+    private static <F> void register(
+            Class<?> aInFrom, Class<?> aInTo, Converter<F, ?> aInConverter) {
+        CONVERTERS.computeIfAbsent(aInFrom, aInKey -> new HashMap<>())
+                .put(aInTo, Converter.nullConverter(aInConverter));
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * File: PrimitiveConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.IntConverter;
+import mardlucca.commons.type.IntToDoubleConverter;
+import mardlucca.commons.type.IntToLongConverter;
+import mardlucca.commons.type.LongConverter;
+import mardlucca.commons.type.LongToDoubleConverter;
+import mardlucca.commons.type.ToDoubleConverter;
+import mardlucca.commons.type.ToIntConverter;
+import mardlucca.commons.type.ToLongConverter;
+
+import java.util.Objects;
+
+/**
+ * A converter between two primitive types (or their wrappers), as created by
+ * {@link ChainedPrimitiveTypeConverterFactory}. Knowing which primitive types
+ * are involved allows containers of primitives to be converted without boxing
+ * their elements. Null values are converted to null.
+ * <p>
+ * The converter given to this must perform the Java primitive widening
+ * conversion between the two types. Bulk conversions rely on that and use
+ * the widening methods of {@link Number} directly in a single loop.
+ * <p>
+ * Widenings to int, long and double also implement the unboxed shapes of
+ * the conversion, e.g. {@link ToLongConverter} and, for int to long,
+ * {@link IntToLongConverter} and {@link IntConverter}, through the nested
+ * subclasses of this class.
+ * <p>
+ * Consecutive widenings {@link #fuseWith fuse} into one, e.g. byte to int
+ * followed by int to double becomes byte to double.
+ *
+ * @param <F> the wrapper type converted from
+ * @param <T> the wrapper type converted to
+ */
+class PrimitiveConverter<F, T> implements Converter<F, T> {
+    private Class<?> fromType;
+    private Class<?> toType;
+    private Converter<F, T> converter;
+
+    PrimitiveConverter(Class<?> aInFromType, Class<?> aInToType,
+                       Converter<F, T> aInConverter) {
+        fromType = aInFromType;
+        toType = aInToType;
+        converter = aInConverter;
+    }
+
+    @Override
+    public T convert(F aInFrom) {
+        return aInFrom == null ? null : converter.convert(aInFrom);
+    }
+
+    @Override
+    public void convertAll(F[] aInFrom, int aInFromOffset,
+                           T[] aInTo, int aInToOffset, int aInLength) {
+        Objects.checkFromIndexSize(aInFromOffset, aInLength, aInFrom.length);
+        Objects.checkFromIndexSize(aInToOffset, aInLength, aInTo.length);
+
+        Object[] lFrom = aInFrom;
+        Object[] lTo = aInTo;
+        if (fromType == char.class) {
+            for (int i = 0; i < aInLength; i++) {
+                Character lValue = (Character) lFrom[aInFromOffset + i];
+                lTo[aInToOffset + i] =
+                        lValue == null ? null : widen(lValue, toType);
+            }
+        } else if (toType == double.class) {
+            for (int i = 0; i < aInLength; i++) {
+                Number lValue = (Number) lFrom[aInFromOffset + i];
+                lTo[aInToOffset + i] =
+                        lValue == null ? null : lValue.doubleValue();
+            }
+        } else if (toType == float.class) {
+            for (int i = 0; i < aInLength; i++) {
+                Number lValue = (Number) lFrom[aInFromOffset + i];
+                lTo[aInToOffset + i] =
+                        lValue == null ? null : lValue.floatValue();
+            }
+        } else if (toType == long.class) {
+            for (int i = 0; i < aInLength; i++) {
+                Number lValue = (Number) lFrom[aInFromOffset + i];
+                lTo[aInToOffset + i] =
+                        lValue == null ? null : lValue.longValue();
+            }
+        } else if (toType == int.class) {
+            for (int i = 0; i < aInLength; i++) {
+                Number lValue = (Number) lFrom[aInFromOffset + i];
+                lTo[aInToOffset + i] =
+                        lValue == null ? null : lValue.intValue();
+            }
+        } else {
+            Converter.super.convertAll(aInFrom, aInFromOffset,
+                    aInTo, aInToOffset, aInLength);
+        }
+    }
+
+    /**
+     * Widenings that don't lose precision are injective.
+     */
+    @Override
+    public boolean isInjective() {
+        return !isLossy(fromType, toType);
+    }
+
+    /**
+     * Fuses this with a widening that starts where this one ends. This is
+     * only done when this widening is exact, as the rounding of a lossy
+     * widening (e.g. int to float) would otherwise be lost: int to float to
+     * double does not give the same results as int to double.
+     */
+    @Override
+    public <V> Converter<F, V> fuseWith(
+            Converter<? super T, ? extends V> aInNext) {
+        if (!(aInNext instanceof PrimitiveConverter)) {
+            return null;
+        }
+        PrimitiveConverter<?, ?> lNext = (PrimitiveConverter<?, ?>) aInNext;
+        if (lNext.fromType != toType || isLossy(fromType, toType)) {
+            return null;
+        }
+        return ChainedPrimitiveTypeConverterFactory.getNumericConverter(
+                fromType, lNext.toType);
+    }
+
+    /**
+     * @return the primitive type this converts from
+     */
+    Class<?> getFromType() {
+        return fromType;
+    }
+
+    /**
+     * @return the primitive type this converts to
+     */
+    Class<?> getToType() {
+        return toType;
+    }
+
+    private static boolean isLossy(Class<?> aInFrom, Class<?> aInTo) {
+        return aInTo == float.class
+                ? aInFrom == int.class || aInFrom == long.class
+                : aInTo == double.class && aInFrom == long.class;
+    }
+
+    private static Object widen(char aInValue, Class<?> aInTo) {
+        if (aInTo == int.class) {
+            return (int) aInValue;
+        }
+        if (aInTo == long.class) {
+            return (long) aInValue;
+        }
+        if (aInTo == float.class) {
+            return (float) aInValue;
+        }
+        return (double) aInValue;
+    }
+
+    static class ToInt<F> extends PrimitiveConverter<F, Integer>
+            implements ToIntConverter<F> {
+        private ToIntConverter<F> primitive;
+
+        ToInt(Class<?> aInFromType, ToIntConverter<F> aInConverter) {
+            super(aInFromType, int.class, aInConverter::convertToInt);
+            primitive = aInConverter;
+        }
+
+        @Override
+        public int convertToInt(F aInFrom) {
+            return primitive.convertToInt(aInFrom);
+        }
+    }
+
+    static class ToLong<F> extends PrimitiveConverter<F, Long>
+            implements ToLongConverter<F> {
+        private ToLongConverter<F> primitive;
+
+        ToLong(Class<?> aInFromType, ToLongConverter<F> aInConverter) {
+            super(aInFromType, long.class, aInConverter::convertToLong);
+            primitive = aInConverter;
+        }
+
+        @Override
+        public long convertToLong(F aInFrom) {
+            return primitive.convertToLong(aInFrom);
+        }
+    }
+
+    static class ToDouble<F> extends PrimitiveConverter<F, Double>
+            implements ToDoubleConverter<F> {
+        private ToDoubleConverter<F> primitive;
+
+        ToDouble(Class<?> aInFromType, ToDoubleConverter<F> aInConverter) {
+            super(aInFromType, double.class, aInConverter::convertToDouble);
+            primitive = aInConverter;
+        }
+
+        @Override
+        public double convertToDouble(F aInFrom) {
+            return primitive.convertToDouble(aInFrom);
+        }
+    }
+
+    static final class IntToLong extends ToLong<Integer>
+            implements IntToLongConverter, IntConverter<Long> {
+        IntToLong() {
+            super(int.class, Integer::longValue);
+        }
+
+        @Override
+        public long convertIntToLong(int aInFrom) {
+            return aInFrom;
+        }
+
+        @Override
+        public Long convertInt(int aInFrom) {
+            return (long) aInFrom;
+        }
+    }
+
+    static final class IntToDouble extends ToDouble<Integer>
+            implements IntToDoubleConverter, IntConverter<Double> {
+        IntToDouble() {
+            super(int.class, Integer::doubleValue);
+        }
+
+        @Override
+        public double convertIntToDouble(int aInFrom) {
+            return aInFrom;
+        }
+
+        @Override
+        public Double convertInt(int aInFrom) {
+            return (double) aInFrom;
+        }
+    }
+
+    static final class LongToDouble extends ToDouble<Long>
+            implements LongToDoubleConverter, LongConverter<Double> {
+        LongToDouble() {
+            super(long.class, Long::doubleValue);
+        }
+
+        @Override
+        public double convertLongToDouble(long aInFrom) {
+            return aInFrom;
+        }
+
+        @Override
+        public Double convertLong(long aInFrom) {
+            return (double) aInFrom;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * File: StreamingConverter.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily converts the elements of an {@link Iterator}, {@link Iterable},
+ * {@link Spliterator} or {@link Stream} into any of those. Nothing is
+ * converted until the result is traversed, and elements are converted one at
+ * a time as they are, so memory use does not depend on the number of
+ * elements.
+ * <p>
+ * Iterables converted into iterables can be traversed more than once.
+ * Iterables converted from one-shot sources, that is, iterators, spliterators
+ * and streams, can only be traversed once.
+ */
+public class StreamingConverter implements Converter<Object, Object> {
+    private Kind fromKind;
+    private Kind toKind;
+    private Converter<Object, Object> elementConverter;
+
+    StreamingConverter(Kind aInFromKind, Kind aInToKind,
+                       Converter<Object, Object> aInElementConverter) {
+        fromKind = aInFromKind;
+        toKind = aInToKind;
+        elementConverter = aInElementConverter;
+    }
+
+    @Override
+    public Object convert(Object aInFrom) {
+        if (aInFrom == null) {
+            return null;
+        }
+
+        if (fromKind == Kind.STREAM && toKind == Kind.STREAM) {
+            // keeps the stream's parallelism and close handlers
+            return ((Stream<?>) aInFrom).map(elementConverter::convert);
+        }
+        if (fromKind == Kind.ITERABLE && toKind == Kind.ITERABLE) {
+            Iterable<?> lIterable = (Iterable<?>) aInFrom;
+            return new ConvertingIterable(
+                    () -> convert(lIterable.spliterator()));
+        }
+
+        Spliterator<Object> lSpliterator = convert(
+                fromKind.toSpliterator(aInFrom));
+        switch (toKind) {
+            case ITERATOR:
+                return Spliterators.iterator(lSpliterator);
+            case SPLITERATOR:
+                return lSpliterator;
+            case STREAM:
+                return StreamSupport.stream(lSpliterator, false);
+            default:
+                return new ConvertingIterable(new OneShotSupplier(
+                        lSpliterator));
+        }
+    }
+
+    private Spliterator<Object> convert(Spliterator<?> aInSpliterator) {
+        //noinspection unchecked
+        return new ConvertingSpliterator<>(
+                (Spliterator<Object>) aInSpliterator, elementConverter);
+    }
+
+    /**
+     * The kinds of sources and targets supported by this converter.
+     */
+    enum Kind {
+        ITERATOR {
+            @Override
+            Spliterator<?> toSpliterator(Object aInSource) {
+                return Spliterators.spliteratorUnknownSize(
+                        (Iterator<?>) aInSource, Spliterator.ORDERED);
+            }
+        },
+        ITERABLE {
+            @Override
+            Spliterator<?> toSpliterator(Object aInSource) {
+                return ((Iterable<?>) aInSource).spliterator();
+            }
+        },
+        SPLITERATOR {
+            @Override
+            Spliterator<?> toSpliterator(Object aInSource) {
+                return (Spliterator<?>) aInSource;
+            }
+        },
+        STREAM {
+            @Override
+            Spliterator<?> toSpliterator(Object aInSource) {
+                return ((Stream<?>) aInSource).spliterator();
+            }
+        };
+
+        abstract Spliterator<?> toSpliterator(Object aInSource);
+    }
+
+    @FunctionalInterface
+    private interface SpliteratorSupplier {
+        Spliterator<Object> get();
+    }
+
+    private static class ConvertingIterable implements Iterable<Object> {
+        private SpliteratorSupplier supplier;
+
+        ConvertingIterable(SpliteratorSupplier aInSupplier) {
+            supplier = aInSupplier;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return Spliterators.iterator(supplier.get());
+        }
+
+        @Override
+        public Spliterator<Object> spliterator() {
+            return supplier.get();
+        }
+    }
+
+    private static class OneShotSupplier implements SpliteratorSupplier {
+        private Spliterator<Object> spliterator;
+
+        OneShotSupplier(Spliterator<Object> aInSpliterator) {
+            spliterator = aInSpliterator;
+        }
+
+        @Override
+        public synchronized Spliterator<Object> get() {
+            if (spliterator == null) {
+                throw new IllegalStateException(
+                        "This iterable can only be traversed once");
+            }
+            Spliterator<Object> lSpliterator = spliterator;
+            spliterator = null;
+            return lSpliterator;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * File: TypeKind.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeUtils;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Broad kinds of types. {@link ChainingConverterFactory.ChainedConverterFactory
+ * Chained factories} declare the kinds of types they convert from and to, so
+ * {@link ChainingConverterFactory} only asks the factories that may convert a
+ * given pair of types. Every type is of exactly one kind.
+ */
+public enum TypeKind {
+    /**
+     * Primitive types and their wrappers, e.g. int and Integer.
+     */
+    PRIMITIVE,
+    ARRAY,
+    /**
+     * Subtypes of {@link java.util.Collection}.
+     */
+    COLLECTION,
+    /**
+     * Subtypes of {@link java.util.Map}.
+     */
+    MAP,
+    STRING,
+    /**
+     * Any other type, including type variables and wildcards.
+     */
+    OTHER;
+
+    /**
+     * Every kind, for factories that may convert from or to any type.
+     */
+    public static final Set<TypeKind> ANY =
+            Collections.unmodifiableSet(EnumSet.allOf(TypeKind.class));
+
+    /**
+     * Returns the kind of a type.
+     *
+     * @param aInType the type
+     * @return its kind
+     */
+    public static TypeKind of(Type aInType) {
+        if (aInType instanceof Class) {
+            Class<?> lClass = (Class<?>) aInType;
+            if (lClass.isPrimitive() || isWrapper(lClass)) {
+                return PRIMITIVE;
+            }
+            if (lClass == String.class) {
+                return STRING;
+            }
+        }
+        if (TypeUtils.isArrayType(aInType)) {
+            return ARRAY;
+        }
+        if (TypeUtils.isCollection(aInType)) {
+            return COLLECTION;
+        }
+        if (TypeUtils.isMap(aInType)) {
+            return MAP;
+        }
+        return OTHER;
+    }
+
+    private static boolean isWrapper(Class<?> aInClass) {
+        return aInClass == Boolean.class || aInClass == Character.class
+                || aInClass == Byte.class || aInClass == Short.class
+                || aInClass == Integer.class || aInClass == Long.class
+                || aInClass == Float.class || aInClass == Double.class;
+    }
+}
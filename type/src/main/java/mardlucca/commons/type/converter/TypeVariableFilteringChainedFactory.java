@@ -25,17 +25,50 @@ import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
 
 import java.lang.reflect.Type;
 
+/**
+ * Keeps types with type variables away from the rest of the chain, as no
+ * converter can be built for them. Given a context type, type variables are
+ * first resolved against it, e.g. the E of {@code List<E>} becomes
+ * {@code Long} in the context of {@code class IdList extends ArrayList<Long>},
+ * and the resolved types are converted as usual. Only types whose type
+ * variables cannot be resolved are rejected.
+ */
 public class TypeVariableFilteringChainedFactory
         implements ChainedConverterFactory {
+    private final Type context;
+
+    public TypeVariableFilteringChainedFactory() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param aInContext the type type variables are resolved against, or null
+     *                   if they should not be resolved
+     */
+    public TypeVariableFilteringChainedFactory(Type aInContext) {
+        context = aInContext;
+    }
 
     @Override
     public <F, T> Converter<F, T> getConverter(
             Type aInFrom, Type aInTo, FactoryChain aInChain) {
+        if (!TypeUtils.hasTypeVariables(aInFrom)
+                && !TypeUtils.hasTypeVariables(aInTo)) {
+            return aInChain.invokeNext(aInFrom, aInTo);
+        }
+        if (context == null) {
+            return null;
+        }
 
-        if (TypeUtils.hasTypeVariables(aInFrom)
-                || TypeUtils.hasTypeVariables(aInTo)) {
+        Type lFrom = TypeUtils.resolveTypeVariables(aInFrom, context);
+        Type lTo = TypeUtils.resolveTypeVariables(aInTo, context);
+        if (TypeUtils.hasTypeVariables(lFrom)
+                || TypeUtils.hasTypeVariables(lTo)) {
             return null;
         }
-        return aInChain.invokeNext(aInFrom, aInTo);
+        // the resolved pair is resolved, and cached, as a pair of its own
+        return aInChain.invokeFirst(lFrom, lTo);
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * File: ConverterTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ConverterTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Converter<Integer, String> converter = String::valueOf;
+
+    @Test
+    public void testIdentityConverter() {
+        assertSame(Converter.identityConverter(),
+                Converter.identityConverter());
+        assertEquals("a", Converter.<String>identityConverter().convert("a"));
+    }
+
+    @Test
+    public void testConvertAllArrays() {
+        String[] lTo = new String[] {"a", "b", "c", "d"};
+        converter.convertAll(new Integer[] {1, 2, 3, 4}, 1, lTo, 2, 2);
+        assertArrayEquals(new String[] {"a", "b", "2", "3"}, lTo);
+    }
+
+    @Test
+    public void testConvertAllArraysOutOfBounds() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        converter.convertAll(new Integer[] {1, 2}, 1, new String[2], 0, 2);
+    }
+
+    @Test
+    public void testConvertAllLists() {
+        List<String> lTo = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        converter.convertAll(Arrays.asList(1, 2, 3, 4), 1, lTo, 1, 3);
+        assertEquals(Arrays.asList("a", "2", "3", "4"), lTo);
+
+        List<String> lLinkedTo = new LinkedList<>(Arrays.asList("a", "b"));
+        converter.convertAll(new LinkedList<>(Arrays.asList(1, 2, 3)), 0,
+                lLinkedTo, 2, 3);
+        assertEquals(Arrays.asList("a", "b", "1", "2", "3"), lLinkedTo);
+    }
+
+    @Test
+    public void testConvertAllListsOutOfBounds() {
+        expectedException.expect(IndexOutOfBoundsException.class);
+        converter.convertAll(Arrays.asList(1, 2), 0, new ArrayList<>(), 1, 2);
+    }
+
+    @Test
+    public void testAndThenAndCompose() {
+        Converter<String, Integer> lLength = String::length;
+        assertEquals(Integer.valueOf(2),
+                converter.andThen(lLength).convert(42));
+        assertEquals(Integer.valueOf(3),
+                lLength.compose(converter).convert(123));
+    }
+
+    @Test
+    public void testIdentitiesAreDropped() {
+        assertSame(converter, converter.andThen(
+                Converter.identityConverter()));
+        assertSame(converter, converter.compose(
+                Converter.identityConverter()));
+    }
+
+    @Test
+    public void testNullGuardsAreMerged() {
+        Converter<Integer, String> lGuarded =
+                Converter.nullConverter(converter);
+        assertSame(lGuarded, Converter.nullConverter(lGuarded));
+        assertNull(lGuarded.convert(null));
+
+        Converter<String, Integer> lLength = String::length;
+        Converter<Integer, Integer> lPipeline = lGuarded.andThen(
+                Converter.nullConverter(lLength));
+        assertSame(lPipeline, Converter.nullConverter(lPipeline));
+        assertNull(lPipeline.convert(null));
+        assertEquals(Integer.valueOf(2), lPipeline.convert(42));
+    }
+
+    @Test
+    public void testNullsReachUnguardedConverters() {
+        Converter<Object, String> lUnguarded = String::valueOf;
+        Converter<Integer, String> lPipeline =
+                Converter.nullConverter(converter).andThen(lUnguarded);
+        assertEquals("null", lPipeline.convert(null));
+    }
+}
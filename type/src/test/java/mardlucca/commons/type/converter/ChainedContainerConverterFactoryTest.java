@@ -0,0 +1,406 @@
+/*
+ * File: ChainedContainerConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChainedContainerConverterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConverterFactory factory = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedAutoBoxingConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedContainerConverterFactory(),
+            new ChainedToStringConverterFactory());
+
+    @Test
+    public void testPrimitiveArrayWidening() {
+        Converter<int[], long[]> lConverter =
+                factory.getConverter(int[].class, long[].class);
+        // primitive arrays are not converted element by element
+        assertFalse(((Object) lConverter) instanceof ContainerConverter);
+        assertArrayEquals(new long[] {1, -2, Integer.MAX_VALUE},
+                lConverter.convert(new int[] {1, -2, Integer.MAX_VALUE}));
+
+        assertArrayEquals(new double[] {97, 98},
+                factory.<char[], double[]>getConverter(
+                        char[].class, double[].class)
+                        .convert(new char[] {'a', 'b'}), 0.0);
+        assertArrayEquals(new float[] {-1, 127},
+                factory.<byte[], float[]>getConverter(
+                        byte[].class, float[].class)
+                        .convert(new byte[] {-1, 127}), 0.0f);
+        assertNull(factory.<int[], long[]>getConverter(
+                int[].class, long[].class).convert(null));
+    }
+
+    @Test
+    public void testUnsupportedPrimitiveArrayConversion() {
+        assertNull(factory.getConverter(long[].class, int[].class));
+        assertNull(factory.getConverter(boolean[].class, int[].class));
+    }
+
+    @Test
+    public void testBoxingArrays() {
+        assertArrayEquals(new Integer[] {1, 2, 3},
+                factory.<int[], Integer[]>getConverter(
+                        int[].class, Integer[].class)
+                        .convert(new int[] {1, 2, 3}));
+        assertArrayEquals(new boolean[] {true, false},
+                factory.<Boolean[], boolean[]>getConverter(
+                        Boolean[].class, boolean[].class)
+                        .convert(new Boolean[] {true, false}));
+        assertArrayEquals(new long[] {1, 2},
+                factory.<Integer[], long[]>getConverter(
+                        Integer[].class, long[].class)
+                        .convert(new Integer[] {1, 2}));
+    }
+
+    @Test
+    public void testUnboxedArrays() {
+        assertArrayEquals(new double[] {-1, 2},
+                factory.<Short[], double[]>getConverter(
+                        Short[].class, double[].class)
+                        .convert(new Short[] {-1, 2}), 0.0);
+        assertArrayEquals(new Long[] {1L, Long.valueOf(Integer.MIN_VALUE)},
+                factory.<int[], Long[]>getConverter(
+                        int[].class, Long[].class)
+                        .convert(new int[] {1, Integer.MIN_VALUE}));
+        assertArrayEquals(new Double[] {3.0},
+                factory.<long[], Double[]>getConverter(
+                        long[].class, Double[].class)
+                        .convert(new long[] {3}));
+    }
+
+    @Test
+    public void testNullsCantBeUnboxed() {
+        expectedException.expect(NullPointerException.class);
+        factory.<Integer[], long[]>getConverter(Integer[].class, long[].class)
+                .convert(new Integer[] {1, null});
+    }
+
+    @Test
+    public void testObjectArrays() {
+        assertArrayEquals(new String[] {"1", "2"},
+                factory.<Integer[], String[]>getConverter(
+                        Integer[].class, String[].class)
+                        .convert(new Integer[] {1, 2}));
+        assertArrayEquals(new String[][] {{"1"}, {"2", "3"}},
+                factory.<int[][], String[][]>getConverter(
+                        int[][].class, String[][].class)
+                        .convert(new int[][] {{1}, {2, 3}}));
+    }
+
+    @Test
+    public void testCollections() {
+        Converter<List<Integer>, long[]> lToArray = factory.getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<long[]>() {});
+        assertArrayEquals(new long[] {1, 2, 3},
+                lToArray.convert(Arrays.asList(1, 2, 3)));
+
+        Converter<int[], List<Long>> lToList = factory.getConverter(
+                new TypeReference<int[]>() {},
+                new TypeReference<List<Long>>() {});
+        assertEquals(Arrays.asList(1L, 2L, 3L),
+                lToList.convert(new int[] {1, 2, 3}));
+
+        Converter<List<Integer>, Set<String>> lToSet = factory.getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<Set<String>>() {});
+        Set<String> lSet = lToSet.convert(Arrays.asList(1, 2, 1));
+        assertEquals(2, lSet.size());
+        assertTrue(lSet.contains("1"));
+        assertTrue(lSet.contains("2"));
+    }
+
+    @Test
+    public void testTargetCollectionClasses() {
+        List<Integer> lList = Arrays.asList(3, 1, 2);
+        TypeReference<List<Integer>> lFrom =
+                new TypeReference<List<Integer>>() {};
+        assertEquals(Arrays.asList(3L, 1L, 2L), new ArrayList<>(factory
+                .getConverter(lFrom,
+                        new TypeReference<LinkedHashSet<Long>>() {})
+                .convert(lList)));
+        assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(factory
+                .getConverter(lFrom, new TypeReference<SortedSet<Long>>() {})
+                .convert(lList)));
+        assertEquals(ArrayDeque.class, factory
+                .getConverter(lFrom, new TypeReference<Deque<Long>>() {})
+                .convert(lList).getClass());
+        assertEquals(CopyOnWriteArrayList.class, factory
+                .getConverter(lFrom,
+                        new TypeReference<CopyOnWriteArrayList<Long>>() {})
+                .convert(lList).getClass());
+
+        Converter<TimeUnit[], EnumSet<TimeUnit>> lToEnumSet =
+                factory.getConverter(new TypeReference<TimeUnit[]>() {},
+                        new TypeReference<EnumSet<TimeUnit>>() {});
+        assertEquals(EnumSet.of(TimeUnit.DAYS, TimeUnit.SECONDS),
+                lToEnumSet.convert(new TimeUnit[] {
+                        TimeUnit.SECONDS, TimeUnit.DAYS}));
+    }
+
+    @Test
+    public void testImmutableTargets() {
+        ConverterFactory lFactory = fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory(null,
+                        new CollectionFactories().register(List.class,
+                                CollectionFactories.immutableList())));
+        Converter<int[], List<Long>> lConverter = lFactory.getConverter(
+                new TypeReference<int[]>() {},
+                new TypeReference<List<Long>>() {});
+
+        for (Converter<int[], List<Long>> lEach : Arrays.asList(
+                lConverter, ConverterCompiler.compile(lConverter))) {
+            List<Long> lList = lEach.convert(new int[] {1, 2});
+            assertEquals(List.of(1L, 2L), lList);
+            assertEquals(List.of(1L, 2L).getClass(), lList.getClass());
+        }
+    }
+
+    @Test
+    public void testIdentityElementsAreNotCopied() {
+        TypeReference<List<Integer>> lFrom =
+                new TypeReference<List<Integer>>() {};
+        TypeReference<Collection<Integer>> lTo =
+                new TypeReference<Collection<Integer>>() {};
+        List<Integer> lList = new ArrayList<>(Arrays.asList(1, 2));
+        ConverterFactory lShared = newFactory(IdentityPolicy.SHARE);
+
+        assertSame(lList, lShared.getConverter(lFrom, lTo).convert(lList));
+        Integer[] lArray = {1, 2};
+        assertSame(lArray, lShared
+                .<Integer[], Number[]>getConverter(
+                        Integer[].class, Number[].class)
+                .convert(lArray));
+
+        // not an instance of the target class
+        Set<Integer> lSet = lShared.getConverter(lFrom,
+                new TypeReference<Set<Integer>>() {}).convert(lList);
+        assertEquals(new HashSet<>(lList), lSet);
+
+        Collection<Integer> lWrapped = newFactory(IdentityPolicy.WRAP)
+                .getConverter(lFrom, lTo).convert(lList);
+        assertEquals(lList, new ArrayList<>(lWrapped));
+        expectedException.expect(UnsupportedOperationException.class);
+        lWrapped.add(3);
+    }
+
+    @Test
+    public void testIdentityElementsAreCopied() {
+        List<Integer> lList = Arrays.asList(1, 2);
+        for (ConverterFactory lFactory : Arrays.asList(
+                factory, newFactory(IdentityPolicy.COPY))) {
+            Collection<Integer> lCopy = lFactory
+                    .getConverter(new TypeReference<List<Integer>>() {},
+                            new TypeReference<Collection<Integer>>() {})
+                    .convert(lList);
+            assertNotSame(lList, lCopy);
+            assertEquals(lList, lCopy);
+        }
+    }
+
+    @Test
+    public void testIdentityElementsOfRegisteredTarget() {
+        List<Integer> lList = new ArrayList<>(Arrays.asList(1, 2));
+        Collection<Integer> lCopy = fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedContainerConverterFactory(null,
+                        new CollectionFactories().register(Collection.class,
+                                CollectionFactories.immutableList()),
+                        IdentityPolicy.SHARE))
+                .getConverter(new TypeReference<List<Integer>>() {},
+                        new TypeReference<Collection<Integer>>() {})
+                .convert(lList);
+        assertNotSame(lList, lCopy);
+        assertEquals(lList, lCopy);
+        expectedException.expect(UnsupportedOperationException.class);
+        lCopy.add(3);
+    }
+
+    @Test
+    public void testUninstantiableTargetCollection() {
+        assertNull(factory.getConverter(
+                new TypeReference<int[]>() {},
+                new TypeReference<AbstractQueue<Long>>() {}));
+    }
+
+    private static ConverterFactory newFactory(
+            IdentityPolicy aInIdentityPolicy) {
+        return fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedContainerConverterFactory(null,
+                        new CollectionFactories(), aInIdentityPolicy),
+                new ChainedCastingConverterFactory());
+    }
+
+    @Test
+    public void testParallelForkJoin() {
+        ForkJoinPool lPool = new ForkJoinPool(4);
+        try {
+            testParallel(ParallelConversion.forkJoin(1000, lPool));
+        } finally {
+            lPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelExecutor() {
+        ExecutorService lExecutor = Executors.newFixedThreadPool(4);
+        try {
+            testParallel(ParallelConversion.executor(1000, lExecutor, 1000));
+        } finally {
+            lExecutor.shutdown();
+        }
+    }
+
+    private void testParallel(ParallelConversion aInParallelism) {
+        ConverterFactory lFactory = fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedAutoBoxingConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory(aInParallelism),
+                new ChainedToStringConverterFactory());
+
+        int[] lInts = IntStream.range(0, 100_000).toArray();
+        String[] lStrings = IntStream.range(0, 100_000)
+                .mapToObj(String::valueOf).toArray(String[]::new);
+        List<String> lStringList = Arrays.asList(lStrings);
+
+        assertArrayEquals(lStrings, lFactory.<int[], String[]>getConverter(
+                int[].class, String[].class).convert(lInts));
+
+        Converter<List<Integer>, List<String>> lListConverter =
+                lFactory.getConverter(
+                        new TypeReference<List<Integer>>() {},
+                        new TypeReference<List<String>>() {});
+        List<Integer> lIntegers = new ArrayList<>();
+        for (int lInt : lInts) {
+            lIntegers.add(lInt);
+        }
+        assertEquals(lStringList, lListConverter.convert(lIntegers));
+
+        // below the threshold
+        assertEquals(Arrays.asList("1", "2"),
+                lListConverter.convert(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    public void testNestedParallelOnBoundedExecutor() throws Exception {
+        ExecutorService lExecutor = Executors.newFixedThreadPool(2);
+        ExecutorService lCaller = Executors.newSingleThreadExecutor();
+        try {
+            ConverterFactory lFactory = fromFactories(
+                    new ChainedIdentityConverterFactory(),
+                    new ChainedToStringConverterFactory(),
+                    new ChainedContainerConverterFactory(
+                            ParallelConversion.executor(4, lExecutor, 2)));
+            Converter<List<List<Integer>>, List<List<String>>> lConverter =
+                    lFactory.getConverter(
+                            new TypeReference<List<List<Integer>>>() {},
+                            new TypeReference<List<List<String>>>() {});
+
+            List<List<Integer>> lLists = new ArrayList<>();
+            List<List<String>> lExpected = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lLists.add(Arrays.asList(i, i + 1, i + 2, i + 3));
+                lExpected.add(Arrays.asList(String.valueOf(i),
+                        String.valueOf(i + 1), String.valueOf(i + 2),
+                        String.valueOf(i + 3)));
+            }
+
+            // inner lists are converted by the chunks they are in, instead
+            // of waiting on the executor all of whose threads are busy
+            assertEquals(lExpected, lCaller.submit(
+                    () -> lConverter.convert(lLists))
+                    .get(10, TimeUnit.SECONDS));
+        } finally {
+            lCaller.shutdownNow();
+            lExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelFailure() {
+        ContainerConverter lConverter = new ContainerConverter(
+                ContainerConverter.ArrayContainerHandler.forComponentType(
+                        Object.class),
+                ContainerConverter.ArrayContainerHandler.forComponentType(
+                        Object.class),
+                aInObject -> {
+                    if (aInObject == null) {
+                        throw new IllegalArgumentException("null element");
+                    }
+                    return aInObject;
+                },
+                ParallelConversion.forkJoin(10));
+
+        Object[] lArray = new Object[10_000];
+        Arrays.fill(lArray, "x");
+        lArray[5000] = null;
+
+        expectedException.expect(IllegalArgumentException.class);
+        lConverter.convert(lArray);
+    }
+
+    @Test
+    public void testInvalidThreshold() {
+        expectedException.expect(IllegalArgumentException.class);
+        ParallelConversion.forkJoin(0);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * File: ChainedMapConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ChainedMapConverterFactoryTest {
+    private TypeReference<Map<Integer, Integer>> from =
+            new TypeReference<Map<Integer, Integer>>() {};
+
+    private ConverterFactory factory = newFactory(
+            new ChainedMapConverterFactory());
+
+    @Test
+    public void testTargetMapClasses() {
+        Map<Integer, Integer> lMap = new LinkedHashMap<>();
+        lMap.put(3, 30);
+        lMap.put(1, 10);
+        lMap.put(2, 20);
+
+        assertEquals(Arrays.asList(3L, 1L, 2L), new ArrayList<>(factory
+                .getConverter(from,
+                        new TypeReference<LinkedHashMap<Long, Long>>() {})
+                .convert(lMap).keySet()));
+        assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(factory
+                .getConverter(from,
+                        new TypeReference<SortedMap<Long, Long>>() {})
+                .convert(lMap).keySet()));
+        assertEquals(ConcurrentHashMap.class, factory
+                .getConverter(from,
+                        new TypeReference<ConcurrentMap<Long, Long>>() {})
+                .convert(lMap).getClass());
+
+        Converter<Map<TimeUnit, Integer>, EnumMap<TimeUnit, Long>>
+                lToEnumMap = factory.getConverter(
+                        new TypeReference<Map<TimeUnit, Integer>>() {},
+                        new TypeReference<EnumMap<TimeUnit, Long>>() {});
+        EnumMap<TimeUnit, Long> lEnumMap =
+                lToEnumMap.convert(Map.of(TimeUnit.DAYS, 1));
+        assertEquals(Map.of(TimeUnit.DAYS, 1L), lEnumMap);
+    }
+
+    @Test
+    public void testImmutableTargets() {
+        ConverterFactory lFactory = newFactory(new ChainedMapConverterFactory(
+                null, new MapFactories().register(
+                        Map.class, MapFactories.immutableMap())));
+        Converter<Map<Integer, Integer>, Map<Long, Long>> lConverter =
+                lFactory.getConverter(from,
+                        new TypeReference<Map<Long, Long>>() {});
+
+        for (Converter<Map<Integer, Integer>, Map<Long, Long>> lEach :
+                Arrays.asList(lConverter,
+                        ConverterCompiler.compile(lConverter))) {
+            Map<Long, Long> lMap = lEach.convert(Map.of(1, 10));
+            assertEquals(Map.of(1L, 10L), lMap);
+            assertEquals(Map.of(1L, 10L).getClass(), lMap.getClass());
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        ForkJoinPool lPool = new ForkJoinPool(4);
+        try {
+            ConverterFactory lFactory = newFactory(
+                    new ChainedMapConverterFactory(
+                            ParallelConversion.forkJoin(1000, lPool)));
+            Map<Integer, Integer> lMap = new LinkedHashMap<>();
+            for (int i = 0; i < 10000; i++) {
+                lMap.put(i, -i);
+            }
+
+            Map<Long, Long> lConcurrent = lFactory.<Map<Integer, Integer>,
+                    ConcurrentMap<Long, Long>>getConverter(from,
+                            new TypeReference<ConcurrentMap<Long, Long>>() {})
+                    .convert(lMap);
+            assertEquals(10000, lConcurrent.size());
+            assertEquals(Long.valueOf(-1234), lConcurrent.get(1234L));
+
+            // the order of the source is kept
+            Map<Long, Long> lLinked = lFactory.<Map<Integer, Integer>,
+                    LinkedHashMap<Long, Long>>getConverter(from,
+                            new TypeReference<LinkedHashMap<Long, Long>>() {})
+                    .convert(lMap);
+            assertEquals(new ArrayList<>(lMap.keySet()).toString(),
+                    new ArrayList<>(lLinked.keySet()).toString());
+        } finally {
+            lPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdentityEntriesAreNotCopied() {
+        LinkedHashMap<Integer, Integer> lMap =
+                new LinkedHashMap<>(Map.of(1, 10));
+        TypeReference<LinkedHashMap<Integer, Integer>> lLinked =
+                new TypeReference<LinkedHashMap<Integer, Integer>>() {};
+        TypeReference<SortedMap<Integer, Integer>> lSorted =
+                new TypeReference<SortedMap<Integer, Integer>>() {};
+        ConverterFactory lShared = newFactory(
+                new ChainedMapConverterFactory(null, new MapFactories(),
+                        IdentityPolicy.SHARE));
+        assertSame(lMap, lShared.getConverter(lLinked, from).convert(lMap));
+        assertEquals(lMap,
+                lShared.getConverter(lLinked, lSorted).convert(lMap));
+
+        Map<Integer, Integer> lWrapped = newFactory(
+                new ChainedMapConverterFactory(null, new MapFactories(),
+                        IdentityPolicy.WRAP))
+                .getConverter(lLinked, from).convert(lMap);
+        assertEquals(lMap, lWrapped);
+        assertEquals(Collections.unmodifiableMap(lMap).getClass(),
+                lWrapped.getClass());
+    }
+
+    @Test
+    public void testIdentityEntriesAreCopied() {
+        LinkedHashMap<Integer, Integer> lMap =
+                new LinkedHashMap<>(Map.of(1, 10));
+        TypeReference<LinkedHashMap<Integer, Integer>> lLinked =
+                new TypeReference<LinkedHashMap<Integer, Integer>>() {};
+        Map<Integer, Integer> lCopy =
+                factory.getConverter(lLinked, from).convert(lMap);
+        assertNotSame(lMap, lCopy);
+        assertEquals(lMap, lCopy);
+
+        // registered targets are created with their factory when shared too
+        lCopy = newFactory(new ChainedMapConverterFactory(null,
+                new MapFactories().register(Map.class,
+                        MapFactories.immutableMap()),
+                IdentityPolicy.SHARE))
+                .getConverter(lLinked, from).convert(lMap);
+        assertNotSame(lMap, lCopy);
+        assertEquals(Map.of(1, 10).getClass(), lCopy.getClass());
+    }
+
+    @Test
+    public void testUninstantiableTargetMap() {
+        assertNull(factory.getConverter(from,
+                new TypeReference<AbstractTestMap>() {}));
+    }
+
+    private static ConverterFactory newFactory(
+            ChainedMapConverterFactory aInMapFactory) {
+        return fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                aInMapFactory);
+    }
+
+    private abstract static class AbstractTestMap
+            extends AbstractMap<Long, Long> {
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * File: ChainedParsingConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import mardlucca.commons.type.ToIntConverter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChainedParsingConverterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConverterFactory factory = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedParsingConverterFactory(),
+            new ChainedContainerConverterFactory());
+
+    @Test
+    public void testParseStrings() {
+        assertEquals(Integer.valueOf(-7), factory.<String, Integer>getConverter(
+                String.class, int.class).convert("-7"));
+        assertEquals(Long.valueOf(1L << 40), factory.<String, Long>getConverter(
+                String.class, Long.class).convert("1099511627776"));
+        assertEquals(Double.valueOf(0.1), factory.<String, Double>getConverter(
+                String.class, double.class).convert("0.1"));
+        assertEquals(Float.valueOf(2.5f), factory.<String, Float>getConverter(
+                String.class, float.class).convert("2.5"));
+        assertEquals(Boolean.TRUE, factory.<String, Boolean>getConverter(
+                String.class, boolean.class).convert("True"));
+        assertEquals(Character.valueOf('c'),
+                factory.<String, Character>getConverter(
+                        String.class, char.class).convert("c"));
+        assertNull(factory.<String, Short>getConverter(
+                String.class, short.class).convert(null));
+    }
+
+    @Test
+    public void testParseOtherCharSequences() {
+        Converter<StringBuilder, Byte> lConverter =
+                factory.getConverter(StringBuilder.class, byte.class);
+        assertEquals(Byte.valueOf((byte) 12),
+                lConverter.convert(new StringBuilder("12")));
+    }
+
+    @Test
+    public void testUnboxedShapes() {
+        Converter<String, Integer> lConverter =
+                factory.getConverter(String.class, int.class);
+        assertTrue(lConverter instanceof ToIntConverter);
+
+        assertArrayEquals(new int[] {1, -2, 3},
+                factory.<String[], int[]>getConverter(
+                        String[].class, int[].class)
+                        .convert(new String[] {"1", "-2", "3"}));
+        assertArrayEquals(new double[] {0.5, 1e3},
+                factory.<String[], double[]>getConverter(
+                        String[].class, double[].class)
+                        .convert(new String[] {"0.5", "1e3"}), 0.0);
+    }
+
+    @Test
+    public void testMalformedNumber() {
+        expectedException.expect(NumberFormatException.class);
+        factory.<String, Long>getConverter(String.class, long.class)
+                .convert("12x");
+    }
+}
@@ -18,7 +18,12 @@
 
 package mardlucca.commons.type.converter;
 
+import mardlucca.commons.type.Converter;
 import mardlucca.commons.type.ConverterFactory;
+import mardlucca.commons.type.IntConverter;
+import mardlucca.commons.type.IntToLongConverter;
+import mardlucca.commons.type.ToDoubleConverter;
+import mardlucca.commons.type.ToLongConverter;
 import org.junit.Test;
 
 import static mardlucca.commons.type.converter.ChainingConverterFactory.singletonFactory;
@@ -45,4 +50,73 @@ public class ChainedPrimitiveTypeConverterFactoryTest {
                             .convert(c),
                 0.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConvertAll() {
+        Converter<Integer, Long> lConverter =
+                factory.getConverter(Integer.class, long.class);
+        Long[] lLongs = new Long[4];
+        lConverter.convertAll(new Integer[] {1, null, 3}, 0, lLongs, 1, 3);
+        assertArrayEquals(new Long[] {null, 1L, null, 3L}, lLongs);
+
+        Converter<Character, Double> lCharConverter =
+                factory.getConverter(char.class, Double.class);
+        Double[] lDoubles = new Double[2];
+        lCharConverter.convertAll(new Character[] {'a', 'b'}, 0, lDoubles, 0,
+                2);
+        assertArrayEquals(new Double[] {97.0, 98.0}, lDoubles);
+    }
+
+    @Test
+    public void testWideningsAreFused() {
+        Converter<Byte, Integer> lByteToInt =
+                factory.getConverter(byte.class, int.class);
+        Converter<Integer, Double> lIntToDouble =
+                factory.getConverter(int.class, double.class);
+        Converter<Byte, Double> lByteToDouble =
+                lByteToInt.andThen(lIntToDouble);
+
+        assertTrue(lByteToDouble instanceof PrimitiveConverter);
+        assertSame(byte.class,
+                ((PrimitiveConverter<?, ?>) lByteToDouble).getFromType());
+        assertSame(double.class,
+                ((PrimitiveConverter<?, ?>) lByteToDouble).getToType());
+        assertEquals(Double.valueOf(-3), lByteToDouble.convert((byte) -3));
+    }
+
+    @Test
+    public void testLossyWideningsAreNotFused() {
+        Converter<Integer, Float> lIntToFloat =
+                factory.getConverter(int.class, float.class);
+        Converter<Float, Double> lFloatToDouble =
+                factory.getConverter(float.class, double.class);
+        Converter<Integer, Double> lIntToDouble =
+                lIntToFloat.andThen(lFloatToDouble);
+
+        assertFalse(lIntToDouble instanceof PrimitiveConverter);
+        // rounded to float on the way
+        assertEquals(Double.valueOf(16777216),
+                lIntToDouble.convert(16777217));
+    }
+
+    @Test
+    public void testUnboxedShapes() {
+        Object lIntToLong = factory.getConverter(int.class, long.class);
+        assertEquals(3L,
+                ((ToLongConverter<Integer>) lIntToLong).convertToLong(3));
+        assertEquals(Long.valueOf(3),
+                ((IntConverter<?>) lIntToLong).convertInt(3));
+
+        IntToLongConverter lConverter = (IntToLongConverter) lIntToLong;
+        assertEquals(-1L, lConverter.convertIntToLong(-1));
+        long[] lLongs = new long[3];
+        lConverter.convertAll(new int[] {1, 2}, 0, lLongs, 1, 2);
+        assertArrayEquals(new long[] {0, 1, 2}, lLongs);
+
+        Object lCharToDouble = factory.getConverter(
+                Character.class, double.class);
+        assertEquals(97.0, ((ToDoubleConverter<Character>) lCharToDouble)
+                .convertToDouble('a'), 0.0);
+        assertFalse(lCharToDouble instanceof IntConverter);
+    }
+}
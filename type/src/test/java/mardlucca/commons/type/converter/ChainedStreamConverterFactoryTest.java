@@ -0,0 +1,166 @@
+/*
+ * File: ChainedStreamConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChainedStreamConverterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConverterFactory factory = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedAutoBoxingConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedStreamConverterFactory(),
+            new ChainedContainerConverterFactory(),
+            new ChainedToStringConverterFactory());
+
+    @Test
+    public void testStreamToStream() {
+        Converter<Stream<Integer>, Stream<String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<Stream<Integer>>() {},
+                        new TypeReference<Stream<String>>() {});
+        assertEquals(Arrays.asList("1", "2", "3"),
+                lConverter.convert(Stream.of(1, 2, 3))
+                        .collect(Collectors.toList()));
+        assertTrue(lConverter.convert(Stream.of(1).parallel()).isParallel());
+        assertNull(lConverter.convert(null));
+    }
+
+    @Test
+    public void testListToStreamIsLazy() {
+        AtomicInteger lCount = new AtomicInteger();
+        StreamingConverter lConverter = new StreamingConverter(
+                StreamingConverter.Kind.ITERABLE,
+                StreamingConverter.Kind.STREAM,
+                aInObject -> {
+                    lCount.incrementAndGet();
+                    return aInObject;
+                });
+
+        Stream<?> lStream = (Stream<?>) lConverter.convert(
+                Arrays.asList(1, 2, 3, 4));
+        assertEquals(0, lCount.get());
+        assertEquals(Arrays.asList(1), lStream.limit(1)
+                .collect(Collectors.toList()));
+        assertEquals(1, lCount.get());
+    }
+
+    @Test
+    public void testCharacteristicsAreKept() {
+        Converter<List<Integer>, Spliterator<Long>> lConverter =
+                factory.getConverter(
+                        new TypeReference<List<Integer>>() {},
+                        new TypeReference<Spliterator<Long>>() {});
+        List<Integer> lList = IntStream.range(0, 10_000).boxed()
+                .collect(Collectors.toCollection(ArrayList::new));
+        Spliterator<Long> lSpliterator = lConverter.convert(lList);
+
+        assertTrue(lSpliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(lSpliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertTrue(lSpliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(10_000, lSpliterator.getExactSizeIfKnown());
+
+        Spliterator<Long> lPrefix = lSpliterator.trySplit();
+        assertEquals(10_000, lPrefix.estimateSize()
+                + lSpliterator.estimateSize());
+
+        long lSum = StreamSupport.stream(lConverter.convert(lList), true)
+                .mapToLong(Long::longValue)
+                .sum();
+        assertEquals(49_995_000L, lSum);
+    }
+
+    @Test
+    public void testIteratorToIterator() {
+        Converter<Iterator<Integer>, Iterator<String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<Iterator<Integer>>() {},
+                        new TypeReference<Iterator<String>>() {});
+        Iterator<String> lIterator =
+                lConverter.convert(Arrays.asList(1, 2).iterator());
+        assertEquals("1", lIterator.next());
+        assertEquals("2", lIterator.next());
+        assertFalse(lIterator.hasNext());
+    }
+
+    @Test
+    public void testIterableToIterable() {
+        Converter<List<Integer>, Iterable<String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<List<Integer>>() {},
+                        new TypeReference<Iterable<String>>() {});
+        Iterable<String> lIterable = lConverter.convert(Arrays.asList(1, 2));
+
+        // can be traversed more than once
+        for (int i = 0; i < 2; i++) {
+            List<String> lList = new ArrayList<>();
+            lIterable.forEach(lList::add);
+            assertEquals(Arrays.asList("1", "2"), lList);
+        }
+    }
+
+    @Test
+    public void testStreamToIterableIsOneShot() {
+        Converter<Stream<Integer>, Iterable<String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<Stream<Integer>>() {},
+                        new TypeReference<Iterable<String>>() {});
+        Iterable<String> lIterable = lConverter.convert(Stream.of(1, 2));
+        assertEquals("1", lIterable.iterator().next());
+
+        expectedException.expect(IllegalStateException.class);
+        lIterable.iterator();
+    }
+
+    @Test
+    public void testCollectionTargetsAreNotHandled() {
+        assertTrue(((Object) factory.getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<List<String>>() {}))
+                instanceof ContainerConverter);
+        assertNull(factory.getConverter(
+                new TypeReference<Stream<Integer>>() {},
+                new TypeReference<List<String>>() {}));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * File: ChainedToStringConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.type.AppendingConverter;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.singletonFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChainedToStringConverterFactoryTest {
+    private ConverterFactory factory =
+            singletonFactory(new ChainedToStringConverterFactory());
+
+    private AppendingConverter<Object> converter = (AppendingConverter<Object>)
+            factory.<Object, String>getConverter(Object.class, String.class);
+
+    @Test
+    public void testConvert() {
+        Converter<Integer, String> lConverter =
+                factory.getConverter(int.class, String.class);
+        assertEquals("12", lConverter.convert(12));
+        assertNull(lConverter.convert(null));
+    }
+
+    @Test
+    public void testAppendPrimitives() throws IOException {
+        StringWriter lWriter = new StringWriter();
+        for (Object lValue : new Object[] {-3, ' ', 2.5, 'c', null, true,
+                (byte) 1, 7L, 0.5f, "s"}) {
+            converter.appendTo(lValue, lWriter);
+        }
+        assertEquals("-3 2.5cnulltrue170.5s", lWriter.toString());
+    }
+
+    @Test
+    public void testAppendCollectionsAndMaps() throws IOException {
+        Map<Object, Object> lMap = new LinkedHashMap<>();
+        lMap.put("a", Arrays.asList(1, 2.0, null));
+        lMap.put(3L, lMap);
+        List<Object> lList = new ArrayList<>(Arrays.asList(lMap, 'x'));
+        lList.add(lList);
+
+        StringBuilder lBuilder = new StringBuilder(">");
+        converter.appendTo(lList, lBuilder);
+        assertEquals(">" + lList, lBuilder.toString());
+
+        CharBuffer lBuffer = CharBuffer.allocate(64);
+        converter.appendTo(lMap, lBuffer);
+        lBuffer.flip();
+        assertEquals(lMap.toString(), lBuffer.toString());
+    }
+
+    @Test
+    public void testAppendOwnFormats() {
+        // formats its own entries rather than through AbstractMap
+        Map<String, Integer> lMap = new ConcurrentHashMap<>();
+        lMap.put("a", 1);
+        int[] lArray = {1};
+
+        StringBuilder lBuilder = new StringBuilder();
+        converter.appendTo(lMap, lBuilder);
+        converter.appendTo(lArray, lBuilder);
+        assertEquals(lMap.toString() + lArray, lBuilder.toString());
+    }
+}
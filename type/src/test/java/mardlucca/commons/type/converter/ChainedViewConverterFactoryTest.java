@@ -0,0 +1,195 @@
+/*
+ * File: ChainedViewConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChainedViewConverterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConverterFactory factory = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedAutoBoxingConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedViewConverterFactory(),
+            new ChainedContainerConverterFactory(),
+            new ChainedMapConverterFactory(),
+            new ChainedToStringConverterFactory());
+
+    @Test
+    public void testListView() {
+        Converter<List<Integer>, List<String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<List<Integer>>() {},
+                        new TypeReference<List<String>>() {});
+        assertTrue(((Object) lConverter) instanceof ListViewConverter);
+
+        List<Integer> lSource = new ArrayList<>(Arrays.asList(1, 2, 3));
+        List<String> lView = lConverter.convert(lSource);
+        assertEquals(Arrays.asList("1", "2", "3"), lView);
+        assertTrue(lView instanceof RandomAccess);
+        assertFalse(lConverter.convert(new LinkedList<>(lSource))
+                instanceof RandomAccess);
+
+        // changes to the source are visible through the view
+        lSource.add(4);
+        assertEquals(4, lView.size());
+        assertEquals("4", lView.get(3));
+
+        assertNull(lConverter.convert(null));
+    }
+
+    @Test
+    public void testListViewConvertsOnAccess() {
+        AtomicInteger lCount = new AtomicInteger();
+        ListViewConverter<Integer, Integer> lConverter =
+                new ListViewConverter<>(aInInteger -> {
+                    lCount.incrementAndGet();
+                    return aInInteger * 2;
+                });
+
+        List<Integer> lView = lConverter.convert(Arrays.asList(1, 2, 3, 4));
+        assertEquals(0, lCount.get());
+        assertEquals(Integer.valueOf(6), lView.get(2));
+        assertEquals(1, lCount.get());
+    }
+
+    @Test
+    public void testListViewIsReadOnly() {
+        List<String> lView = factory.<List<Integer>, List<String>>getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<List<String>>() {})
+                .convert(Arrays.asList(1, 2));
+
+        expectedException.expect(UnsupportedOperationException.class);
+        lView.add("3");
+    }
+
+    @Test
+    public void testConcreteTargetsAreCopied() {
+        assertTrue(((Object) factory.getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<ArrayList<String>>() {}))
+                instanceof ContainerConverter);
+        assertTrue(((Object) factory.getConverter(
+                new TypeReference<Map<String, Integer>>() {},
+                new TypeReference<HashMap<String, String>>() {}))
+                instanceof MapConverter);
+    }
+
+    @Test
+    public void testMapViewWithValuesOnly() {
+        Converter<Map<String, Integer>, Map<String, String>> lConverter =
+                factory.getConverter(
+                        new TypeReference<Map<String, Integer>>() {},
+                        new TypeReference<Map<String, String>>() {});
+        assertTrue(((Object) lConverter) instanceof MapViewConverter);
+
+        Map<String, Integer> lSource = new HashMap<>();
+        lSource.put("a", 1);
+        lSource.put("b", 2);
+        Map<String, String> lView = lConverter.convert(lSource);
+
+        assertEquals(2, lView.size());
+        assertEquals("1", lView.get("a"));
+        assertNull(lView.get("c"));
+        assertNull(lView.get(1));
+        assertTrue(lView.containsKey("b"));
+        assertFalse(lView.containsKey("c"));
+
+        Map<String, String> lExpected = new HashMap<>();
+        lExpected.put("a", "1");
+        lExpected.put("b", "2");
+        assertEquals(lExpected, lView);
+    }
+
+    @Test
+    public void testMapViewWithInvertibleKeys() {
+        Converter<Map<Integer, Integer>, Map<Long, String>> lConverter =
+                new MapViewConverter<>(Integer::longValue,
+                        aInLong -> (int) (long) aInLong, String::valueOf);
+
+        Map<Integer, Integer> lSource = new HashMap<>();
+        lSource.put(1, 10);
+        lSource.put(2, 20);
+        Map<Long, String> lView = lConverter.convert(lSource);
+
+        assertEquals("10", lView.get(1L));
+        assertTrue(lView.containsKey(2L));
+        // the inverse truncates this key, but it does not map back to itself
+        assertFalse(lView.containsKey(1L + (1L << 32)));
+        assertNull(lView.get(1L + (1L << 32)));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), lView.keySet());
+    }
+
+    @Test
+    public void testMapWithMergedKeysIsCopied() {
+        ConverterFactory lFactory = fromFactories(
+                new ChainedIdentityConverterFactory(),
+                new ChainedViewConverterFactory(),
+                new ChainedMapConverterFactory(),
+                new ChainedToStringConverterFactory(),
+                new ChainedCastingConverterFactory());
+        Converter<Map<Object, Integer>, Map<String, Integer>> lConverter =
+                lFactory.getConverter(
+                        new TypeReference<Map<Object, Integer>>() {},
+                        new TypeReference<Map<String, Integer>>() {});
+        assertTrue(((Object) lConverter) instanceof MapConverter);
+
+        // 1 and "1" are both converted to "1"
+        Map<Object, Integer> lSource = new HashMap<>();
+        lSource.put(1, 10);
+        lSource.put("1", 10);
+        Map<String, Integer> lMap = lConverter.convert(lSource);
+        assertEquals(1, lMap.size());
+        assertEquals(1, lMap.entrySet().size());
+        assertEquals(Integer.valueOf(10), lMap.get("1"));
+    }
+
+    @Test
+    public void testMapWithoutInverseIsCopied() {
+        // the chain can convert Integer keys to String, but not back
+        assertTrue(((Object) factory.getConverter(
+                new TypeReference<Map<Integer, Integer>>() {},
+                new TypeReference<Map<String, Integer>>() {}))
+                instanceof MapConverter);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * File: ChainingConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import mardlucca.commons.type.converter.ChainingConverterFactory.ChainedConverterFactory;
+import mardlucca.commons.type.converter.ChainingConverterFactory.FactoryChain;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ChainingConverterFactoryTest {
+    private CountingFactory counter = new CountingFactory();
+
+    private ConverterFactory factory = fromFactories(
+            counter,
+            new ChainedIdentityConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedContainerConverterFactory());
+
+    @Test
+    public void testConverterIsCached() {
+        Converter<Integer, Long> lConverter =
+                factory.getConverter(Integer.class, Long.class);
+        assertNotNull(lConverter);
+        assertSame(lConverter, factory.getConverter(Integer.class, Long.class));
+        assertEquals(1, counter.count.get());
+        assertEquals(Long.valueOf(10), lConverter.convert(10));
+    }
+
+    @Test
+    public void testMissingConverterIsCached() {
+        assertNull(factory.getConverter(String.class, Integer.class));
+        assertNull(factory.getConverter(String.class, Integer.class));
+        assertEquals(1, counter.count.get());
+    }
+
+    @Test
+    public void testNestedResolutionsAreCached() {
+        factory.getConverter(int[].class, long[].class);
+        assertEquals(2, counter.count.get());
+
+        factory.getConverter(int.class, long.class);
+        factory.getConverter(int[].class, long[].class);
+        assertEquals(2, counter.count.get());
+
+        factory.getConverter(int.class, double.class);
+        factory.getConverter(int[].class, double[].class);
+        assertEquals(4, counter.count.get());
+    }
+
+    @Test
+    public void testConcurrentResolution() throws InterruptedException {
+        List<Thread> lThreads = new ArrayList<>();
+        Converter<?, ?>[] lConverters = new Converter<?, ?>[8];
+        for (int i = 0; i < lConverters.length; i++) {
+            int lIndex = i;
+            lThreads.add(new Thread(() -> lConverters[lIndex] =
+                    factory.getConverter(short.class, double.class)));
+        }
+        for (Thread lThread : lThreads) {
+            lThread.start();
+        }
+        for (Thread lThread : lThreads) {
+            lThread.join();
+        }
+
+        for (Converter<?, ?> lConverter : lConverters) {
+            assertSame(lConverters[0], lConverter);
+        }
+    }
+
+    @Test
+    public void testFactoriesOfOtherKindsAreSkipped() {
+        CountingFactory lPrimitiveCounter = new CountingFactory(
+                EnumSet.of(TypeKind.PRIMITIVE), EnumSet.of(TypeKind.PRIMITIVE));
+        ConverterFactory lFactory = fromFactories(
+                lPrimitiveCounter,
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory());
+
+        assertNotNull(lFactory.getConverter(int[].class, long[].class));
+        // the arrays skip the counter, but their elements don't
+        assertEquals(1, lPrimitiveCounter.count.get());
+
+        assertNull(lFactory.getConverter(String.class, Integer.class));
+        assertEquals(1, lPrimitiveCounter.count.get());
+    }
+
+    @Test
+    public void testNestedResolutionsDontMoveTheChain() {
+        // resolves the elements of arrays before moving on, so the nested
+        // resolution happens in the middle of the outer one
+        ChainedConverterFactory lNestingFactory =
+                new ChainedConverterFactory() {
+                    @Override
+                    public <F, T> Converter<F, T> getConverter(
+                            Type aInFrom, Type aInTo, FactoryChain aInChain) {
+                        if (aInFrom instanceof Class
+                                && ((Class<?>) aInFrom).isArray()) {
+                            aInChain.invokeFirst(
+                                    ((Class<?>) aInFrom).getComponentType(),
+                                    ((Class<?>) aInTo).getComponentType());
+                        }
+                        return aInChain.invokeNext(aInFrom, aInTo);
+                    }
+                };
+        CountingFactory lCounter = new CountingFactory();
+        ConverterFactory lFactory = fromFactories(
+                lNestingFactory,
+                lCounter,
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory());
+
+        assertNotNull(lFactory.getConverter(int[].class, long[].class));
+        // int -> long once, nested, and int[] -> long[] once, after it
+        assertEquals(2, lCounter.count.get());
+    }
+
+    @Test
+    public void testPlanIsSavedAndLoaded() throws IOException {
+        Type lListType = new TypeReference<List<Integer>>() {}.getType();
+        ChainingConverterFactory lFactory = newFactory(new CountingFactory());
+        lFactory.recordPlan();
+        lFactory.getConverter(lListType, long[].class);
+        lFactory.getConverter(String.class, Integer.class);
+        ByteArrayOutputStream lOutput = new ByteArrayOutputStream();
+        lFactory.savePlan(lOutput);
+
+        CountingFactory lCounter = new CountingFactory();
+        ChainingConverterFactory lLoaded = newFactory(lCounter);
+        lLoaded.recordPlan();
+        // List<Integer> -> long[], Integer -> long and String -> Integer
+        assertEquals(3, lLoaded.loadPlan(
+                new ByteArrayInputStream(lOutput.toByteArray())));
+
+        Converter<List<Integer>, long[]> lConverter =
+                lLoaded.getConverter(lListType, long[].class);
+        assertArrayEquals(new long[] {1, 2},
+                lConverter.convert(Arrays.asList(1, 2)));
+        assertNull(lLoaded.getConverter(String.class, Integer.class));
+        // the chain was not walked, so the counter at its head saw nothing
+        assertEquals(0, lCounter.count.get());
+
+        // plans loaded can be saved again
+        ByteArrayOutputStream lResaved = new ByteArrayOutputStream();
+        lLoaded.savePlan(lResaved);
+        assertArrayEquals(lOutput.toByteArray(), lResaved.toByteArray());
+    }
+
+    @Test
+    public void testStalePlanIsIgnored() throws IOException {
+        ChainingConverterFactory lFactory = newFactory(new CountingFactory());
+        lFactory.recordPlan();
+        lFactory.getConverter(int[].class, long[].class);
+        ByteArrayOutputStream lOutput = new ByteArrayOutputStream();
+        lFactory.savePlan(lOutput);
+
+        ChainingConverterFactory lOtherFactory =
+                (ChainingConverterFactory) fromFactories(
+                        new ChainedIdentityConverterFactory(),
+                        new ChainedPrimitiveTypeConverterFactory());
+        assertEquals(0, lOtherFactory.loadPlan(
+                new ByteArrayInputStream(lOutput.toByteArray())));
+    }
+
+    @Test
+    public void testPlannedFactoryNoLongerConverts() throws IOException {
+        ChainingConverterFactory lFactory = (ChainingConverterFactory)
+                fromFactories(new IntegerToLongFactory(true),
+                        new ChainedPrimitiveTypeConverterFactory());
+        lFactory.recordPlan();
+        lFactory.getConverter(Integer.class, Long.class);
+        ByteArrayOutputStream lOutput = new ByteArrayOutputStream();
+        lFactory.savePlan(lOutput);
+
+        // the primitive factory converts the pair, but it was not planned to
+        ChainingConverterFactory lLoaded = (ChainingConverterFactory)
+                fromFactories(new IntegerToLongFactory(false),
+                        new ChainedPrimitiveTypeConverterFactory());
+        assertEquals(0, lLoaded.loadPlan(
+                new ByteArrayInputStream(lOutput.toByteArray())));
+        assertEquals(Long.valueOf(1), lLoaded.<Integer, Long>getConverter(
+                Integer.class, Long.class).convert(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPlanIsNotRecordedByDefault() throws IOException {
+        ChainingConverterFactory lFactory = newFactory(new CountingFactory());
+        lFactory.getConverter(int[].class, long[].class);
+        lFactory.savePlan(new ByteArrayOutputStream());
+    }
+
+    private static ChainingConverterFactory newFactory(
+            CountingFactory aInCounter) {
+        return (ChainingConverterFactory) fromFactories(
+                aInCounter,
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedAutoBoxingConverterFactory(),
+                new ChainedContainerConverterFactory());
+    }
+
+    private static class CountingFactory implements ChainedConverterFactory {
+        private AtomicInteger count = new AtomicInteger();
+        private Set<TypeKind> sourceKinds;
+        private Set<TypeKind> targetKinds;
+
+        CountingFactory() {
+            this(TypeKind.ANY, TypeKind.ANY);
+        }
+
+        CountingFactory(Set<TypeKind> aInSourceKinds,
+                        Set<TypeKind> aInTargetKinds) {
+            sourceKinds = aInSourceKinds;
+            targetKinds = aInTargetKinds;
+        }
+
+        @Override
+        public Set<TypeKind> getSourceKinds() {
+            return sourceKinds;
+        }
+
+        @Override
+        public Set<TypeKind> getTargetKinds() {
+            return targetKinds;
+        }
+
+        @Override
+        public <F, T> Converter<F, T> getConverter(
+                Type aInFrom, Type aInTo, FactoryChain aInChain) {
+            count.incrementAndGet();
+            return aInChain.invokeNext(aInFrom, aInTo);
+        }
+    }
+
+    private static class IntegerToLongFactory
+            implements ChainedConverterFactory {
+        private boolean converts;
+
+        IntegerToLongFactory(boolean aInConverts) {
+            converts = aInConverts;
+        }
+
+        @Override
+        public <F, T> Converter<F, T> getConverter(
+                Type aInFrom, Type aInTo, FactoryChain aInChain) {
+            if (converts && aInFrom == Integer.class && aInTo == Long.class) {
+                Converter<Integer, Long> lConverter = Integer::longValue;
+                //noinspection unchecked
+                return (Converter<F, T>) lConverter;
+            }
+            return aInChain.invokeNext(aInFrom, aInTo);
+        }
+    }
+}
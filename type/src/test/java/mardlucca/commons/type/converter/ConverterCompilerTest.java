@@ -0,0 +1,156 @@
+/*
+ * File: ConverterCompilerTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConverterCompilerTest {
+    private ConverterFactory factory = new CompilingConverterFactory(
+            fromFactories(
+                    new ChainedIdentityConverterFactory(),
+                    new ChainedAutoBoxingConverterFactory(),
+                    new ChainedPrimitiveTypeConverterFactory(),
+                    new ChainedContainerConverterFactory(),
+                    new ChainedMapConverterFactory(),
+                    new ChainedToStringConverterFactory()));
+
+    @Test
+    public void testCompileNull() {
+        assertNull(ConverterCompiler.compile(null));
+        assertNull(factory.getConverter(String.class, Integer.class));
+    }
+
+    @Test
+    public void testCompiledConvertersAreHiddenClasses() {
+        Converter<Integer, Long> lConverter =
+                factory.getConverter(Integer.class, Long.class);
+        assertTrue(lConverter.getClass().isHidden());
+        assertSame(lConverter, factory.getConverter(Integer.class, Long.class));
+    }
+
+    @Test
+    public void testIdentitiesAreNotCompiled() {
+        Converter<String, String> lIdentity =
+                factory.getConverter(String.class, String.class);
+        assertTrue(lIdentity.isIdentity());
+        assertFalse(lIdentity.getClass().isHidden());
+        assertSame(Converter.identityConverter(),
+                ConverterCompiler.compile(Converter.identityConverter()));
+    }
+
+    @Test
+    public void testScalars() {
+        Converter<Integer, Long> lIntToLong =
+                factory.getConverter(int.class, long.class);
+        assertEquals(Long.valueOf(10), lIntToLong.convert(10));
+        assertNull(lIntToLong.convert(null));
+
+        Converter<Character, Double> lCharToDouble =
+                factory.getConverter(Character.class, double.class);
+        assertEquals(97.0, lCharToDouble.convert('a'), 0.0);
+
+        Converter<String, String> lIdentity =
+                factory.getConverter(String.class, String.class);
+        assertEquals("abc", lIdentity.convert("abc"));
+
+        Converter<Integer, String> lToString =
+                factory.getConverter(Integer.class, String.class);
+        assertEquals("12", lToString.convert(12));
+    }
+
+    @Test
+    public void testArrays() {
+        assertArrayEquals(new long[] {1, 2},
+                factory.<int[], long[]>getConverter(int[].class, long[].class)
+                        .convert(new int[] {1, 2}));
+        assertArrayEquals(new Long[] {1L, null, 3L},
+                factory.<Integer[], Long[]>getConverter(
+                        Integer[].class, Long[].class)
+                        .convert(new Integer[] {1, null, 3}));
+        assertArrayEquals(new String[][] {{"1"}, {}, null},
+                factory.<int[][], String[][]>getConverter(
+                        int[][].class, String[][].class)
+                        .convert(new int[][] {{1}, {}, null}));
+        assertNull(factory.<Integer[], Long[]>getConverter(
+                Integer[].class, Long[].class).convert(null));
+    }
+
+    @Test
+    public void testCollections() {
+        Converter<List<Integer>, List<Long>> lToList = factory.getConverter(
+                new TypeReference<List<Integer>>() {},
+                new TypeReference<List<Long>>() {});
+        assertEquals(Arrays.asList(1L, 2L, 3L),
+                lToList.convert(Arrays.asList(1, 2, 3)));
+
+        Converter<Set<Integer>, int[]> lToArray = factory.getConverter(
+                new TypeReference<Set<Integer>>() {},
+                new TypeReference<int[]>() {});
+        int[] lArray = lToArray.convert(Set.of(5));
+        assertArrayEquals(new int[] {5}, lArray);
+
+        Converter<short[], List<Integer>> lFromArray = factory.getConverter(
+                new TypeReference<short[]>() {},
+                new TypeReference<List<Integer>>() {});
+        assertEquals(Arrays.asList(1, 2),
+                lFromArray.convert(new short[] {1, 2}));
+    }
+
+    @Test
+    public void testMaps() {
+        Converter<Map<String, List<Integer>>, Map<String, Long[]>> lConverter =
+                factory.getConverter(
+                        new TypeReference<Map<String, List<Integer>>>() {},
+                        new TypeReference<Map<String, Long[]>>() {});
+        Map<String, List<Integer>> lMap = new HashMap<>();
+        lMap.put("a", Arrays.asList(1, 2));
+        lMap.put("b", null);
+
+        Map<String, Long[]> lResult = lConverter.convert(lMap);
+        assertEquals(2, lResult.size());
+        assertArrayEquals(new Long[] {1L, 2L}, lResult.get("a"));
+        assertTrue(lResult.containsKey("b"));
+        assertNull(lResult.get("b"));
+        assertNull(lConverter.convert(null));
+    }
+
+    @Test
+    public void testOpaqueConverter() {
+        Converter<String, Integer> lConverter =
+                ConverterCompiler.compile(String::length);
+        assertEquals(Integer.valueOf(3), lConverter.convert("abc"));
+    }
+}
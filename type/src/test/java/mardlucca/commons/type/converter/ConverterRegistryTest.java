@@ -0,0 +1,112 @@
+/*
+ * File: ConverterRegistryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ConverterRegistryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConverterFactory delegate = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedContainerConverterFactory());
+
+    private TypeReference<List<Integer>> listType =
+            new TypeReference<List<Integer>>() {};
+
+    private TypeReference<long[]> arrayType = new TypeReference<long[]>() {};
+
+    @Test
+    public void testDeclaredPairsAreFrozen() {
+        ConverterRegistry lRegistry = new ConverterRegistry(delegate)
+                .declare(int.class, long.class)
+                .warmUp(listType, arrayType, Arrays.asList(1, 2, 3), 100);
+        ConverterFactory lFrozen =
+                lRegistry.freeze(ConverterRegistry.Fallback.FAIL);
+
+        assertSame(delegate.getConverter(int.class, long.class),
+                lFrozen.getConverter(int.class, long.class));
+        Converter<List<Integer>, long[]> lConverter =
+                lFrozen.getConverter(listType, arrayType);
+        assertArrayEquals(new long[] {1, 2, 3},
+                lConverter.convert(Arrays.asList(1, 2, 3)));
+        // types equal to the declared ones are found too
+        assertSame(lConverter, lFrozen.getConverter(
+                new TypeReference<List<Integer>>() {}, arrayType));
+    }
+
+    @Test
+    public void testUndeclaredPairsFallBackToTheDelegate() {
+        ConverterFactory lFrozen = new ConverterRegistry(delegate)
+                .declare(int.class, long.class)
+                .freeze(ConverterRegistry.Fallback.DELEGATE);
+
+        Converter<Integer, Double> lConverter =
+                lFrozen.getConverter(int.class, double.class);
+        assertNotNull(lConverter);
+        assertEquals(Double.valueOf(1), lConverter.convert(1));
+    }
+
+    @Test
+    public void testUndeclaredPairsFail() {
+        ConverterFactory lFrozen = new ConverterRegistry(delegate)
+                .declare(int.class, long.class)
+                .freeze(ConverterRegistry.Fallback.FAIL);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "converter from int to double was not declared");
+        lFrozen.getConverter(int.class, double.class);
+    }
+
+    @Test
+    public void testDeclaringAPairWithoutAConverterFails() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+                "no converter from java.lang.String to int");
+        new ConverterRegistry(delegate).declare(String.class, int.class);
+    }
+
+    @Test
+    public void testPairsDeclaredAfterFreezingAreNotSeen() {
+        ConverterRegistry lRegistry = new ConverterRegistry(delegate);
+        ConverterFactory lFrozen =
+                lRegistry.freeze(ConverterRegistry.Fallback.FAIL);
+        lRegistry.declare(int.class, long.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        lFrozen.getConverter(int.class, long.class);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * File: FlightRecorderEventsTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FlightRecorderEventsTest {
+    private ConverterFactory factory = fromFactories(
+            new ChainedIdentityConverterFactory(),
+            new ChainedPrimitiveTypeConverterFactory(),
+            new ChainedContainerConverterFactory());
+
+    private ConverterFactory parsingFactory = fromFactories(
+            new ChainedParsingConverterFactory(),
+            new ChainedContainerConverterFactory());
+
+    @Test
+    public void testResolutionEvents() throws Exception {
+        List<RecordedEvent> lEvents = record(
+                "mardlucca.commons.type.ConverterResolution",
+                aInFactory -> {
+                    aInFactory.getConverter(int[].class, long[].class);
+                    aInFactory.getConverter(String.class, int.class);
+                });
+
+        // int[] -> long[], its nested int -> long and String -> int
+        assertEquals(3, lEvents.size());
+        RecordedEvent lNested = find(lEvents, "int", "long");
+        assertTrue(lNested.getBoolean("found"));
+        assertEquals(ChainedPrimitiveTypeConverterFactory.class.getName(),
+                lNested.getString("factory"));
+        RecordedEvent lArray = find(lEvents, "int[]", "long[]");
+        assertTrue(lArray.getBoolean("found"));
+        assertEquals(ChainedContainerConverterFactory.class.getName(),
+                lArray.getString("factory"));
+        assertFalse(find(lEvents, "java.lang.String", "int")
+                .getBoolean("found"));
+    }
+
+    @Test
+    public void testContainerConversionEvents() throws Exception {
+        List<RecordedEvent> lEvents = record(
+                "mardlucca.commons.type.ContainerConversion",
+                aInFactory -> {
+                    Converter<Integer[], long[]> lConverter = aInFactory
+                            .getConverter(Integer[].class, long[].class);
+                    Integer[] lLarge =
+                            new Integer[ContainerConversionEvent.THRESHOLD];
+                    Arrays.fill(lLarge, 1);
+                    lConverter.convert(new Integer[] {1, 2});
+                    lConverter.convert(lLarge);
+                });
+
+        assertEquals(1, lEvents.size());
+        assertEquals(ContainerConversionEvent.THRESHOLD,
+                lEvents.get(0).getInt("elements"));
+        assertEquals(long[].class.getName(),
+                lEvents.get(0).getClass("to").getName());
+    }
+
+    @Test
+    public void testNestedFailureIsRecordedOnce() throws Exception {
+        List<RecordedEvent> lEvents = record(
+                "mardlucca.commons.type.ConversionFailure",
+                aInFactory -> {
+                    Converter<List<List<String>>, int[][]> lConverter =
+                            parsingFactory.getConverter(
+                                    new TypeReference<List<List<String>>>() {},
+                                    new TypeReference<int[][]>() {});
+                    try {
+                        lConverter.convert(Arrays.asList(
+                                Arrays.asList("1"), Arrays.asList("x")));
+                        fail();
+                    } catch (NumberFormatException e) {
+                        // expected
+                    }
+                });
+
+        assertEquals(1, lEvents.size());
+        assertEquals(NumberFormatException.class.getName(),
+                lEvents.get(0).getClass("exception").getName());
+    }
+
+    @Test
+    public void testLeafFailureIsRecorded() throws Exception {
+        List<RecordedEvent> lEvents = record(
+                "mardlucca.commons.type.ConversionFailure",
+                aInFactory -> {
+                    Converter<String, Integer> lConverter =
+                            new InstrumentedConverterFactory(parsingFactory,
+                                    new ConversionListener() {})
+                                    .getConverter(String.class, int.class);
+                    try {
+                        lConverter.convert("x");
+                        fail();
+                    } catch (NumberFormatException e) {
+                        // expected
+                    }
+                });
+
+        assertEquals(1, lEvents.size());
+        assertEquals(String.class.getName(),
+                lEvents.get(0).getClass("from").getName());
+    }
+
+    @Test
+    public void testCompiledConverterEvents() throws Exception {
+        Consumer<ConverterFactory> lAction = aInFactory -> {
+            Converter<List<Integer>, long[]> lConverter =
+                    new CompilingConverterFactory(aInFactory).getConverter(
+                            new TypeReference<List<Integer>>() {}.getType(),
+                            long[].class);
+            lConverter.convert(Collections.nCopies(
+                    ContainerConversionEvent.THRESHOLD, 1));
+            try {
+                lConverter.convert(Arrays.asList(1, null));
+                fail();
+            } catch (NullPointerException e) {
+                // expected
+            }
+        };
+
+        List<RecordedEvent> lEvents = record(
+                "mardlucca.commons.type.ContainerConversion", lAction);
+        assertEquals(1, lEvents.size());
+        assertEquals(ContainerConversionEvent.THRESHOLD,
+                lEvents.get(0).getInt("elements"));
+
+        lEvents = record(
+                "mardlucca.commons.type.ConversionFailure", lAction);
+        assertEquals(1, lEvents.size());
+        assertEquals(NullPointerException.class.getName(),
+                lEvents.get(0).getClass("exception").getName());
+    }
+
+    private List<RecordedEvent> record(
+            String aInEvent, Consumer<ConverterFactory> aInAction)
+            throws Exception {
+        Path lFile = Files.createTempFile("conversions", ".jfr");
+        try {
+            try (Recording lRecording = new Recording()) {
+                lRecording.enable(aInEvent);
+                lRecording.start();
+                aInAction.accept(factory);
+                lRecording.stop();
+                lRecording.dump(lFile);
+            }
+            return RecordingFile.readAllEvents(lFile).stream()
+                    .filter(aInRecorded -> aInRecorded.getEventType()
+                            .getName().equals(aInEvent))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(lFile);
+        }
+    }
+
+    private RecordedEvent find(
+            List<RecordedEvent> aInEvents, String aInFrom, String aInTo) {
+        for (RecordedEvent lEvent : aInEvents) {
+            if (aInFrom.equals(lEvent.getString("from"))
+                    && aInTo.equals(lEvent.getString("to"))) {
+                return lEvent;
+            }
+        }
+        fail("no event for " + aInFrom + " -> " + aInTo);
+        return null;
+    }
+}
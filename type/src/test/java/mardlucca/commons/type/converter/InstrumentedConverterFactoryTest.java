@@ -0,0 +1,138 @@
+/*
+ * File: InstrumentedConverterFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.TypeReference;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentedConverterFactoryTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ConversionMetrics metrics = new ConversionMetrics();
+
+    private ConverterFactory factory = new InstrumentedConverterFactory(
+            fromFactories(
+                    new ChainedIdentityConverterFactory(),
+                    new ChainedPrimitiveTypeConverterFactory(),
+                    new ChainedContainerConverterFactory()),
+            metrics,
+            1);
+
+    @Test
+    public void testResolutionsAreCounted() {
+        Converter<Integer, Long> lConverter =
+                factory.getConverter(int.class, long.class);
+        assertSame(lConverter, factory.getConverter(int.class, long.class));
+        assertNull(factory.getConverter(String.class, Integer.class));
+
+        assertEquals(3, metrics.getConverterRequests());
+        assertEquals(2, metrics.getConverterResolutions());
+        assertEquals(1, metrics.getFailedConverterResolutions());
+        assertEquals(1 / 3.0, metrics.getCacheHitRatio(), 0.0001);
+        assertEquals(2, Arrays.stream(metrics.getResolutionLatencyHistogram())
+                .sum());
+    }
+
+    @Test
+    public void testConversionsAreCounted() {
+        Type lListType = new TypeReference<List<Integer>>() {}.getType();
+        Converter<Integer, Long> lConverter =
+                factory.getConverter(int.class, long.class);
+        Converter<List<Integer>, long[]> lListConverter =
+                factory.getConverter(lListType, long[].class);
+
+        assertEquals(Long.valueOf(1), lConverter.convert(1));
+        assertEquals(Long.valueOf(2), lConverter.convert(2));
+        assertArrayEquals(new long[] {1, 2, 3},
+                lListConverter.convert(Arrays.asList(1, 2, 3)));
+
+        assertEquals(3, metrics.getConversions());
+        assertEquals(2, metrics.getConversions(int.class, long.class));
+        assertEquals(1, metrics.getConversions(lListType, long[].class));
+        assertEquals(1, metrics.getContainerConversions());
+        assertEquals(3, metrics.getConvertedElements());
+        // every conversion is sampled with an interval of 1
+        assertEquals(3, Arrays.stream(metrics.getConversionLatencyHistogram())
+                .sum());
+        assertEquals(1, Arrays.stream(
+                metrics.getContainerConversionLatencyHistogram()).sum());
+        assertTrue(metrics.getConversionLatency99thPercentileNanos() > 0);
+
+        Map<String, Long> lConversionsByType = metrics.getConversionsByType();
+        assertEquals(Long.valueOf(2), lConversionsByType.get("int -> long"));
+        assertEquals(Long.valueOf(1), lConversionsByType.get(
+                "java.util.List<java.lang.Integer> -> long[]"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getConversions());
+        assertEquals(0, metrics.getConversions(int.class, long.class));
+    }
+
+    @Test
+    public void testIdentitiesAreTold() {
+        Converter<Integer, Integer> lIdentity =
+                factory.getConverter(Integer.class, Integer.class);
+        assertTrue(lIdentity.isIdentity());
+        assertFalse(factory.getConverter(int.class, long.class)
+                .isIdentity());
+
+        assertEquals(Integer.valueOf(1), lIdentity.convert(1));
+        assertEquals(1, metrics.getConversions());
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        ObjectName lName = metrics.registerMBean("test");
+        try {
+            factory.<Integer, Long>getConverter(int.class, long.class)
+                    .convert(1);
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(lName, "Conversions"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(lName);
+        }
+    }
+
+    @Test
+    public void testInvalidSamplingInterval() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("sampling interval must be positive");
+        new InstrumentedConverterFactory(factory, metrics, 0);
+    }
+}
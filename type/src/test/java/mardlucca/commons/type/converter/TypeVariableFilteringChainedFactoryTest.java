@@ -0,0 +1,84 @@
+/*
+ * File: TypeVariableFilteringChainedFactoryTest.java
+ *
+ * Copyright 2019 Marcio D. Lucca
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package mardlucca.commons.type.converter;
+
+import mardlucca.commons.lang.Types;
+import mardlucca.commons.type.Converter;
+import mardlucca.commons.type.ConverterFactory;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static mardlucca.commons.type.converter.ChainingConverterFactory.fromFactories;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TypeVariableFilteringChainedFactoryTest {
+    // the E of Collection<E>
+    private static final Type ELEMENT = Collection.class.getTypeParameters()[0];
+
+    @Test
+    public void testTypeVariablesAreRejected() {
+        ConverterFactory lFactory = fromFactories(
+                new TypeVariableFilteringChainedFactory(),
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory());
+
+        assertNull(lFactory.getConverter(ELEMENT, double.class));
+        assertNotNull(lFactory.getConverter(Long.class, double.class));
+    }
+
+    @Test
+    public void testTypeVariablesAreResolvedAgainstContext() {
+        ConverterFactory lFactory = fromFactories(
+                new TypeVariableFilteringChainedFactory(IdList.class),
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory(),
+                new ChainedContainerConverterFactory());
+
+        Converter<Long, Double> lConverter =
+                lFactory.getConverter(ELEMENT, double.class);
+        assertNotNull(lConverter);
+        assertEquals(Double.valueOf(10), lConverter.convert(10L));
+
+        Converter<List<Long>, double[]> lListConverter = lFactory.getConverter(
+                Types.parameterized(List.class, ELEMENT), double[].class);
+        assertNotNull(lListConverter);
+        assertEquals("[1.0, 2.0]", Arrays.toString(
+                lListConverter.convert(Arrays.asList(1L, 2L))));
+    }
+
+    @Test
+    public void testUnresolvableTypeVariablesAreRejected() {
+        ConverterFactory lFactory = fromFactories(
+                new TypeVariableFilteringChainedFactory(String.class),
+                new ChainedIdentityConverterFactory(),
+                new ChainedPrimitiveTypeConverterFactory());
+
+        assertNull(lFactory.getConverter(ELEMENT, double.class));
+    }
+
+    private static class IdList extends ArrayList<Long> {
+    }
+}